@@ -0,0 +1,95 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.benchmark.BenchmarkApplication;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trainings per second counted towards the achievement rules of the default configuration, evaluated one per
+ * transaction and in batches as the {@link AchievementEngine} drains its queue. Trainings of random users start one
+ * minute after another, so the progress keeps moving through new days and weeks and thresholds keep being crossed.
+ * The seeded history is never read by the evaluation, so its size does not matter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AchievementBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+    private static final long MINUTE = 60_000L;
+
+    @Param("10000")
+    public int users;
+
+    @Param({"0", "10"})
+    public int trainingsPerUser;
+
+    private long trainings;
+
+    private BenchmarkApplication application;
+    private AchievementEngine achievementEngine;
+
+    @Setup
+    public void setUp() {
+        // the benchmark evaluates the trainings itself
+        application = BenchmarkApplication.start(users, trainingsPerUser, "achievement.evaluation-interval=PT1H");
+        achievementEngine = application.getBean(AchievementEngine.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public int evaluateOne() {
+        return achievementEngine.evaluate(List.of(nextTraining()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int evaluateBatch() {
+        List<TrainingSnapshot> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(nextTraining());
+        }
+        return achievementEngine.evaluate(batch);
+    }
+
+    private TrainingSnapshot nextTraining() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long training = ++trainings;
+        long start = BenchmarkApplication.DATASET_END.toEpochMilli() + training * MINUTE;
+        return new TrainingSnapshot(training,
+                                    1 + (long) random.nextInt(users),
+                                    ACTIVITY_TYPES[random.nextInt(ACTIVITY_TYPES.length)],
+                                    new Date(start),
+                                    new Date(start + 45 * MINUTE),
+                                    random.nextDouble(1, 20),
+                                    10.0);
+    }
+
+}
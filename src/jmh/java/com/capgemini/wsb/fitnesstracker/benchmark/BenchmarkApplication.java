@@ -0,0 +1,179 @@
+package com.capgemini.wsb.fitnesstracker.benchmark;
+
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Starts the application for benchmarks on its own in-memory H2 database, seeded with a deterministic dataset.
+ * <p>
+ * The schema is created and seeded by a first, short-lived start of the application. The benchmarked application is
+ * started afterwards on the seeded database, so everything loaded on startup (email filter, statistics, rollups,
+ * column store) is built from the dataset just like in production. Background pollers and the weekly schedule are
+ * switched off, so they do not interfere with the measurements.
+ */
+public final class BenchmarkApplication {
+
+    /**
+     * Users are numbered from 1 and have the email {@code user<n>@benchmark.test}.
+     */
+    public static final String EMAIL_FORMAT = "user%d@benchmark.test";
+
+    /**
+     * All seeded trainings start within the year before this instant.
+     */
+    public static final Instant DATASET_END = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final long SEED = 42;
+    private static final int BATCH_SIZE = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final String url;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context, String url) {
+        this.context = context;
+        this.url = url;
+    }
+
+    /**
+     * Starts the application on a new database with the given number of users and trainings.
+     *
+     * @param users number of users
+     * @param trainingsPerUser number of trainings of every user
+     * @param properties additional application properties, as {@code name=value}
+     * @return the started application
+     */
+    public static BenchmarkApplication start(int users, int trainingsPerUser, String... properties) {
+        return start(users, trainingsPerUser, context -> { }, properties);
+    }
+
+    /**
+     * Starts the application on a new database with the given number of users and trainings.
+     *
+     * @param users number of users
+     * @param trainingsPerUser number of trainings of every user
+     * @param initializer customizes the context before it is refreshed, e.g. to register additional beans
+     * @param properties additional application properties, as {@code name=value}
+     * @return the started application
+     */
+    public static BenchmarkApplication start(int users,
+                                             int trainingsPerUser,
+                                             ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+                                             String... properties) {
+        String url = "jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        try (ConfigurableApplicationContext schema = run(url, "create", context -> { }, properties)) {
+            seed(schema.getBean(JdbcTemplate.class), users, trainingsPerUser);
+        }
+        return new BenchmarkApplication(run(url, "none", initializer, properties), url);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * The application context itself is not a bean, so events are published through this accessor.
+     *
+     * @return publisher of application events of the started application
+     */
+    public ApplicationEventPublisher eventPublisher() {
+        return context;
+    }
+
+    /**
+     * Stops the application and drops its database.
+     */
+    public void stop() {
+        context.close();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "password")) {
+            connection.createStatement().execute("shutdown");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Dropping of the benchmark database failed", e);
+        }
+    }
+
+    private static ConfigurableApplicationContext run(String url,
+                                                      String ddlAuto,
+                                                      ApplicationContextInitializer<ConfigurableApplicationContext> initializer,
+                                                      String... properties) {
+        Map<String, String> arguments = new LinkedHashMap<>();
+        arguments.put("spring.profiles.active", "benchmark");
+        arguments.put("spring.main.banner-mode", "off");
+        arguments.put("logging.level.root", "WARN");
+        arguments.put("mail.outbox.poll-interval", "PT1H");
+        arguments.put("training.events.spill-drain-interval", "PT1H");
+        arguments.put("report.weekly.cron", "-");
+        // given properties replace the defaults, a repeated argument would be bound as a comma-separated list
+        Stream.of(properties).map(property -> property.split("=", 2)).forEach(property -> arguments.put(property[0], property[1]));
+        arguments.put("spring.datasource.url", url);
+        arguments.put("spring.jpa.hibernate.ddl-auto", ddlAuto);
+        return new SpringApplicationBuilder(FitnessTracker.class)
+                .web(WebApplicationType.NONE)
+                .initializers(initializer)
+                .run(arguments.entrySet().stream()
+                             .map(argument -> "--" + argument.getKey() + "=" + argument.getValue())
+                             .toArray(String[]::new));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int users, int trainingsPerUser) {
+        Random random = new Random(SEED);
+        ActivityType[] activityTypes = ActivityType.values();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int user = 1; user <= users; user++) {
+            batch.add(new Object[]{"First" + user, "Last" + user,
+                                   LocalDate.of(1950, 1, 1).plusDays(random.nextInt(365 * 55)),
+                                   EMAIL_FORMAT.formatted(user)});
+            flushIfFull(jdbcTemplate, "insert into users (first_name, last_name, birthdate, email) values (?, ?, ?, ?)", batch, false);
+        }
+        flushIfFull(jdbcTemplate, "insert into users (first_name, last_name, birthdate, email) values (?, ?, ?, ?)", batch, true);
+
+        String insertTraining = """
+                insert into trainings (id, user_id, start_time, end_time, activity_type, distance, average_speed)
+                values (?, ?, ?, ?, ?, ?, ?)
+                """;
+        long id = 0;
+        long year = Duration.ofDays(365).toMillis();
+        for (int user = 1; user <= users; user++) {
+            for (int training = 0; training < trainingsPerUser; training++) {
+                long start = DATASET_END.toEpochMilli() - (long) (random.nextDouble() * year);
+                long duration = Duration.ofMinutes(20 + random.nextInt(100)).toMillis();
+                double speed = 5 + random.nextDouble() * 25;
+                batch.add(new Object[]{++id, user, new Timestamp(start), new Timestamp(start + duration),
+                                       random.nextInt(activityTypes.length),
+                                       speed * duration / Duration.ofHours(1).toMillis(), speed});
+                flushIfFull(jdbcTemplate, insertTraining, batch, false);
+            }
+        }
+        flushIfFull(jdbcTemplate, insertTraining, batch, true);
+        // ids above the seeded ones are left to the pooled sequence of the application
+        jdbcTemplate.execute("alter sequence trainings_seq restart with " + (id + 100));
+    }
+
+    private static void flushIfFull(JdbcTemplate jdbcTemplate, String sql, List<Object[]> batch, boolean force) {
+        if (batch.size() >= BATCH_SIZE || (force && !batch.isEmpty())) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+}
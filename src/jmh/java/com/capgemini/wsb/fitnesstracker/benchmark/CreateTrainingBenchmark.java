@@ -0,0 +1,80 @@
+package com.capgemini.wsb.fitnesstracker.benchmark;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.BulkTrainingResultDto;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Creation of trainings end-to-end through {@link TrainingService}: validation, insert, the incremental statistics
+ * and rollups written before the commit and the events delivered after it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateTrainingBenchmark {
+
+    private static final int BULK_SIZE = 100;
+
+    @Param("10000")
+    public int users;
+
+    @Param("10")
+    public int trainingsPerUser;
+
+    private BenchmarkApplication application;
+    private TrainingService trainingService;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start(users, trainingsPerUser);
+        trainingService = application.getBean(TrainingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public TrainingDto createTraining() {
+        // the id only has to be unused, the created training gets a generated one
+        return trainingService.createTraining(randomTraining(-1L));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BulkTrainingResultDto createTrainingsBulk() {
+        return trainingService.createTrainings(IntStream.range(0, BULK_SIZE).mapToObj(i -> randomTraining(null)).toList());
+    }
+
+    private TrainingDto randomTraining(Long id) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = BenchmarkApplication.DATASET_END.toEpochMilli() - random.nextLong(365L * 24 * 3_600_000);
+        return new TrainingDto(id, new UserDto((long) random.nextInt(users) + 1, null, null, null, null),
+                               new Date(start), new Date(start + 3_600_000L),
+                               ActivityType.values()[random.nextInt(ActivityType.values().length)], 10.0, 10.0);
+    }
+
+}
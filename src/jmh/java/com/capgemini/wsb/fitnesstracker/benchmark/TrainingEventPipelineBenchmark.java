@@ -0,0 +1,80 @@
+package com.capgemini.wsb.fitnesstracker.benchmark;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedListener;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate at which committed trainings can hand their completed events to a listener of the given cost, per overflow
+ * policy of the delivery queue. With a slow listener, BLOCK measures the listener itself, DROP the cost of discarding
+ * and SPILL the cost of storing the overflowing events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class TrainingEventPipelineBenchmark {
+
+    @Param({"BLOCK", "DROP", "SPILL"})
+    public String overflowPolicy;
+
+    /**
+     * CPU work of the listener per event, in JMH tokens.
+     */
+    @Param({"0", "10000"})
+    public long listenerTokens;
+
+    private BenchmarkApplication application;
+    private ApplicationEventPublisher eventPublisher;
+    private TrainingCompletedEvent event;
+
+    @Setup
+    public void setUp() {
+        TrainingCompletedListener listener = completed -> Blackhole.consumeCPU(listenerTokens);
+        application = BenchmarkApplication.start(1, 0,
+                context -> context.getBeanFactory().registerSingleton("benchmarkListener", listener),
+                "training.events.overflow-policy=" + overflowPolicy,
+                "training.events.spill-drain-interval=PT1S",
+                // the achievement rules would add their own cost to every delivered event
+                "achievement.rules=",
+                // a warning per dropped event would dominate the DROP measurement
+                "logging.level.com.capgemini.wsb.fitnesstracker.training.internal.TrainingEventDispatcher=ERROR");
+        eventPublisher = application.eventPublisher();
+        event = new TrainingCompletedEvent(new TrainingSnapshot(1L, 1L, ActivityType.RUNNING,
+                                                                new Date(0), new Date(3_600_000L), 10.0, 10.0));
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public void publish() {
+        // outside of a transaction the event is handed to the queue right away
+        eventPublisher.publishEvent(event);
+    }
+
+}
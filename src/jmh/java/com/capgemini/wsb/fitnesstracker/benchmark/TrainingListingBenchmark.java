@@ -0,0 +1,97 @@
+package com.capgemini.wsb.fitnesstracker.benchmark;
+
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The training listing queries of {@link TrainingService} against H2, with and without the second-level and query
+ * cache, so the read mix of the cache can be compared with plain SQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrainingListingBenchmark {
+
+    private static final int PAGE = 100;
+
+    @Param("10000")
+    public int users;
+
+    @Param("20")
+    public int trainingsPerUser;
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private BenchmarkApplication application;
+    private TrainingService trainingService;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start(users, trainingsPerUser,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache);
+        trainingService = application.getBean(TrainingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public List<TrainingDto> findTrainingsByUserId() {
+        return trainingService.findTrainingsByUserId(randomUserId());
+    }
+
+    @Benchmark
+    public CursorPage<TrainingDto> findTrainingsByUserIdPage() {
+        return trainingService.findTrainingsByUserId(randomUserId(), null, PAGE);
+    }
+
+    @Benchmark
+    public CursorPage<TrainingDto> findAllTrainingsFirstPage() {
+        return trainingService.findAllTrainings(null, PAGE);
+    }
+
+    @Benchmark
+    public CursorPage<TrainingDto> findTrainingsByActivityTypeFirstPage() {
+        ActivityType[] activityTypes = ActivityType.values();
+        return trainingService.findTrainingsByActivityType(activityTypes[ThreadLocalRandom.current().nextInt(activityTypes.length)], null, PAGE);
+    }
+
+    @Benchmark
+    public CursorPage<TrainingDto> findTrainingsEndedWithinDay() {
+        long day = Duration.ofDays(1).toMillis();
+        long endAfter = BenchmarkApplication.DATASET_END.toEpochMilli() - day * (1 + ThreadLocalRandom.current().nextInt(364));
+        return trainingService.findTrainingsEndedBetween(new Date(endAfter), new Date(endAfter + day), null, null, null, PAGE);
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextInt(users) + 1;
+    }
+
+}
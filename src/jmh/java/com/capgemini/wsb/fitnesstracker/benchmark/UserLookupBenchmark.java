@@ -0,0 +1,137 @@
+package com.capgemini.wsb.fitnesstracker.benchmark;
+
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.user.api.AgeBracket;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserExistsException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Email lookups straight from the repository and through the cached {@link UserProvider}, and the signup of new
+ * users including the duplicate email check. Email fragment searches scan the users table in the database and are
+ * served by the trigram index through the {@link UserService}. Age-range pages and age histograms are queried from
+ * the database along its birthdate index and served by the in-memory birthdate index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    @Param("100000")
+    public int users;
+
+    private final AtomicLong signups = new AtomicLong();
+
+    private BenchmarkApplication application;
+    private UserRepository userRepository;
+    private UserProvider userProvider;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start(users, 0);
+        userRepository = application.getBean(UserRepository.class);
+        userProvider = application.getBean(UserProvider.class);
+        userService = application.getBean(UserService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public Optional<User> repositoryFindByEmail() {
+        return userRepository.findByEmail(randomEmail());
+    }
+
+    @Benchmark
+    public Optional<User> providerGetUserByEmail() {
+        return userProvider.getUserByEmail(randomEmail());
+    }
+
+    @Benchmark
+    public User signupWithNewEmail() throws UserExistsException {
+        String email = "signup%d@benchmark.test".formatted(signups.incrementAndGet());
+        return userService.createUser(new User("New", "User", LocalDate.of(1990, 1, 1), email));
+    }
+
+    @Benchmark
+    public List<User> databaseEmailFragmentSearch() {
+        return userRepository.findPageByEmailContaining(randomFragment(), "", 0, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
+    }
+
+    @Benchmark
+    public CursorPage<User> indexedEmailFragmentSearch() {
+        return userService.findByEmailIgnoreCaseContaining(randomFragment(), null, CursorPage.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<User> rankedSearch() {
+        return userService.searchUsers(randomFragment(), 10);
+    }
+
+    @Benchmark
+    public List<User> databaseAgeRange() {
+        LocalDate today = LocalDate.now();
+        return userRepository.findPageByBirthdateBetween(today.minusYears(41).plusDays(1), today.minusYears(30).plusDays(1),
+                                                         LocalDate.of(1, 1, 1), 0, Limit.of(CursorPage.DEFAULT_LIMIT + 1));
+    }
+
+    @Benchmark
+    public CursorPage<User> indexedAgeRange() {
+        return userService.findUsersByAge(30, 40, null, CursorPage.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public long[] databaseAgeHistogram() {
+        LocalDate today = LocalDate.now();
+        long[] atLeastAge = new long[11];
+        for (int bracket = 0; bracket < atLeastAge.length; bracket++) {
+            atLeastAge[bracket] = userRepository.countByBirthdateBefore(today.minusYears(bracket * 10L).plusDays(1));
+        }
+        return atLeastAge;
+    }
+
+    @Benchmark
+    public List<AgeBracket> indexedAgeHistogram() {
+        return userService.countUsersByAge(10, 100);
+    }
+
+    /**
+     * Fragment matching the email of one user and of the users whose number extends it, e.g. {@code er4711@}.
+     */
+    private String randomFragment() {
+        return "er%d@".formatted(ThreadLocalRandom.current().nextInt(users) + 1);
+    }
+
+    private String randomEmail() {
+        return BenchmarkApplication.EMAIL_FORMAT.formatted(ThreadLocalRandom.current().nextInt(users) + 1);
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.capgemini.wsb.fitnesstracker.benchmark;
+
+import com.capgemini.wsb.fitnesstracker.report.internal.WeeklyReportJob;
+import com.capgemini.wsb.fitnesstracker.report.internal.WeeklyReportResultDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One complete run of the weekly report job over all users. Every invocation reports another week of the dataset,
+ * as the job sends the reports of a week only once. Run with {@code -p users=1000000} for the production-scale run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class WeeklyReportBenchmark {
+
+    private static final LocalDate LAST_WEEK = LocalDate.of(2023, 12, 25);
+
+    @Param("100000")
+    public int users;
+
+    @Param("5")
+    public int trainingsPerUser;
+
+    @Param("4")
+    public int parallelism;
+
+    private BenchmarkApplication application;
+    private WeeklyReportJob weeklyReportJob;
+    private int runs;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start(users, trainingsPerUser, "report.weekly.parallelism=" + parallelism);
+        weeklyReportJob = application.getBean(WeeklyReportJob.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public WeeklyReportResultDto run() {
+        return weeklyReportJob.run(LAST_WEEK.minusWeeks(runs++));
+    }
+
+}
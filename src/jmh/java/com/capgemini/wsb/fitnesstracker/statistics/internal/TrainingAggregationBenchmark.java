@@ -0,0 +1,80 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.benchmark.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grouping of a year of trainings by day and activity type in the in-memory {@link TrainingColumnStore}, compared
+ * with the equivalent SQL aggregation on H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrainingAggregationBenchmark {
+
+    private static final Instant FROM = BenchmarkApplication.DATASET_END.minus(365, ChronoUnit.DAYS);
+    private static final Instant TO = BenchmarkApplication.DATASET_END;
+
+    @Param("10000")
+    public int users;
+
+    @Param("100")
+    public int trainingsPerUser;
+
+    private BenchmarkApplication application;
+    private TrainingColumnStore columnStore;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start(users, trainingsPerUser);
+        columnStore = application.getBean(TrainingColumnStore.class);
+        jdbcTemplate = application.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.stop();
+    }
+
+    @Benchmark
+    public List<TrainingAggregateDto> columnStore() {
+        return columnStore.aggregate(FROM, TO, ChronoUnit.DAYS);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sql() {
+        return jdbcTemplate.queryForList("""
+                select cast(start_time as date) as bucket_start, activity_type, count(*) as trainings,
+                       sum(distance), avg(distance), avg(average_speed),
+                       sum(datediff('SECOND', start_time, end_time)), avg(datediff('SECOND', start_time, end_time))
+                from trainings
+                where start_time >= ? and start_time < ?
+                group by bucket_start, activity_type
+                order by bucket_start, activity_type
+                """, Timestamp.from(FROM), Timestamp.from(TO));
+    }
+
+}
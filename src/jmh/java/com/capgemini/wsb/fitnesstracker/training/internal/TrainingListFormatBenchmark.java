@@ -0,0 +1,82 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a page of trainings in the {@link TrainingListFormat#FULL} and {@link TrainingListFormat#COMPACT}
+ * format, with the object mapper settings of the application. The compact benchmark includes building the compact page
+ * from the DTOs, as the controller does. The payload sizes of both formats are printed at the start of every trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrainingListFormatBenchmark {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Param({"100", "1000", "5000"})
+    public int trainings;
+
+    @Param({"1", "100"})
+    public int users;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CursorPage<TrainingDto> page;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ActivityType[] activityTypes = ActivityType.values();
+        List<TrainingDto> items = new ArrayList<>(trainings);
+        for (int i = 0; i < trainings; i++) {
+            long userId = 1 + i % users;
+            // every training gets its own user DTO, as mapped from the entities
+            UserDto user = new UserDto(userId, "First" + userId, "Last" + userId, LocalDate.of(1990, 1, 1),
+                                       "first" + userId + ".last" + userId + "@example.com");
+            long start = 1_700_000_000_000L + i * HOUR;
+            items.add(new TrainingDto((long) i + 1, user, new Date(start), new Date(start + HOUR),
+                                      activityTypes[i % activityTypes.length], 10.0 + i % 7, 12.5));
+        }
+        page = new CursorPage<>(items, "MTAw");
+
+        int full = serializeFull().length;
+        int compact = serializeCompact().length;
+        System.out.printf("%nPayload of %d trainings of %d users: full %d bytes, compact %d bytes (%.0f%%)%n",
+                          trainings, users, full, compact, 100.0 * compact / full);
+    }
+
+    @Benchmark
+    public byte[] serializeFull() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(TrainingListFormat.FULL.render(page));
+    }
+
+    @Benchmark
+    public byte[] serializeCompact() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(TrainingListFormat.COMPACT.render(page));
+    }
+
+}
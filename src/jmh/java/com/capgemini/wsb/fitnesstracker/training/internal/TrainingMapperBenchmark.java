@@ -0,0 +1,77 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserDto;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping trainings and users between entities and DTOs, paid for every element of every listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrainingMapperBenchmark {
+
+    private final UserMapper userMapper = new UserMapper();
+    private final TrainingMapper trainingMapper = new TrainingMapper(userMapper);
+
+    private User user;
+    private Training training;
+    private TrainingDto trainingDto;
+    private UserDto userDto;
+
+    @Setup
+    public void setUp() {
+        user = new User("Jane", "Doe", LocalDate.of(1990, 1, 1), "jane.doe@example.com");
+        user.setId(1L);
+        training = new Training(user, new Date(0), new Date(3_600_000L), ActivityType.RUNNING, 10.0, 10.0);
+        training.setId(1L);
+        trainingDto = trainingMapper.toDto(training);
+        userDto = userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public TrainingDto trainingToDto() {
+        return trainingMapper.toDto(training);
+    }
+
+    @Benchmark
+    public Training trainingToEntity() {
+        return trainingMapper.toEntity(trainingDto);
+    }
+
+    @Benchmark
+    public TrainingSnapshot trainingToSnapshot() {
+        return TrainingSnapshot.of(training);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return userMapper.toEntity(userDto);
+    }
+
+}
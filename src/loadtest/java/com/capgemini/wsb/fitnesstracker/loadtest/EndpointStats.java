@@ -0,0 +1,107 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of the requests of one endpoint, recorded concurrently by the completing requests.
+ * <p>
+ * Latency is measured from the moment the request was scheduled to be sent, not from the moment it was actually sent,
+ * so a server falling behind the arrival rate shows up in the percentiles instead of silently lowering the load.
+ */
+final class EndpointStats {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Records a completed request.
+     *
+     * @param status HTTP status of the response
+     * @param bodyBytes length of the response body
+     * @param latencyNanos time from the scheduled send to the complete response
+     */
+    void recordResponse(int status, long bodyBytes, long latencyNanos) {
+        latencies.recordValue(Math.min(MAX_LATENCY, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        receivedBytes.add(bodyBytes);
+        if (status < 400) {
+            successes.increment();
+            if (status == 304) {
+                notModified.increment();
+            }
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    /**
+     * Records a request that did not get a response, e.g. because of a timeout or a refused connection.
+     *
+     * @param latencyNanos time from the scheduled send to the failure
+     */
+    void recordFailure(long latencyNanos) {
+        latencies.recordValue(Math.min(MAX_LATENCY, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        failures.increment();
+    }
+
+    /**
+     * Records a request that was not sent, because too many requests were already waiting for a response.
+     */
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    long requests() {
+        return successes.sum() + clientErrors.sum() + serverErrors.sum() + failures.sum() + dropped.sum();
+    }
+
+    long successes() {
+        return successes.sum();
+    }
+
+    long notModified() {
+        return notModified.sum();
+    }
+
+    long receivedBytes() {
+        return receivedBytes.sum();
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long failures() {
+        return failures.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    long errors() {
+        return requests() - successes();
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+}
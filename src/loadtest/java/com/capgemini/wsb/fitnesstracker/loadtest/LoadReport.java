@@ -0,0 +1,183 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.Nullable;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Result of one load test run: throughput, errors, received bytes and latency percentiles per endpoint and in total,
+ * and the CPU time the application spent. Written as JSON, so the runs of different releases can be compared with each
+ * other.
+ *
+ * @param configuration settings of the run
+ * @param measuredSeconds length of the measurement, without the warmup
+ * @param endpoints results per endpoint, in the order of the workload mix
+ * @param total results of all endpoints together
+ * @param serverCpuSeconds CPU time of the application during the measurement, {@code null} if it does not publish it
+ */
+record LoadReport(Map<String, String> configuration,
+                  double measuredSeconds,
+                  List<EndpointReport> endpoints,
+                  EndpointReport total,
+                  @Nullable Double serverCpuSeconds) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String ROW_FORMAT = "%-42s %9s %9s %9s %10s %8s %8s %8s %8s %9s %9s%n";
+
+    /**
+     * Results of one endpoint.
+     *
+     * @param endpoint method and path of the endpoint
+     * @param requests number of scheduled requests
+     * @param successes responses with a status below 400
+     * @param notModified responses with a 304 status, included in the successes
+     * @param clientErrors responses with a 4xx status
+     * @param serverErrors responses with a 5xx status
+     * @param failures requests without a response, e.g. timed out
+     * @param dropped requests not sent, because too many were waiting for a response
+     * @param receivedBytes length of all response bodies
+     * @param throughput successful responses per second
+     * @param latency latency percentiles in milliseconds
+     */
+    record EndpointReport(String endpoint,
+                          long requests,
+                          long successes,
+                          long notModified,
+                          long clientErrors,
+                          long serverErrors,
+                          long failures,
+                          long dropped,
+                          long receivedBytes,
+                          double throughput,
+                          Latency latency) {
+
+        static EndpointReport of(String endpoint, List<EndpointStats> stats, double measuredSeconds) {
+            Histogram latencies = new Histogram(3);
+            stats.forEach(endpointStats -> latencies.add(endpointStats.latencies()));
+            long successes = sum(stats, EndpointStats::successes);
+            return new EndpointReport(endpoint,
+                                      sum(stats, EndpointStats::requests),
+                                      successes,
+                                      sum(stats, EndpointStats::notModified),
+                                      sum(stats, EndpointStats::clientErrors),
+                                      sum(stats, EndpointStats::serverErrors),
+                                      sum(stats, EndpointStats::failures),
+                                      sum(stats, EndpointStats::dropped),
+                                      sum(stats, EndpointStats::receivedBytes),
+                                      successes / measuredSeconds,
+                                      Latency.of(latencies));
+        }
+
+        long errors() {
+            return requests - successes;
+        }
+
+        private static long sum(List<EndpointStats> stats, Function<EndpointStats, Long> value) {
+            return stats.stream().mapToLong(value::apply).sum();
+        }
+    }
+
+    /**
+     * Latency percentiles in milliseconds.
+     */
+    record Latency(double mean, double p50, double p90, double p99, double p999, double max) {
+
+        static Latency of(Histogram micros) {
+            return new Latency(millis(micros.getMean()),
+                               millis(micros.getValueAtPercentile(50)),
+                               millis(micros.getValueAtPercentile(90)),
+                               millis(micros.getValueAtPercentile(99)),
+                               millis(micros.getValueAtPercentile(99.9)),
+                               millis(micros.getMaxValue()));
+        }
+
+        private static double millis(double micros) {
+            return Math.round(micros) / 1000.0;
+        }
+    }
+
+    /**
+     * Creates the report from the recorded statistics.
+     *
+     * @param configuration settings of the run
+     * @param measuredSeconds length of the measurement, without the warmup
+     * @param stats statistics by endpoint
+     * @param serverCpuSeconds CPU time of the application during the measurement, {@code null} if unknown
+     * @return the report
+     */
+    static LoadReport of(Map<String, String> configuration,
+                         double measuredSeconds,
+                         Map<String, EndpointStats> stats,
+                         @Nullable Double serverCpuSeconds) {
+        List<EndpointReport> endpoints = new ArrayList<>();
+        stats.forEach((endpoint, endpointStats) -> endpoints.add(EndpointReport.of(endpoint, List.of(endpointStats), measuredSeconds)));
+        return new LoadReport(configuration, measuredSeconds, endpoints,
+                              EndpointReport.of("TOTAL", List.copyOf(stats.values()), measuredSeconds),
+                              serverCpuSeconds);
+    }
+
+    static LoadReport read(Path path) throws IOException {
+        return OBJECT_MAPPER.readValue(path.toFile(), LoadReport.class);
+    }
+
+    void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        OBJECT_MAPPER.writeValue(path.toFile(), this);
+    }
+
+    /**
+     * Prints the report as a table, with the change of p99 latency against the baseline if given, followed by the
+     * CPU time of the application per request and its change against the baseline.
+     *
+     * @param out stream to print to
+     * @param baseline report of an earlier run, {@code null} if none
+     */
+    void print(PrintStream out, @Nullable LoadReport baseline) {
+        Map<String, EndpointReport> baselineEndpoints = baseline == null ? Map.of()
+                : baseline.endpoints().stream().collect(Collectors.toMap(EndpointReport::endpoint, Function.identity()));
+        out.printf(ROW_FORMAT, "endpoint", "requests", "errors", "304s", "kB", "p50 ms", "p90 ms", "p99 ms", "max ms", "req/s", "p99 diff");
+        endpoints.forEach(endpoint -> printRow(out, endpoint, baselineEndpoints.get(endpoint.endpoint())));
+        printRow(out, total, baseline == null ? null : baseline.total());
+        Double cpuPerRequest = cpuMillisPerRequest();
+        if (cpuPerRequest != null) {
+            Double baselineCpuPerRequest = baseline == null ? null : baseline.cpuMillisPerRequest();
+            out.printf("server CPU %.2f s, %.3f ms per request%s%n", serverCpuSeconds, cpuPerRequest,
+                       baselineCpuPerRequest == null || baselineCpuPerRequest == 0 ? "" :
+                               " (%+.0f%%)".formatted(100 * (cpuPerRequest / baselineCpuPerRequest - 1)));
+        }
+    }
+
+    @Nullable
+    private Double cpuMillisPerRequest() {
+        long responses = total.requests() - total.failures() - total.dropped();
+        return serverCpuSeconds == null || responses == 0 ? null : serverCpuSeconds * 1000 / responses;
+    }
+
+    private static void printRow(PrintStream out, EndpointReport endpoint, @Nullable EndpointReport baseline) {
+        out.printf(ROW_FORMAT,
+                   endpoint.endpoint(),
+                   endpoint.requests(),
+                   endpoint.errors(),
+                   endpoint.notModified(),
+                   endpoint.receivedBytes() / 1024,
+                   endpoint.latency().p50(),
+                   endpoint.latency().p90(),
+                   endpoint.latency().p99(),
+                   endpoint.latency().max(),
+                   "%.1f".formatted(endpoint.throughput()),
+                   baseline == null || baseline.latency().p99() == 0 ? "" :
+                           "%+.0f%%".formatted(100 * (endpoint.latency().p99() / baseline.latency().p99() - 1)));
+    }
+
+}
@@ -0,0 +1,254 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load test of a running application, sending the requests of the Postman collection in a configurable mix.
+ * <p>
+ * The load follows an open model: requests arrive at the given rate with exponentially distributed gaps (a Poisson
+ * process), independently of how fast the application responds. A slow application therefore sees a growing number of
+ * concurrent requests, like it would with real clients, instead of a lower rate. The arrivals, the chosen endpoints and
+ * the ids in the requests are drawn from a seeded random generator, so runs with the same options send the same
+ * workload.
+ * <p>
+ * Options, given as {@code --name=value}:
+ * <ul>
+ *     <li>{@code base-url} URL of the application, default {@code http://localhost:8080}</li>
+ *     <li>{@code collection} Postman collection with the request shapes, default {@code CAPWSB.postman_collection.json}</li>
+ *     <li>{@code mix} {@code read-only}, {@code read-heavy}, {@code write-heavy} or custom weights, see {@link WorkloadMix}</li>
+ *     <li>{@code rate} arrivals per second, default 100</li>
+ *     <li>{@code duration} length of the measurement, default {@code PT60S}</li>
+ *     <li>{@code warmup} length of the warmup, not included in the report, default {@code PT10S}</li>
+ *     <li>{@code users} and {@code trainings} number of existing users and trainings, ids are drawn from 1 to this
+ *     number, default 10</li>
+ *     <li>{@code seed} seed of the random generator, default 42</li>
+ *     <li>{@code max-in-flight} requests waiting for a response at most, further arrivals are dropped and reported,
+ *     default 1000</li>
+ *     <li>{@code conditional} {@code true} to send GET requests with the ETag of the last response to the same URI in
+ *     {@code If-None-Match}, like polling clients caching the responses do, default {@code false}</li>
+ *     <li>{@code report} JSON file the report is written to, default {@code target/loadtest-report.json}</li>
+ *     <li>{@code baseline} JSON report of an earlier run to compare with, optional</li>
+ * </ul>
+ * The report includes the received body bytes per endpoint and, if the application publishes {@code process.cpu.time}
+ * on {@code /actuator/metrics}, the CPU time it spent during the measurement. Comparing a conditional run with a
+ * baseline run without it shows the bytes and the server CPU saved by the not modified responses.
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("base-url", "http://localhost:8080"),
+            Map.entry("collection", "CAPWSB.postman_collection.json"),
+            Map.entry("mix", "read-heavy"),
+            Map.entry("rate", "100"),
+            Map.entry("duration", "PT60S"),
+            Map.entry("warmup", "PT10S"),
+            Map.entry("users", "10"),
+            Map.entry("trainings", "10"),
+            Map.entry("seed", "42"),
+            Map.entry("max-in-flight", "1000"),
+            Map.entry("conditional", "false"));
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder()
+                                                  .version(HttpClient.Version.HTTP_1_1)
+                                                  .connectTimeout(Duration.ofSeconds(5))
+                                                  .build();
+    private final Map<URI, String> eTags = new ConcurrentHashMap<>();
+    private final boolean conditional;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        this.conditional = Boolean.parseBoolean(options.get("conditional"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid option '" + arg + "', expected --name=value");
+            }
+            String[] option = arg.substring(2).split("=", 2);
+            if (!option[1].isBlank()) {
+                options.put(option[0], option[1]);
+            }
+        }
+
+        LoadReport report = new LoadTest(options).run();
+        String baseline = options.get("baseline");
+        report.print(System.out, baseline != null ? LoadReport.read(Path.of(baseline)) : null);
+        Path reportPath = Path.of(options.getOrDefault("report", "target/loadtest-report.json"));
+        report.write(reportPath);
+        System.out.println("Report written to " + reportPath.toAbsolutePath());
+    }
+
+    private LoadReport run() throws IOException, InterruptedException {
+        Map<String, RequestTemplate> collection = PostmanCollection.read(Path.of(options.get("collection")));
+        WorkloadMix mix = WorkloadMix.of(options.get("mix"), collection);
+        Random random = new Random(Long.parseLong(options.get("seed")));
+        WorkloadData data = new WorkloadData(random,
+                                             Integer.parseInt(options.get("users")),
+                                             Integer.parseInt(options.get("trainings")),
+                                             UUID.randomUUID().toString().substring(0, 8));
+        String baseUrl = options.get("base-url");
+        double rate = Double.parseDouble(options.get("rate"));
+        long warmupNanos = Duration.parse(options.get("warmup")).toNanos();
+        long durationNanos = Duration.parse(options.get("duration")).toNanos();
+        int maxInFlight = Integer.parseInt(options.get("max-in-flight"));
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        mix.templates().forEach(template -> stats.put(template.endpoint(), new EndpointStats()));
+        // responses to the requests sent during the warmup are not reported
+        EndpointStats warmupStats = new EndpointStats();
+
+        System.out.printf("Sending %s mix at %.0f requests/s to %s for %s after %s of warmup%n",
+                          mix.name(), rate, baseUrl, options.get("duration"), options.get("warmup"));
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        CompletableFuture<Double> cpuAtStart = null;
+        long start = System.nanoTime();
+        long end = start + warmupNanos + durationNanos;
+        long scheduled = start;
+        while (true) {
+            // exponential gaps between the arrivals make them a Poisson process of the given rate
+            scheduled += (long) (-Math.log(1 - random.nextDouble()) / rate * TimeUnit.SECONDS.toNanos(1));
+            if (scheduled >= end) {
+                break;
+            }
+            RequestTemplate template = mix.next(random);
+            HttpRequest request = template.instantiate(baseUrl, data);
+            EndpointStats endpointStats = scheduled < start + warmupNanos ? warmupStats : stats.get(template.endpoint());
+            waitUntil(scheduled);
+            if (cpuAtStart == null && scheduled >= start + warmupNanos) {
+                cpuAtStart = serverCpuSeconds(baseUrl);
+            }
+            send(request, scheduled, endpointStats, inFlight);
+        }
+
+        // let the requests of the measurement complete, they time out at the latest
+        inFlight.acquire(maxInFlight);
+        Double cpuAtEnd = serverCpuSeconds(baseUrl).join();
+        Double cpuSeconds = cpuAtStart == null || cpuAtStart.join() == null || cpuAtEnd == null ? null
+                : cpuAtEnd - cpuAtStart.join();
+        Map<String, String> configuration = new TreeMap<>(options);
+        configuration.remove("baseline");
+        configuration.remove("report");
+        configuration.put("weights", mix.weights().toString());
+        return LoadReport.of(configuration, durationNanos / 1e9, stats, cpuSeconds);
+    }
+
+    private void send(HttpRequest request, long scheduled, EndpointStats stats, Semaphore inFlight) {
+        if (!inFlight.tryAcquire()) {
+            stats.recordDropped();
+            return;
+        }
+        HttpRequest sent = conditional ? withETag(request) : request;
+        client.sendAsync(sent, responseInfo -> HttpResponse.BodySubscribers.fromSubscriber(new ByteCounter(), ByteCounter::count))
+              .whenComplete((response, failure) -> {
+                  long latency = System.nanoTime() - scheduled;
+                  if (failure != null) {
+                      stats.recordFailure(latency);
+                  } else {
+                      stats.recordResponse(response.statusCode(), response.body(), latency);
+                      rememberETag(response);
+                  }
+                  inFlight.release();
+              });
+    }
+
+    private HttpRequest withETag(HttpRequest request) {
+        String eTag = request.method().equals("GET") ? eTags.get(request.uri()) : null;
+        return eTag == null ? request
+                : HttpRequest.newBuilder(request, (name, value) -> true).header("If-None-Match", eTag).build();
+    }
+
+    private void rememberETag(HttpResponse<?> response) {
+        if (conditional && response.statusCode() == 200 && response.request().method().equals("GET")) {
+            response.headers().firstValue("ETag").ifPresent(eTag -> eTags.put(response.request().uri(), eTag));
+        }
+    }
+
+    /**
+     * Reads the CPU time the application has spent so far, never failing.
+     *
+     * @return CPU seconds of the application, {@code null} if it does not publish them
+     */
+    private CompletableFuture<Double> serverCpuSeconds(String baseUrl) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/process.cpu.time"))
+                                         .timeout(Duration.ofSeconds(5))
+                                         .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                     .thenApply(response -> response.statusCode() == 200 ? measurement(response.body()) : null)
+                     .exceptionally(failure -> null);
+    }
+
+    @Nullable
+    private static Double measurement(String metric) {
+        try {
+            JsonNode value = OBJECT_MAPPER.readTree(metric).path("measurements").path(0).path("value");
+            return value.isNumber() ? value.asDouble() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Counts the bytes of a response body without keeping them.
+     */
+    private static final class ByteCounter implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private long count;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            buffers.forEach(buffer -> count += buffer.remaining());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        long count() {
+            return count;
+        }
+    }
+
+}
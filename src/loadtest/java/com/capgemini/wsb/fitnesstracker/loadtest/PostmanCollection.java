@@ -0,0 +1,90 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the request shapes of a Postman collection (format v2.1), so the load test sends the same requests as the ones
+ * used to try the API by hand.
+ */
+final class PostmanCollection {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Pattern SCHEME_AND_AUTHORITY = Pattern.compile("^\\w+://[^/]*");
+
+    private PostmanCollection() {
+    }
+
+    /**
+     * Reads all requests of the collection, including the ones in folders.
+     * Collection variables in the URLs are resolved, so the paths are relative to the host of the application.
+     * Requests sharing method and path are only read once.
+     *
+     * @param collection path of the collection file
+     * @return request templates by their {@link RequestTemplate#endpoint()}
+     * @throws IOException if the collection cannot be read
+     */
+    static Map<String, RequestTemplate> read(Path collection) throws IOException {
+        JsonNode root = OBJECT_MAPPER.readTree(collection.toFile());
+        Map<String, String> variables = new HashMap<>();
+        root.path("variable").forEach(variable -> variables.put(variable.path("key").asText().strip(),
+                                                                variable.path("value").asText().strip()));
+
+        Map<String, RequestTemplate> templates = new LinkedHashMap<>();
+        collect(root.path("item"), variables, templates);
+        return templates;
+    }
+
+    private static void collect(JsonNode items, Map<String, String> variables, Map<String, RequestTemplate> templates)
+            throws IOException {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.path("item"), variables, templates);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            JsonNode url = request.path("url");
+            String[] rawUrl = (url.isTextual() ? url.asText() : url.path("raw").asText()).split("\\?", 2);
+            RequestTemplate template = new RequestTemplate(request.path("method").asText(),
+                                                           pathOf(resolve(rawUrl[0], variables)),
+                                                           rawUrl.length > 1 ? rawUrl[1] : "",
+                                                           body(request));
+            templates.putIfAbsent(template.endpoint(), template);
+        }
+    }
+
+    private static String resolve(String url, Map<String, String> variables) {
+        String resolved = url;
+        int start;
+        while ((start = resolved.indexOf("{{")) >= 0) {
+            int end = resolved.indexOf("}}", start);
+            String name = resolved.substring(start + 2, end).strip();
+            String value = variables.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Undefined collection variable " + name + " in " + url);
+            }
+            resolved = resolved.substring(0, start) + value + resolved.substring(end + 2);
+        }
+        return resolved;
+    }
+
+    private static String pathOf(String url) {
+        // only the path is kept, the host is given by the base URL of the load test
+        return SCHEME_AND_AUTHORITY.matcher(url).replaceFirst("");
+    }
+
+    @Nullable
+    private static JsonNode body(JsonNode request) throws IOException {
+        String raw = request.path("body").path("raw").asText();
+        return raw.isBlank() ? null : OBJECT_MAPPER.readTree(raw);
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.Nullable;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Shape of one request of the Postman collection, turned into concrete requests by filling in ids and unique values.
+ * <ul>
+ *     <li>path variables ({@code :id}, {@code :user_id}) get a random id of the resource of the endpoint, or of a user
+ *     if the variable is named after it</li>
+ *     <li>a top level {@code email} of the body gets a value unique within the run, so signups do not collide</li>
+ *     <li>a top level {@code id} of a created resource is set to -1, an id of a modified one to the id from the path</li>
+ *     <li>a non-null {@code user.id} of the body gets a random user id</li>
+ * </ul>
+ *
+ * @param method HTTP method
+ * @param path path relative to the base URL, starting with {@code /v1}, with path variables prefixed by a colon
+ * @param query query string without the leading {@code ?}, empty if none
+ * @param body JSON body, {@code null} if none
+ */
+record RequestTemplate(String method, String path, String query, @Nullable JsonNode body) {
+
+    private static final Pattern PATH_VARIABLE = Pattern.compile(":(\\w+)");
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Key of the endpoint in workload mixes and reports, e.g. {@code GET /v1/users/user/:id}.
+     *
+     * @return method and path of the request
+     */
+    String endpoint() {
+        return method + " " + path;
+    }
+
+    /**
+     * Creates a concrete request of this shape.
+     *
+     * @param baseUrl URL of the application, e.g. {@code http://localhost:8080}
+     * @param data source of ids and unique values
+     * @return request ready to be sent
+     */
+    HttpRequest instantiate(String baseUrl, WorkloadData data) {
+        boolean usersEndpoint = path.startsWith("/v1/users");
+        long pathId = 0;
+        StringBuilder resolvedPath = new StringBuilder();
+        Matcher matcher = PATH_VARIABLE.matcher(path);
+        while (matcher.find()) {
+            boolean userId = usersEndpoint || matcher.group(1).startsWith("user");
+            pathId = userId ? data.randomUserId() : data.randomTrainingId();
+            matcher.appendReplacement(resolvedPath, Long.toString(pathId));
+        }
+        matcher.appendTail(resolvedPath);
+
+        URI uri = URI.create(baseUrl + resolvedPath + (query.isEmpty() ? "" : "?" + query));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(TIMEOUT).header("Accept", "application/json");
+        if (body == null) {
+            return request.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return request.header("Content-Type", "application/json")
+                      .method(method, HttpRequest.BodyPublishers.ofString(resolveBody(pathId, data).toString()))
+                      .build();
+    }
+
+    private JsonNode resolveBody(long pathId, WorkloadData data) {
+        if (!(body instanceof ObjectNode object)) {
+            return body;
+        }
+        ObjectNode resolved = object.deepCopy();
+        if (resolved.has("email")) {
+            resolved.put("email", data.uniqueEmail());
+        }
+        if (resolved.has("id")) {
+            resolved.put("id", pathId != 0 ? pathId : -1);
+        }
+        if (resolved.get("user") instanceof ObjectNode user && user.hasNonNull("id")) {
+            user.put("id", data.randomUserId());
+        }
+        return resolved;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import java.util.Random;
+
+/**
+ * Ids and unique values filled into the requests. Ids are drawn from a seeded random generator, so two runs with the
+ * same configuration send the same sequence of requests.
+ * Only used by the single thread scheduling the requests.
+ */
+final class WorkloadData {
+
+    private final Random random;
+    private final int users;
+    private final int trainings;
+    private final String runId;
+    private long sequence;
+
+    /**
+     * @param random seeded source of ids
+     * @param users ids of existing users are expected to be 1 to {@code users}
+     * @param trainings ids of existing trainings are expected to be 1 to {@code trainings}
+     * @param runId distinguishes the unique values of this run from the ones of previous runs
+     */
+    WorkloadData(Random random, int users, int trainings, String runId) {
+        this.random = random;
+        this.users = users;
+        this.trainings = trainings;
+        this.runId = runId;
+    }
+
+    Random random() {
+        return random;
+    }
+
+    long randomUserId() {
+        return 1 + random.nextInt(users);
+    }
+
+    long randomTrainingId() {
+        return 1 + random.nextInt(trainings);
+    }
+
+    String uniqueEmail() {
+        return "loadtest-" + runId + "-" + ++sequence + "@example.com";
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.capgemini.wsb.fitnesstracker.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of the endpoints of the Postman collection. Every request of the load test picks its endpoint at random
+ * with the probability given by the weights.
+ * <p>
+ * A mix is given either by the name of a predefined one, or as {@code <endpoint>=<weight>} pairs separated by commas,
+ * e.g. {@code GET /v1/users/user/:id=80,POST /v1/users/user/add=20}.
+ */
+final class WorkloadMix {
+
+    private static final Map<String, String> PREDEFINED = Map.of(
+            "read-only", """
+                    GET /v1/users/user/:id=30,
+                    GET /v1/users/user/list=5,
+                    GET /v1/users/user/search=10,
+                    GET /v1/users/user/age=5,
+                    GET /v1/trainings/training/user/:user_id=30,
+                    GET /v1/trainings/training/list=5,
+                    GET /v1/trainings/trainings/ended=5,
+                    GET /v1/trainings/trainings/by-activity=10
+                    """,
+            "read-heavy", """
+                    GET /v1/users/user/:id=30,
+                    GET /v1/users/user/search=10,
+                    GET /v1/trainings/training/user/:user_id=30,
+                    GET /v1/trainings/trainings/ended=5,
+                    GET /v1/trainings/trainings/by-activity=15,
+                    POST /v1/users/user/add=2,
+                    POST /v1/trainings/training=6,
+                    PATCH /v1/trainings/trainings/:id=2
+                    """,
+            "write-heavy", """
+                    GET /v1/users/user/:id=20,
+                    GET /v1/trainings/training/user/:user_id=20,
+                    POST /v1/users/user/add=10,
+                    POST /v1/trainings/training=40,
+                    PATCH /v1/trainings/trainings/:id=10
+                    """);
+
+    private final String name;
+    private final Map<String, Double> weights;
+    private final List<RequestTemplate> templates;
+    private final double[] cumulativeWeights;
+
+    private WorkloadMix(String name, Map<String, Double> weights, List<RequestTemplate> templates, double[] cumulativeWeights) {
+        this.name = name;
+        this.weights = weights;
+        this.templates = templates;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    /**
+     * Creates the mix of the given name or specification.
+     *
+     * @param mix name of a predefined mix or the weights of the endpoints
+     * @param collection request templates of the Postman collection by endpoint
+     * @return the mix
+     * @throws IllegalArgumentException if the mix refers to an endpoint missing in the collection
+     */
+    static WorkloadMix of(String mix, Map<String, RequestTemplate> collection) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String entry : PREDEFINED.getOrDefault(mix, mix).split(",")) {
+            String[] endpointAndWeight = entry.strip().split("=", 2);
+            if (endpointAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid workload mix entry '" + entry.strip() + "', expected <endpoint>=<weight>");
+            }
+            weights.merge(endpointAndWeight[0].strip(), Double.parseDouble(endpointAndWeight[1].strip()), Double::sum);
+        }
+
+        List<RequestTemplate> templates = new ArrayList<>();
+        double[] cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        for (Map.Entry<String, Double> weight : weights.entrySet()) {
+            RequestTemplate template = collection.get(weight.getKey());
+            if (template == null) {
+                throw new IllegalArgumentException("Endpoint " + weight.getKey() + " is not in the collection, available: "
+                                                   + collection.keySet());
+            }
+            total += weight.getValue();
+            cumulativeWeights[templates.size()] = total;
+            templates.add(template);
+        }
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            cumulativeWeights[i] /= total;
+        }
+        return new WorkloadMix(PREDEFINED.containsKey(mix) ? mix : "custom", weights, templates, cumulativeWeights);
+    }
+
+    String name() {
+        return name;
+    }
+
+    Map<String, Double> weights() {
+        return weights;
+    }
+
+    List<RequestTemplate> templates() {
+        return templates;
+    }
+
+    RequestTemplate next(Random random) {
+        double point = random.nextDouble();
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (point < cumulativeWeights[i]) {
+                return templates.get(i);
+            }
+        }
+        return templates.get(templates.size() - 1);
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.achievement.api;
+
+import java.util.List;
+
+public interface AchievementProvider {
+
+    /**
+     * Retrieves the achievements awarded to a user.
+     *
+     * @param userId id of the user
+     * @return achievements of the user, in the order they were awarded
+     */
+    List<UserAchievement> findAchievements(Long userId);
+
+}
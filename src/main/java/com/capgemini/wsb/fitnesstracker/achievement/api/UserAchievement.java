@@ -0,0 +1,36 @@
+package com.capgemini.wsb.fitnesstracker.achievement.api;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Achievement awarded to a user once the progress of the user towards its rule reached the threshold.
+ */
+@Entity
+@Table(name = "user_achievements", indexes = @Index(name = "idx_user_achievements_user", columnList = "user_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class UserAchievement {
+
+    @EmbeddedId
+    private UserAchievementId id;
+
+    @Column(name = "awarded_at", nullable = false)
+    private Instant awardedAt;
+
+    @Column(name = "training_id", nullable = false)
+    private Long trainingId;
+
+    public UserAchievement(
+            final UserAchievementId id,
+            final Instant awardedAt,
+            final Long trainingId) {
+        this.id = id;
+        this.awardedAt = awardedAt;
+        this.trainingId = trainingId;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.achievement.api;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Identifies an achievement rule of one user, for the awarded achievement as well as the progress towards it.
+ * A user gets every achievement at most once.
+ */
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class UserAchievementId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "code", nullable = false, length = 64)
+    private String code;
+
+}
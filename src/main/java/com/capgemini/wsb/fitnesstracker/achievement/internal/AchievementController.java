@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/v1/achievements")
+class AchievementController {
+
+    private final AchievementServiceImpl achievementService;
+    private final Map<String, AchievementProperties.Rule> rulesByCode;
+
+    AchievementController(final AchievementServiceImpl achievementService,
+                          final AchievementProperties properties) {
+        this.achievementService = achievementService;
+        this.rulesByCode = properties.getRules().stream()
+                .collect(Collectors.toMap(AchievementProperties.Rule::getCode, Function.identity()));
+    }
+
+    /**
+     * Retrieves the achievements awarded to a user.
+     *
+     * @param userId The unique identifier of the user.
+     * @return The achievements of the user, in the order they were awarded.
+     */
+    @GetMapping("/{userId}")
+    public List<UserAchievementDto> getAchievements(@PathVariable Long userId) {
+        return achievementService.findAchievements(userId).stream()
+                .map(achievement -> {
+                    AchievementProperties.Rule rule = rulesByCode.get(achievement.getId().getCode());
+                    return new UserAchievementDto(achievement.getId().getCode(),
+                                                  rule != null ? rule.getTitle() : achievement.getId().getCode(),
+                                                  achievement.getAwardedAt(),
+                                                  achievement.getTrainingId());
+                })
+                .toList();
+    }
+
+    /**
+     * Retrieves the progress of a user towards the configured achievements, as maintained by the rule evaluation.
+     *
+     * @param userId The unique identifier of the user.
+     * @return The progress within the latest window of every configured rule the user trained for.
+     */
+    @GetMapping("/{userId}/progress")
+    public List<AchievementProgressDto> getProgress(@PathVariable Long userId) {
+        return achievementService.findProgress(userId).stream()
+                .filter(progress -> rulesByCode.containsKey(progress.getId().getCode()))
+                .map(progress -> {
+                    AchievementProperties.Rule rule = rulesByCode.get(progress.getId().getCode());
+                    return new AchievementProgressDto(rule.getCode(),
+                                                      rule.getTitle(),
+                                                      rule.getWindow() == AchievementWindow.ALL_TIME ? null : progress.getId().getWindowStart(),
+                                                      progress.getValue(),
+                                                      rule.getThreshold());
+                })
+                .toList();
+    }
+
+}
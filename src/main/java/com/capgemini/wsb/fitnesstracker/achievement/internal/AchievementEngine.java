@@ -0,0 +1,276 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.UserAchievement;
+import com.capgemini.wsb.fitnesstracker.achievement.api.UserAchievementId;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedListener;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Evaluates the configured achievement rules on every completed training.
+ * <p>
+ * Each rule only needs the {@link AchievementProgress} of the user within the window of the training, so a training
+ * never rescans the history of its user. A training is added to its own window even if later trainings were
+ * evaluated first; only the latest {@code achievement.kept-windows} windows of a rule are kept per user.
+ * Completed trainings are queued and evaluated in batches, one transaction per batch: the progress and the
+ * achievements of all users of the batch are read with one query each, and the changed rows are written in JDBC
+ * batches. Rules are grouped by activity type up front, so trainings no rule counts are not even queued.
+ * <p>
+ * Batches are evaluated one after another, so the progress of a user is never updated concurrently and an achievement
+ * is awarded at most once; the primary key of {@link UserAchievement} keeps the awards unique in the database.
+ * A single engine per database is assumed. Like the delivery of the events, the evaluation is best effort: trainings
+ * still queued when the application crashes are not counted. A batch whose transaction fails is evaluated again with
+ * the next evaluation, one training per transaction, so only the trainings failing on their own are lost.
+ * <p>
+ * Metrics: {@code achievement.trainings.late} (trainings not counted towards a rule because their window is older than
+ * all kept windows of the user) and {@code achievement.trainings.failed} (trainings whose evaluation failed on retry).
+ */
+@Component
+@Slf4j
+class AchievementEngine implements TrainingCompletedListener {
+
+    private final AchievementProgressRepository progressRepository;
+    private final UserAchievementRepository userAchievementRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+    private final Map<ActivityType, List<AchievementProperties.Rule>> rulesByActivityType = new EnumMap<>(ActivityType.class);
+    private final BlockingQueue<TrainingSnapshot> pending;
+    private final int batchSize;
+    private final int keptWindows;
+    private final AtomicBoolean evaluating = new AtomicBoolean();
+    private final List<TrainingSnapshot> failed = new ArrayList<>();
+    private final Clock clock = Clock.systemUTC();
+    private final Counter late;
+    private final Counter failures;
+
+    AchievementEngine(final AchievementProperties properties,
+                      final AchievementProgressRepository progressRepository,
+                      final UserAchievementRepository userAchievementRepository,
+                      final EntityManager entityManager,
+                      final PlatformTransactionManager transactionManager,
+                      final MeterRegistry meterRegistry) {
+        this.progressRepository = progressRepository;
+        this.userAchievementRepository = userAchievementRepository;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.pending = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.keptWindows = properties.getKeptWindows();
+        this.late = Counter.builder("achievement.trainings.late")
+                .description("Trainings not counted towards a rule because their window is no longer kept")
+                .register(meterRegistry);
+        this.failures = Counter.builder("achievement.trainings.failed")
+                .description("Trainings whose achievements could not be evaluated, even on their own")
+                .register(meterRegistry);
+
+        Set<String> codes = new HashSet<>();
+        for (AchievementProperties.Rule rule : properties.getRules()) {
+            if (!codes.add(rule.getCode())) {
+                throw new IllegalStateException("Duplicate achievement code " + rule.getCode());
+            }
+        }
+        for (ActivityType activityType : ActivityType.values()) {
+            rulesByActivityType.put(activityType, properties.getRules().stream()
+                    .filter(rule -> rule.matches(activityType))
+                    .toList());
+        }
+    }
+
+    /**
+     * Queues the training for the next evaluation, waiting for room in the queue if it is full, so a backlog of
+     * the evaluation holds back the delivery of further events.
+     */
+    @Override
+    public void onTrainingCompleted(TrainingCompletedEvent event) {
+        TrainingSnapshot training = event.training();
+        if (rulesByActivityType.get(training.activityType()).isEmpty()) {
+            return;
+        }
+        try {
+            pending.put(training);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for room in the achievement queue, skipping training {}", training.trainingId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${achievement.evaluation-interval:PT0.2S}")
+    void evaluatePeriodically() {
+        try {
+            evaluatePending();
+        } catch (RuntimeException e) {
+            log.error("Evaluation of the achievements failed", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        int evaluated = evaluatePending();
+        if (evaluated > 0) {
+            log.info("{} queued trainings evaluated before shutdown", evaluated);
+        }
+    }
+
+    /**
+     * Evaluates the trainings of a previously failed batch one by one, then the queued trainings in batches until the
+     * queue is empty or a batch fails. Returns immediately if another evaluation is running.
+     *
+     * @return number of evaluated trainings
+     */
+    int evaluatePending() {
+        if (!evaluating.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int evaluated = retryFailed();
+            List<TrainingSnapshot> batch = new ArrayList<>(batchSize);
+            while (pending.drainTo(batch, batchSize) > 0) {
+                try {
+                    evaluate(batch);
+                    evaluated += batch.size();
+                } catch (RuntimeException e) {
+                    log.warn("Evaluation of a batch of {} trainings failed, retrying them one by one", batch.size(), e);
+                    failed.addAll(batch);
+                    return evaluated;
+                } finally {
+                    batch.clear();
+                }
+            }
+            return evaluated;
+        } finally {
+            evaluating.set(false);
+        }
+    }
+
+    private int retryFailed() {
+        int evaluated = 0;
+        for (TrainingSnapshot training : failed) {
+            try {
+                evaluate(List.of(training));
+                evaluated++;
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Evaluation of the achievements of training {} failed, skipping it", training.trainingId(), e);
+            }
+        }
+        failed.clear();
+        return evaluated;
+    }
+
+    /**
+     * Counts a batch of trainings towards the rules, in the order of the batch, and awards the achievements whose
+     * threshold was reached.
+     *
+     * @param trainings completed trainings
+     * @return number of awarded achievements
+     */
+    int evaluate(List<TrainingSnapshot> trainings) {
+        Integer awards = transaction.execute(status -> {
+            Set<Long> userIds = new HashSet<>();
+            trainings.forEach(training -> userIds.add(training.userId()));
+            Map<UserAchievementId, NavigableMap<LocalDate, AchievementProgress>> progressById = new HashMap<>();
+            progressRepository.findOfUsers(userIds).forEach(progress -> {
+                AchievementProgressId id = progress.getId();
+                windowsOf(progressById, new UserAchievementId(id.getUserId(), id.getCode())).put(id.getWindowStart(), progress);
+            });
+            Set<UserAchievementId> awarded = new HashSet<>(userAchievementRepository.findIdsOfUsers(userIds));
+
+            int awarding = 0;
+            for (TrainingSnapshot training : trainings) {
+                awarding += evaluate(training, progressById, awarded);
+            }
+            return awarding;
+        });
+        return awards != null ? awards : 0;
+    }
+
+    private int evaluate(TrainingSnapshot training,
+                         Map<UserAchievementId, NavigableMap<LocalDate, AchievementProgress>> progressById,
+                         Set<UserAchievementId> awarded) {
+        LocalDate day = LocalDate.ofInstant(training.startTime().toInstant(), ZoneOffset.UTC);
+        int awarding = 0;
+        for (AchievementProperties.Rule rule : rulesByActivityType.get(training.activityType())) {
+            UserAchievementId id = new UserAchievementId(training.userId(), rule.getCode());
+            if (awarded.contains(id)) {
+                continue;
+            }
+            AchievementProgress progress = progressOf(progressById, id, rule.getWindow().start(day));
+            if (progress == null) {
+                late.increment();
+                log.debug("Training {} of user {} is older than the kept windows of {}, not counted",
+                          training.trainingId(), training.userId(), rule.getCode());
+                continue;
+            }
+            progress.add(rule.getMetric().valueOf(training));
+            if (progress.getValue() >= rule.getThreshold()) {
+                entityManager.persist(new UserAchievement(id, Instant.now(clock), training.trainingId()));
+                awarded.add(id);
+                awarding++;
+                log.debug("User {} achieved {} with training {}", training.userId(), rule.getCode(), training.trainingId());
+            }
+        }
+        return awarding;
+    }
+
+    /**
+     * Returns the progress within the window, creating it if needed and dropping the oldest window once more than
+     * {@link #keptWindows} are kept.
+     *
+     * @return progress within the window, {@code null} if the window is older than all kept windows
+     */
+    @Nullable
+    private AchievementProgress progressOf(Map<UserAchievementId, NavigableMap<LocalDate, AchievementProgress>> progressById,
+                                           UserAchievementId id,
+                                           LocalDate windowStart) {
+        NavigableMap<LocalDate, AchievementProgress> windows = windowsOf(progressById, id);
+        AchievementProgress progress = windows.get(windowStart);
+        if (progress != null) {
+            return progress;
+        }
+        if (windows.size() >= keptWindows && windowStart.isBefore(windows.firstKey())) {
+            return null;
+        }
+        progress = new AchievementProgress(new AchievementProgressId(id.getUserId(), id.getCode(), windowStart));
+        entityManager.persist(progress);
+        windows.put(windowStart, progress);
+        while (windows.size() > keptWindows) {
+            entityManager.remove(windows.pollFirstEntry().getValue());
+        }
+        return progress;
+    }
+
+    private static NavigableMap<LocalDate, AchievementProgress> windowsOf(
+            Map<UserAchievementId, NavigableMap<LocalDate, AchievementProgress>> progressById,
+            UserAchievementId id) {
+        return progressById.computeIfAbsent(id, key -> new TreeMap<>());
+    }
+
+}
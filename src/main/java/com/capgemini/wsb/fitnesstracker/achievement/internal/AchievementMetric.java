@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+
+/**
+ * Quantity of the trainings summed up by an achievement rule.
+ */
+enum AchievementMetric {
+
+    TRAININGS {
+        @Override
+        double valueOf(TrainingSnapshot training) {
+            return 1;
+        }
+    },
+    DISTANCE {
+        @Override
+        double valueOf(TrainingSnapshot training) {
+            return training.distance();
+        }
+    };
+
+    /**
+     * @param training completed training
+     * @return contribution of the training to the progress of a rule
+     */
+    abstract double valueOf(TrainingSnapshot training);
+
+}
@@ -0,0 +1,33 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Running state of one user towards one achievement rule: the sum of the metric within one window of the rule.
+ * It is all the evaluation of a rule needs, so completed trainings never rescan the history of the user. Every window
+ * has its own row, so a training delivered after later ones is still added to the window it belongs to; only the
+ * latest windows of a user are kept.
+ */
+@Entity
+@Table(name = "achievement_progress", indexes = @Index(name = "idx_achievement_progress_user", columnList = "user_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class AchievementProgress {
+
+    @EmbeddedId
+    private AchievementProgressId id;
+
+    @Column(name = "progress", nullable = false)
+    private double value;
+
+    AchievementProgress(final AchievementProgressId id) {
+        this.id = id;
+    }
+
+    void add(double amount) {
+        value += amount;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDate;
+
+/**
+ * @param code code of the achievement rule
+ * @param title name of the achievement
+ * @param windowStart first day of the window of the progress, {@code null} for all time rules
+ * @param progress sum of the metric within the window
+ * @param threshold sum at which the achievement is awarded
+ */
+record AchievementProgressDto(String code,
+                              String title,
+                              @Nullable LocalDate windowStart,
+                              double progress,
+                              double threshold) {
+
+}
@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Identifies the progress of one user towards one achievement rule within one window of the rule.
+ */
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class AchievementProgressId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "code", nullable = false, length = 64)
+    private String code;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDate windowStart;
+
+}
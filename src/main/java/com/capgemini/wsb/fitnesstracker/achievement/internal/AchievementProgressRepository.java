@@ -0,0 +1,26 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+interface AchievementProgressRepository extends JpaRepository<AchievementProgress, AchievementProgressId> {
+
+    /**
+     * @param userId id of the user
+     * @return progress of the user within the kept windows of every rule the user trained for, the latest window of
+     * every rule first
+     */
+    List<AchievementProgress> findByIdUserIdOrderByIdCodeAscIdWindowStartDesc(Long userId);
+
+    /**
+     * @param userIds ids of the users
+     * @return progress of the users within the kept windows of every rule they trained for
+     */
+    @Query("select p from AchievementProgress p where p.id.userId in :userIds")
+    List<AchievementProgress> findOfUsers(@Param("userIds") Collection<Long> userIds);
+
+}
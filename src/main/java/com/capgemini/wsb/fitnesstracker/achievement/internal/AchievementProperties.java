@@ -0,0 +1,115 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of the achievement module.
+ */
+@ConfigurationProperties(prefix = "achievement")
+@Getter
+class AchievementProperties {
+
+    /**
+     * Rules of the achievements, evaluated on every completed training.
+     */
+    private final List<Rule> rules;
+
+    /**
+     * Maximal number of completed trainings waiting for the evaluation; further trainings wait for room in the queue.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Maximal number of trainings evaluated in one transaction.
+     */
+    private final int batchSize;
+
+    /**
+     * Delay between two evaluations of the waiting trainings, in ISO-8601 format as it is also read by
+     * {@code @Scheduled}.
+     */
+    private final Duration evaluationInterval;
+
+    /**
+     * Number of the latest windows of a rule whose progress is kept per user. Trainings of older windows are not
+     * counted anymore.
+     */
+    private final int keptWindows;
+
+    AchievementProperties(@DefaultValue final List<Rule> rules,
+                          @DefaultValue("10000") final int queueCapacity,
+                          @DefaultValue("500") final int batchSize,
+                          @DefaultValue("PT0.2S") final Duration evaluationInterval,
+                          @DefaultValue("12") final int keptWindows) {
+        this.rules = rules;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.evaluationInterval = evaluationInterval;
+        this.keptWindows = keptWindows;
+    }
+
+    /**
+     * Achievement awarded once the sum of the metric of the matching trainings within one window reaches the
+     * threshold, e.g. 100 km of running in total or 5 trainings of any kind within a week.
+     */
+    @Getter
+    static class Rule {
+
+        /**
+         * Unique code of the achievement, stored with the progress and the awarded achievements.
+         */
+        private final String code;
+
+        /**
+         * Human readable name of the achievement.
+         */
+        private final String title;
+
+        /**
+         * Activity type of the counted trainings, all trainings count if not set.
+         */
+        @Nullable
+        private final ActivityType activityType;
+
+        /**
+         * Summed up quantity of the trainings.
+         */
+        private final AchievementMetric metric;
+
+        /**
+         * Window within which the trainings are summed up.
+         */
+        private final AchievementWindow window;
+
+        /**
+         * Sum at which the achievement is awarded.
+         */
+        private final double threshold;
+
+        Rule(final String code,
+             final String title,
+             @Nullable final ActivityType activityType,
+             @DefaultValue("TRAININGS") final AchievementMetric metric,
+             @DefaultValue("ALL_TIME") final AchievementWindow window,
+             @DefaultValue("1") final double threshold) {
+            this.code = code;
+            this.title = title;
+            this.activityType = activityType;
+            this.metric = metric;
+            this.window = window;
+            this.threshold = threshold;
+        }
+
+        boolean matches(ActivityType type) {
+            return activityType == null || activityType == type;
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.AchievementProvider;
+import com.capgemini.wsb.fitnesstracker.achievement.api.UserAchievement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+class AchievementServiceImpl implements AchievementProvider {
+
+    private final UserAchievementRepository userAchievementRepository;
+    private final AchievementProgressRepository progressRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserAchievement> findAchievements(Long userId) {
+        return userAchievementRepository.findByIdUserIdOrderByAwardedAtAscIdCodeAsc(userId);
+    }
+
+    /**
+     * @param userId id of the user
+     * @return progress of the user within the latest window of every rule the user trained for
+     */
+    @Transactional(readOnly = true)
+    public List<AchievementProgress> findProgress(Long userId) {
+        Set<String> codes = new HashSet<>();
+        return progressRepository.findByIdUserIdOrderByIdCodeAscIdWindowStartDesc(userId).stream()
+                .filter(progress -> codes.add(progress.getId().getCode()))
+                .toList();
+    }
+
+}
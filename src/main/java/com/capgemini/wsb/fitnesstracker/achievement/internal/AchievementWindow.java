@@ -0,0 +1,44 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Time window within which the trainings of an achievement rule are summed up. Days, ISO weeks (starting on Monday)
+ * and calendar months are in UTC and follow the start time of the trainings.
+ */
+enum AchievementWindow {
+
+    ALL_TIME {
+        @Override
+        LocalDate start(LocalDate date) {
+            return LocalDate.EPOCH;
+        }
+    },
+    DAY {
+        @Override
+        LocalDate start(LocalDate date) {
+            return date;
+        }
+    },
+    WEEK {
+        @Override
+        LocalDate start(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    },
+    MONTH {
+        @Override
+        LocalDate start(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+    };
+
+    /**
+     * @param date day within the window
+     * @return first day of the window containing the date, the same constant day for {@link #ALL_TIME}
+     */
+    abstract LocalDate start(LocalDate date);
+
+}
@@ -0,0 +1,16 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import java.time.Instant;
+
+/**
+ * @param code code of the achievement rule
+ * @param title name of the achievement, its code if the rule is no longer configured
+ * @param awardedAt moment the achievement was awarded
+ * @param trainingId id of the training which reached the threshold
+ */
+record UserAchievementDto(String code,
+                          String title,
+                          Instant awardedAt,
+                          Long trainingId) {
+
+}
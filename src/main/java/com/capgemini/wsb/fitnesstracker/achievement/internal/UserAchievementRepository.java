@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.achievement.internal;
+
+import com.capgemini.wsb.fitnesstracker.achievement.api.UserAchievement;
+import com.capgemini.wsb.fitnesstracker.achievement.api.UserAchievementId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+interface UserAchievementRepository extends JpaRepository<UserAchievement, UserAchievementId> {
+
+    /**
+     * @param userId id of the user
+     * @return achievements of the user, in the order they were awarded
+     */
+    List<UserAchievement> findByIdUserIdOrderByAwardedAtAscIdCodeAsc(Long userId);
+
+    /**
+     * @param userIds ids of the users
+     * @return ids of the achievements of the users
+     */
+    @Query("select a.id from UserAchievement a where a.id.userId in :userIds")
+    List<UserAchievementId> findIdsOfUsers(@Param("userIds") Collection<Long> userIds);
+
+}
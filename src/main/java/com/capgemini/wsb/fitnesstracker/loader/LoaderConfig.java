@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoaderProperties.class)
+class LoaderConfig {
+
+}
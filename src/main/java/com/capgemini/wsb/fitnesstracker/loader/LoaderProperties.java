@@ -0,0 +1,89 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Configuration of the data loaders.
+ */
+@ConfigurationProperties(prefix = "loader")
+@Getter
+class LoaderProperties {
+
+    /**
+     * Synthetic dataset created by the {@link SyntheticDataGenerator}.
+     */
+    private final Synthetic synthetic;
+
+    LoaderProperties(@DefaultValue final Synthetic synthetic) {
+        this.synthetic = synthetic;
+    }
+
+    @Getter
+    static class Synthetic {
+
+        /**
+         * Number of generated users.
+         */
+        private final int users;
+
+        /**
+         * Number of generated trainings of every user.
+         */
+        private final int trainingsPerUser;
+
+        /**
+         * Seed of the random generator; the same seed creates the same dataset, regardless of the number of workers.
+         */
+        private final long seed;
+
+        /**
+         * All generated trainings start within this period before {@link #periodEnd}.
+         */
+        private final Duration period;
+
+        /**
+         * End of the period of the generated trainings. Fixed rather than the current time, so the dataset does not
+         * depend on the day it was generated.
+         */
+        private final Instant periodEnd;
+
+        /**
+         * Number of threads inserting the rows, each with its own connection.
+         */
+        private final int workers;
+
+        /**
+         * Number of users processed by one task of a worker.
+         */
+        private final int usersPerTask;
+
+        /**
+         * Number of rows sent to the database in one JDBC batch.
+         */
+        private final int batchSize;
+
+        Synthetic(@DefaultValue("100000") final int users,
+                  @DefaultValue("10") final int trainingsPerUser,
+                  @DefaultValue("42") final long seed,
+                  @DefaultValue("P365D") final Duration period,
+                  @DefaultValue("2024-01-31T00:00:00Z") final Instant periodEnd,
+                  @DefaultValue("4") final int workers,
+                  @DefaultValue("1000") final int usersPerTask,
+                  @DefaultValue("1000") final int batchSize) {
+            this.users = users;
+            this.trainingsPerUser = trainingsPerUser;
+            this.seed = seed;
+            this.period = period;
+            this.periodEnd = periodEnd;
+            this.workers = workers;
+            this.usersPerTask = usersPerTask;
+            this.batchSize = batchSize;
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.capgemini.wsb.fitnesstracker.loader;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Synthetic data generator. If the application is run with the `generateData` profile, then on application startup it
+ * fills the database with {@code loader.synthetic.users} users having {@code loader.synthetic.trainings-per-user}
+ * trainings each, for reproducing performance issues at production scale.
+ * <p>
+ * The values follow realistic distributions: ages around 38 years, activity types with different shares, durations
+ * and speeds typical for the activity, trainings mostly in the morning and in the evening. Every user is generated
+ * from its own random generator derived from the seed, so the dataset only depends on the seed and not on the number
+ * of workers or the order in which they run.
+ * <p>
+ * Rows are inserted by plain JDBC batches, bypassing the persistence context and the training events, by several
+ * workers in parallel. Everything derived from the trainings on startup (statistics, rollups, column store) is built
+ * afterwards from the generated rows. The identity of users and the sequence of trainings are moved past the generated
+ * ids, so the application continues to create its own rows.
+ */
+@Component
+@Profile("generateData")
+@Slf4j
+class SyntheticDataGenerator {
+
+    private static final String INSERT_USER = "insert into users (id, first_name, last_name, birthdate, email) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_TRAINING = """
+            insert into trainings (id, user_id, start_time, end_time, activity_type, distance, average_speed)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * Leaves the ids the application may already have allocated from the pooled sequence of trainings untouched.
+     */
+    private static final int TRAINING_SEQUENCE_ALLOCATION = 50;
+
+    private static final String[] FIRST_NAMES = {"Emma", "Ethan", "Olivia", "Daniel", "Sophia", "Liam", "Ava", "Noah",
+            "Grace", "Oliver", "Anna", "Jakub", "Zofia", "Jan", "Maja", "Antoni", "Lena", "Szymon", "Julia", "Filip"};
+    private static final String[] LAST_NAMES = {"Johnson", "Taylor", "Davis", "Thomas", "Baker", "Jones", "Williams",
+            "Miller", "Anderson", "Swift", "Nowak", "Kowalski", "Wisniewski", "Wojcik", "Kaminski", "Lewandowski"};
+
+    /**
+     * Typical training of an activity type.
+     *
+     * @param type activity type
+     * @param share fraction of all trainings
+     * @param medianMinutes median duration, durations are log-normally distributed around it
+     * @param speedMean mean of the normally distributed average speed, in km/h
+     * @param speedDeviation standard deviation of the average speed, in km/h
+     */
+    private record ActivityProfile(ActivityType type, double share, double medianMinutes, double speedMean, double speedDeviation) {
+    }
+
+    private static final List<ActivityProfile> ACTIVITY_PROFILES = List.of(
+            new ActivityProfile(ActivityType.RUNNING, 0.35, 45, 10.5, 1.8),
+            new ActivityProfile(ActivityType.CYCLING, 0.25, 80, 21.0, 4.0),
+            new ActivityProfile(ActivityType.WALKING, 0.25, 50, 5.0, 0.7),
+            new ActivityProfile(ActivityType.SWIMMING, 0.10, 40, 2.5, 0.5),
+            new ActivityProfile(ActivityType.TENNIS, 0.05, 75, 4.0, 1.0));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoaderProperties.Synthetic properties;
+
+    SyntheticDataGenerator(final JdbcTemplate jdbcTemplate, final LoaderProperties loaderProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = loaderProperties.getSynthetic();
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    void generateOnStartup() {
+        generate();
+    }
+
+    /**
+     * Generates the configured dataset in addition to the existing rows.
+     */
+    void generate() {
+        long firstUserId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from users", Long.class);
+        long firstTrainingId = Math.max(jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from trainings", Long.class),
+                                        jdbcTemplate.queryForObject("select next value for trainings_seq", Long.class) + TRAINING_SEQUENCE_ALLOCATION);
+        int users = properties.getUsers();
+        long trainings = (long) users * properties.getTrainingsPerUser();
+        log.info("Generating {} users with {} trainings on {} workers, seed {}", users, trainings, properties.getWorkers(), properties.getSeed());
+
+        insertInParallel("users", users, INSERT_USER, (user, rows) -> rows.add(generateUser(firstUserId, user)));
+        jdbcTemplate.execute("alter table users alter column id restart with " + (firstUserId + users));
+
+        insertInParallel("trainings", trainings, INSERT_TRAINING, (user, rows) -> generateTrainings(firstUserId, firstTrainingId, user, rows));
+        jdbcTemplate.execute("alter sequence trainings_seq restart with " + (firstTrainingId + trainings + TRAINING_SEQUENCE_ALLOCATION));
+    }
+
+    private void insertInParallel(String table, long expectedRows, String sql, BiConsumer<Integer, List<Object[]>> rowsOfUser) {
+        long start = System.nanoTime();
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong reported = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getWorkers());
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int firstUser = 0; firstUser < properties.getUsers(); firstUser += properties.getUsersPerTask()) {
+                int from = firstUser;
+                int to = Math.min(properties.getUsers(), firstUser + properties.getUsersPerTask());
+                tasks.add(executor.submit(() -> {
+                    List<Object[]> batch = new ArrayList<>(properties.getBatchSize());
+                    for (int user = from; user < to; user++) {
+                        rowsOfUser.accept(user, batch);
+                        if (batch.size() >= properties.getBatchSize()) {
+                            flush(sql, batch, table, expectedRows, inserted, reported, start);
+                        }
+                    }
+                    flush(sql, batch, table, expectedRows, inserted, reported, start);
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generation of " + table + " was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Generation of " + table + " failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Generated {} {} in {} ms ({} rows/s)", inserted.get(), table, millis, inserted.get() * 1000 / millis);
+    }
+
+    private void flush(String sql, List<Object[]> batch, String table, long expectedRows,
+                       AtomicLong inserted, AtomicLong reported, long start) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, batch);
+        long total = inserted.addAndGet(batch.size());
+        batch.clear();
+
+        // progress is reported after every tenth of the rows
+        long step = Math.max(1, expectedRows / 10);
+        long last = reported.get();
+        if (total / step > last / step && reported.compareAndSet(last, total) && total < expectedRows) {
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            log.info("Generated {} of {} {} ({} rows/s)", total, expectedRows, table, total * 1000 / millis);
+        }
+    }
+
+    private Object[] generateUser(long firstUserId, int user) {
+        SplittableRandom random = randomOf(user, 0);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        double age = Math.max(16, Math.min(85, 38 + 12 * random.nextGaussian()));
+        LocalDate birthdate = LocalDate.ofInstant(properties.getPeriodEnd(), ZoneOffset.UTC)
+                                       .minusDays(Math.round(age * 365.25));
+        long id = firstUserId + user;
+        return new Object[]{id, firstName, lastName, Date.valueOf(birthdate),
+                            "%s.%s.%d@synthetic.test".formatted(firstName, lastName, id).toLowerCase()};
+    }
+
+    private void generateTrainings(long firstUserId, long firstTrainingId, int user, List<Object[]> rows) {
+        SplittableRandom random = randomOf(user, 1);
+        long periodDays = Math.max(1, properties.getPeriod().toDays());
+        long periodStart = properties.getPeriodEnd().minus(Duration.ofDays(periodDays)).toEpochMilli();
+        long firstId = firstTrainingId + (long) user * properties.getTrainingsPerUser();
+        for (int training = 0; training < properties.getTrainingsPerUser(); training++) {
+            ActivityProfile activity = activityOf(random.nextDouble());
+            long start = periodStart + Duration.ofDays(random.nextLong(periodDays)).toMillis() + startOfDay(random).toMillis();
+            double minutes = Math.max(10, Math.min(300, activity.medianMinutes() * Math.exp(0.35 * random.nextGaussian())));
+            double speed = Math.max(0.5, activity.speedMean() + activity.speedDeviation() * random.nextGaussian());
+            long duration = Math.round(minutes * 60_000);
+            rows.add(new Object[]{firstId + training, firstUserId + user, new Timestamp(start), new Timestamp(start + duration),
+                                  activity.type().ordinal(), round(speed * minutes / 60), round(speed)});
+        }
+    }
+
+    /**
+     * Time of day of a training start: 40 % in the morning, 15 % around noon, 45 % in the evening.
+     */
+    private static Duration startOfDay(SplittableRandom random) {
+        double slot = random.nextDouble();
+        int firstHour = slot < 0.40 ? 6 : slot < 0.55 ? 12 : 17;
+        int hours = slot < 0.40 ? 3 : slot < 0.55 ? 2 : 4;
+        return Duration.ofHours(firstHour).plusMinutes(random.nextInt(hours * 60));
+    }
+
+    private static ActivityProfile activityOf(double point) {
+        double cumulativeShare = 0;
+        for (ActivityProfile activity : ACTIVITY_PROFILES) {
+            cumulativeShare += activity.share();
+            if (point < cumulativeShare) {
+                return activity;
+            }
+        }
+        return ACTIVITY_PROFILES.get(ACTIVITY_PROFILES.size() - 1);
+    }
+
+    private SplittableRandom randomOf(int user, int stream) {
+        return new SplittableRandom(properties.getSeed() * 0x9E3779B97F4A7C15L + user * 2L + stream);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+}
@@ -2,16 +2,17 @@ package com.capgemini.wsb.fitnesstracker.mail.internal;
 
 import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.time.Duration;
+
 /**
  * Configuration of the {@link EmailSender} (additional to the Spring mail configuration for {@link JavaMailSender} bean autoconfiguration).
  */
 @ConfigurationProperties(prefix = "mail")
 @Getter
-@RequiredArgsConstructor
 class MailProperties {
 
     /**
@@ -19,4 +20,64 @@ class MailProperties {
      */
     private final String from;
 
+    /**
+     * Delivery of the emails stored in the outbox.
+     */
+    private final Outbox outbox;
+
+    MailProperties(final String from, @DefaultValue final Outbox outbox) {
+        this.from = from;
+        this.outbox = outbox;
+    }
+
+    @Getter
+    static class Outbox {
+
+        /**
+         * Maximal number of emails sent over one SMTP connection.
+         */
+        private final int batchSize;
+
+        /**
+         * Delay between two drains of the outbox, in ISO-8601 format as it is also read by {@code @Scheduled}.
+         */
+        private final Duration pollInterval;
+
+        /**
+         * Number of failed delivery attempts after which an email is moved to the dead letters.
+         */
+        private final int maxAttempts;
+
+        /**
+         * Delay before the first retry, doubled with every further failed attempt.
+         */
+        private final Duration initialBackoff;
+
+        /**
+         * Upper bound of the delay between two attempts.
+         */
+        private final Duration maxBackoff;
+
+        Outbox(@DefaultValue("100") final int batchSize,
+               @DefaultValue("PT1S") final Duration pollInterval,
+               @DefaultValue("5") final int maxAttempts,
+               @DefaultValue("30s") final Duration initialBackoff,
+               @DefaultValue("1h") final Duration maxBackoff) {
+            this.batchSize = batchSize;
+            this.pollInterval = pollInterval;
+            this.maxAttempts = maxAttempts;
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+        }
+
+        /**
+         * @param attempts number of failed attempts so far, at least 1
+         * @return delay before the next attempt
+         */
+        Duration backoff(int attempts) {
+            Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+            return backoff.compareTo(maxBackoff) > 0 || backoff.isNegative() ? maxBackoff : backoff;
+        }
+    }
+
 }
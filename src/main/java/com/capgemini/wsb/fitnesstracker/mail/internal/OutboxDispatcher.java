@@ -0,0 +1,110 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the email outbox in the background: due emails are sent in batches over one SMTP connection per batch,
+ * delivered emails are removed, and failed ones are retried with exponential backoff until they are moved to the
+ * dead letters after {@code mail.outbox.max-attempts} attempts.
+ * <p>
+ * Emails are removed only after the SMTP server accepted them, so an email may be sent twice if the application
+ * stops in between (at-least-once delivery). A single dispatcher per database is assumed.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final SmtpTransport smtpTransport;
+    private final MailProperties.Outbox properties;
+    private final TransactionTemplate transaction;
+    private final Clock clock = Clock.systemUTC();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    OutboxDispatcher(final OutboxEmailRepository outboxEmailRepository,
+                     final SmtpTransport smtpTransport,
+                     final MailProperties mailProperties,
+                     final PlatformTransactionManager transactionManager) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.smtpTransport = smtpTransport;
+        this.properties = mailProperties.getOutbox();
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:PT1S}")
+    void dispatchPeriodically() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.error("Dispatching of the email outbox failed", e);
+        }
+    }
+
+    /**
+     * Sends batches of due emails until no email is due anymore. Returns immediately if another dispatch is running.
+     *
+     * @return number of delivered emails
+     */
+    public int dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int delivered = 0;
+            while (true) {
+                List<OutboxEmail> batch = outboxEmailRepository.findDue(clock.instant(), Limit.of(properties.getBatchSize()));
+                if (batch.isEmpty()) {
+                    return delivered;
+                }
+                Map<Long, Exception> failures = smtpTransport.send(batch);
+                transaction.executeWithoutResult(status -> record(batch, failures));
+                delivered += batch.size() - failures.size();
+                if (failures.size() == batch.size()) {
+                    return delivered;
+                }
+            }
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    private void record(List<OutboxEmail> batch, Map<Long, Exception> failures) {
+        Instant now = clock.instant();
+        List<Long> delivered = new ArrayList<>(batch.size());
+        for (OutboxEmail email : batch) {
+            Exception failure = failures.get(email.getId());
+            if (failure == null) {
+                delivered.add(email.getId());
+                continue;
+            }
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(abbreviate(String.valueOf(failure.getMessage())));
+            if (email.getAttempts() >= properties.getMaxAttempts()) {
+                email.setStatus(OutboxStatus.DEAD);
+                log.warn("Email {} to {} moved to the dead letters after {} attempts: {}",
+                         email.getId(), email.getToAddress(), email.getAttempts(), email.getLastError());
+            } else {
+                email.setNextAttemptAt(now.plus(properties.backoff(email.getAttempts())));
+            }
+            outboxEmailRepository.save(email);
+        }
+        outboxEmailRepository.deleteAllByIdInBatch(delivered);
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    /**
+     * Pending emails whose next attempt is due, oldest first. Served by the index on
+     * {@code (status, next_attempt_at)}.
+     *
+     * @param now current time
+     * @param limit maximal number of emails
+     * @return emails to be sent now
+     */
+    @Query("""
+            select e from OutboxEmail e
+            where e.status = com.capgemini.wsb.fitnesstracker.mail.internal.OutboxStatus.PENDING
+              and e.nextAttemptAt <= :now
+            order by e.nextAttemptAt, e.id
+            """)
+    List<OutboxEmail> findDue(@Param("now") Instant now, Limit limit);
+
+    long countByStatus(OutboxStatus status);
+
+}
@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+
+/**
+ * {@link EmailSender} storing every email in the outbox table and returning immediately; {@link OutboxDispatcher}
+ * delivers it in the background.
+ * <p>
+ * The email is stored in the transaction of the caller, if any, so it is sent only if that transaction commits,
+ * and emails enqueued within one transaction are inserted in JDBC batches.
+ */
+@Service
+@RequiredArgsConstructor
+class OutboxEmailSender implements EmailSender {
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final Clock clock = Clock.systemUTC();
+
+    @Override
+    public void send(final EmailDto email) {
+        outboxEmailRepository.save(new OutboxEmail(email.toAddress(), email.subject(), email.content(), clock.instant()));
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+/**
+ * State of an {@link OutboxEmail}. Delivered emails are removed from the outbox.
+ */
+public enum OutboxStatus {
+
+    /**
+     * Waiting for its (next) delivery attempt.
+     */
+    PENDING,
+
+    /**
+     * Delivery failed too many times; kept for inspection and not retried anymore.
+     */
+    DEAD
+
+}
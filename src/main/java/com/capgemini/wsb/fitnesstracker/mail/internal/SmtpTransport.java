@@ -0,0 +1,73 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends batches of outbox emails as plain text through the configured SMTP server, one connection per batch.
+ */
+@Component
+@RequiredArgsConstructor
+class SmtpTransport {
+
+    private final JavaMailSender javaMailSender;
+    private final MailProperties mailProperties;
+
+    /**
+     * @param emails emails to send over one connection
+     * @return failures by the ID of the failed email, empty if all emails were sent
+     */
+    Map<Long, Exception> send(List<OutboxEmail> emails) {
+        Map<MimeMessage, OutboxEmail> messages = new IdentityHashMap<>();
+        Map<Long, Exception> failures = new HashMap<>();
+        for (OutboxEmail email : emails) {
+            try {
+                messages.put(toMessage(email), email);
+            } catch (MessagingException | MailException e) {
+                failures.put(email.getId(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(email -> failures.put(email.getId(), e));
+            }
+            e.getFailedMessages().forEach((message, cause) -> {
+                OutboxEmail email = messages.get(message);
+                if (email != null) {
+                    failures.put(email.getId(), cause);
+                }
+            });
+        } catch (MailException e) {
+            messages.values().forEach(email -> failures.put(email.getId(), e));
+        }
+        return failures;
+    }
+
+    private MimeMessage toMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(mailProperties.getFrom());
+        helper.setTo(email.getToAddress());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getContent());
+        return message;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.capgemini.wsb.fitnesstracker.metrics.internal;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enables {@link io.micrometer.core.annotation.Timed} on Spring beans. Controllers and services annotated with it
+ * publish one timer per class, tagged with the {@code class}, {@code method} and {@code exception} of every call.
+ * <p>
+ * HTTP requests ({@code http.server.requests}) and Spring Data repository calls
+ * ({@code spring.data.repository.invocations}, tagged with {@code repository}, {@code method} and the outcome as
+ * {@code state}) are timed by Spring Boot itself. All metrics are scraped from {@code /actuator/prometheus}.
+ * <p>
+ * The CPU time consumed by the process is published as {@code process.cpu.time}, so the CPU cost of a load test run
+ * is the difference of the counter before and after it, unlike the sampled {@code process.cpu.usage}.
+ */
+@Configuration
+class MetricsConfig {
+
+    @Bean
+    TimedAspect timedAspect(final MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    MeterBinder processCpuTime() {
+        return registry -> {
+            OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+            if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean processInfo
+                    && processInfo.getProcessCpuTime() >= 0) {
+                FunctionCounter.builder("process.cpu.time", processInfo,
+                                        info -> info.getProcessCpuTime() / (double) TimeUnit.SECONDS.toNanos(1))
+                        .description("The CPU time used by the Java virtual machine process")
+                        .baseUnit("seconds")
+                        .register(registry);
+            }
+        };
+    }
+
+}
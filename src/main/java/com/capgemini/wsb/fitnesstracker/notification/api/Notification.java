@@ -0,0 +1,16 @@
+package com.capgemini.wsb.fitnesstracker.notification.api;
+
+/**
+ * Message for one user, possibly covering several events.
+ *
+ * @param recipientId id of the notified user
+ * @param toAddress email address of the notified user
+ * @param subject short summary of the message
+ * @param content plain text of the message
+ */
+public record Notification(Long recipientId,
+                           String toAddress,
+                           String subject,
+                           String content) {
+
+}
@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.notification.api;
+
+import java.util.List;
+
+/**
+ * Channel delivering notifications to the users, e.g. email. Every transport bean receives every batch.
+ */
+public interface NotificationTransport {
+
+    /**
+     * Delivers a batch of notifications, at most one per recipient.
+     *
+     * @param notifications notifications to deliver; exceptions are logged and do not affect other transports
+     */
+    void send(List<Notification> notifications);
+
+}
@@ -0,0 +1,35 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.notification.api.Notification;
+import com.capgemini.wsb.fitnesstracker.notification.api.NotificationTransport;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Sends notifications as emails through the {@link EmailSender}. A batch is enqueued within one transaction, so its
+ * emails are inserted into the outbox in JDBC batches and later sent over shared SMTP connections.
+ */
+@Component
+class EmailNotificationTransport implements NotificationTransport {
+
+    private final EmailSender emailSender;
+    private final TransactionTemplate transaction;
+
+    EmailNotificationTransport(final EmailSender emailSender,
+                               final PlatformTransactionManager transactionManager) {
+        this.emailSender = emailSender;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void send(List<Notification> notifications) {
+        transaction.executeWithoutResult(status -> notifications.forEach(notification ->
+                emailSender.send(new EmailDto(notification.toAddress(), notification.subject(), notification.content()))));
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the notification module.
+ */
+@ConfigurationProperties(prefix = "notification")
+@Getter
+class NotificationProperties {
+
+    /**
+     * Notifications of completed trainings.
+     */
+    private final Trainings trainings;
+
+    NotificationProperties(@DefaultValue final Trainings trainings) {
+        this.trainings = trainings;
+    }
+
+    @Getter
+    static class Trainings {
+
+        /**
+         * Period over which the completed trainings are collected, so every recipient gets one message per period
+         * however many trainings were completed within it. In ISO-8601 format as it is also read by
+         * {@code @Scheduled}.
+         */
+        private final Duration coalesceWindow;
+
+        /**
+         * Maximal number of completed trainings waiting for the next period; a further training ends the period early.
+         */
+        private final int queueCapacity;
+
+        /**
+         * Maximal number of notifications handed to a transport at once.
+         */
+        private final int batchSize;
+
+        /**
+         * Whether users are also notified of their own trainings, not only of the trainings of their friends.
+         */
+        private final boolean notifyOwner;
+
+        Trainings(@DefaultValue("PT30S") final Duration coalesceWindow,
+                  @DefaultValue("10000") final int queueCapacity,
+                  @DefaultValue("100") final int batchSize,
+                  @DefaultValue("true") final boolean notifyOwner) {
+            this.coalesceWindow = coalesceWindow;
+            this.queueCapacity = queueCapacity;
+            this.batchSize = batchSize;
+            this.notifyOwner = notifyOwner;
+        }
+    }
+
+}
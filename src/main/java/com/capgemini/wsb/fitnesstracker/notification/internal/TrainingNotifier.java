@@ -0,0 +1,206 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.notification.api.Notification;
+import com.capgemini.wsb.fitnesstracker.notification.api.NotificationTransport;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedListener;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Notifies the friends of a user (and optionally the user) of completed trainings.
+ * <p>
+ * Completed trainings are collected for {@code notification.trainings.coalesce-window}. At the end of the window the
+ * friends of all users who trained are resolved with one query, all involved users with another, and every recipient
+ * gets a single message listing all trainings of the window they are notified of. The messages are handed to the
+ * {@link NotificationTransport}s in batches, so a popular user finishing a run adds one outbox row per friend within
+ * one transaction instead of one transaction or SMTP session per friend.
+ * <p>
+ * Like the delivery of the events, notifications are best effort: trainings still collected when the application
+ * crashes are not notified. A single notifier per database is assumed.
+ */
+@Component
+@Slf4j
+public class TrainingNotifier implements TrainingCompletedListener {
+
+    private static final DateTimeFormatter START_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm 'UTC'", Locale.ROOT)
+            .withZone(ZoneOffset.UTC);
+    private static final Duration FULL_QUEUE_RETRY = Duration.ofMillis(100);
+
+    private final UserProvider userProvider;
+    private final List<NotificationTransport> transports;
+    private final NotificationProperties.Trainings properties;
+    private final BlockingQueue<TrainingSnapshot> pending;
+    private final AtomicBoolean notifying = new AtomicBoolean();
+
+    TrainingNotifier(final UserProvider userProvider,
+                     final List<NotificationTransport> transports,
+                     final NotificationProperties notificationProperties) {
+        this.userProvider = userProvider;
+        this.transports = transports;
+        this.properties = notificationProperties.getTrainings();
+        this.pending = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    /**
+     * Collects the training for the current window. When the queue is full the window is ended early and the collected
+     * trainings are notified on the calling thread, so a burst of trainings does not park the event delivery threads
+     * until the next scheduled notification.
+     */
+    @Override
+    public void onTrainingCompleted(TrainingCompletedEvent event) {
+        TrainingSnapshot training = event.training();
+        try {
+            while (!pending.offer(training)) {
+                log.debug("Notification queue is full, notifying the collected trainings early");
+                // another thread may be notifying already, its drained queue has room shortly
+                if (notifyPending() == 0 && pending.offer(training, FULL_QUEUE_RETRY.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for room in the notification queue, skipping training {}",
+                     training.trainingId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.trainings.coalesce-window:PT30S}")
+    void notifyPeriodically() {
+        try {
+            notifyPending();
+        } catch (RuntimeException e) {
+            log.error("Notification of completed trainings failed", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        notifyPending();
+    }
+
+    /**
+     * @return number of trainings collected for the current window
+     */
+    public int pendingTrainings() {
+        return pending.size();
+    }
+
+    /**
+     * Notifies all recipients of the trainings collected so far, one message per recipient. Returns immediately if
+     * another notification is running.
+     *
+     * @return number of sent notifications
+     */
+    public int notifyPending() {
+        if (!notifying.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            List<TrainingSnapshot> trainings = new ArrayList<>(pending.size());
+            pending.drainTo(trainings);
+            if (trainings.isEmpty()) {
+                return 0;
+            }
+            List<Notification> notifications = coalesce(trainings);
+            for (int from = 0; from < notifications.size(); from += properties.getBatchSize()) {
+                send(notifications.subList(from, Math.min(from + properties.getBatchSize(), notifications.size())));
+            }
+            log.debug("{} completed trainings notified in {} messages", trainings.size(), notifications.size());
+            return notifications.size();
+        } finally {
+            notifying.set(false);
+        }
+    }
+
+    private List<Notification> coalesce(List<TrainingSnapshot> trainings) {
+        trainings.sort(Comparator.comparing(TrainingSnapshot::startTime));
+        Set<Long> ownerIds = trainings.stream().map(TrainingSnapshot::userId).collect(Collectors.toSet());
+        Map<Long, List<Long>> friendIds = userProvider.findFriendIds(ownerIds);
+
+        Map<Long, List<TrainingSnapshot>> trainingsByRecipient = new LinkedHashMap<>();
+        for (TrainingSnapshot training : trainings) {
+            if (properties.isNotifyOwner()) {
+                trainingsByRecipient.computeIfAbsent(training.userId(), id -> new ArrayList<>()).add(training);
+            }
+            for (Long friendId : friendIds.getOrDefault(training.userId(), List.of())) {
+                trainingsByRecipient.computeIfAbsent(friendId, id -> new ArrayList<>()).add(training);
+            }
+        }
+        if (trainingsByRecipient.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> userIds = new HashSet<>(ownerIds);
+        userIds.addAll(trainingsByRecipient.keySet());
+        Map<Long, User> users = userProvider.findUsersByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Notification> notifications = new ArrayList<>(trainingsByRecipient.size());
+        trainingsByRecipient.forEach((recipientId, received) -> {
+            User recipient = users.get(recipientId);
+            if (recipient != null) {
+                notifications.add(notification(recipient, received, users));
+            }
+        });
+        return notifications;
+    }
+
+    private Notification notification(User recipient, List<TrainingSnapshot> trainings, Map<Long, User> users) {
+        String subject = trainings.size() == 1
+                ? "%s completed a training".formatted(nameOf(trainings.get(0).userId(), recipient, users))
+                : "%d trainings completed".formatted(trainings.size());
+        StringBuilder content = new StringBuilder("Hello ").append(recipient.getFirstName()).append(",\n\n");
+        for (TrainingSnapshot training : trainings) {
+            content.append(String.format(Locale.ROOT, "- %s: %s, %.1f km, started %s\n",
+                                         nameOf(training.userId(), recipient, users),
+                                         training.activityType().getDisplayName(),
+                                         training.distance(),
+                                         START_TIME.format(training.startTime().toInstant())));
+        }
+        return new Notification(recipient.getId(), recipient.getEmail(), subject, content.toString());
+    }
+
+    private static String nameOf(Long userId, User recipient, Map<Long, User> users) {
+        if (userId.equals(recipient.getId())) {
+            return "You";
+        }
+        User user = users.get(userId);
+        return user != null ? user.getFirstName() + " " + user.getLastName() : "A friend";
+    }
+
+    private void send(List<Notification> batch) {
+        for (NotificationTransport transport : transports) {
+            try {
+                transport.send(batch);
+            } catch (RuntimeException e) {
+                log.error("Notification transport {} failed for a batch of {} notifications",
+                          transport.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+    }
+
+}
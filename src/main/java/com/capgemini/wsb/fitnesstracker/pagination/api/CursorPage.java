@@ -0,0 +1,65 @@
+package com.capgemini.wsb.fitnesstracker.pagination.api;
+
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (cursor) paginated listing.
+ * The {@code nextCursor} is an opaque token to be passed back to fetch the following page,
+ * or {@code null} if this is the last page.
+ *
+ * @param items items of the page, in the order of the listing sort key
+ * @param nextCursor token of the next page, {@code null} on the last page
+ * @param <T> type of the items
+ */
+public record CursorPage<T>(List<T> items, @Nullable String nextCursor) {
+
+    /**
+     * Default number of items of a page, used when the client does not specify one.
+     */
+    public static final int DEFAULT_LIMIT = 100;
+
+    /**
+     * Maximal number of items of a page.
+     */
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Builds a page from rows fetched with one row of lookahead ({@code limit + 1} rows).
+     * The lookahead row is dropped, its presence only tells that there is a next page.
+     *
+     * @param rows rows fetched from the repository, at most {@code limit + 1}
+     * @param limit requested page size
+     * @param cursorOf function creating the cursor pointing right after the given row
+     * @param <T> type of the rows
+     * @return page with at most {@code limit} items
+     */
+    public static <T> CursorPage<T> fromLookahead(List<T> rows, int limit, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)).encode());
+    }
+
+    /**
+     * Validates the page size requested by a client.
+     *
+     * @param limit requested page size
+     * @return the same page size
+     * @throws InvalidPageRequestException if the page size is not within {@code 1..}{@link #MAX_LIMIT}
+     */
+    public static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidPageRequestException("Page limit must be between 1 and %d".formatted(MAX_LIMIT));
+        }
+        return limit;
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+
+}
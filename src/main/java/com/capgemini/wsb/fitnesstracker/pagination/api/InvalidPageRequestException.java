@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.pagination.api;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+
+/**
+ * Exception indicating a malformed page cursor or page size.
+ */
+public class InvalidPageRequestException extends BusinessException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+
+}
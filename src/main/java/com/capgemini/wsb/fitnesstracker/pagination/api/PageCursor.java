@@ -0,0 +1,73 @@
+package com.capgemini.wsb.fitnesstracker.pagination.api;
+
+import jakarta.annotation.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Position in a keyset paginated listing: the sort key and id of the last item of the previous page.
+ * Listings sorted by id alone use an empty key.
+ *
+ * @param key sort key of the last returned item
+ * @param id id of the last returned item
+ */
+public record PageCursor(String key, long id) {
+
+    /**
+     * Cursor pointing before the first item of an id sorted listing.
+     */
+    public static final PageCursor FIRST = new PageCursor("", 0L);
+
+    public static PageCursor ofId(long id) {
+        return new PageCursor("", id);
+    }
+
+    /**
+     * Decodes the token received from a client.
+     *
+     * @param token token returned as {@link CursorPage#nextCursor()}, or {@code null} for the first page
+     * @return decoded cursor, or {@code null} for the first page
+     * @throws InvalidPageRequestException if the token is malformed
+     */
+    @Nullable
+    public static PageCursor decode(@Nullable String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new PageCursor(decoded.substring(separator + 1), Long.parseLong(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new InvalidPageRequestException("Malformed page cursor");
+        }
+    }
+
+    /**
+     * Parses the sort key of a cursor received from a client.
+     *
+     * @param parser parser of the sort key
+     * @param <K> type of the sort key
+     * @return parsed sort key
+     * @throws InvalidPageRequestException if the key cannot be parsed
+     */
+    public <K> K key(Function<String, K> parser) {
+        try {
+            return parser.apply(key);
+        } catch (RuntimeException e) {
+            throw new InvalidPageRequestException("Malformed page cursor");
+        }
+    }
+
+    /**
+     * @return opaque token representing this cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString((id + ":" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
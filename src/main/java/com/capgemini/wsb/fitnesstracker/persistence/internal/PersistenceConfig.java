@@ -0,0 +1,59 @@
+package com.capgemini.wsb.fitnesstracker.persistence.internal;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Provides the regions of the Hibernate second-level and query cache as local Caffeine caches behind JCache.
+ * Regions are created up front with the configured bounds, Hibernate fails on start if an entity asks for a region
+ * which is not configured here ({@code users} and {@code trainings}).
+ */
+@Configuration
+@EnableConfigurationProperties(PersistenceProperties.class)
+class PersistenceConfig {
+
+    private static final String USERS_REGION = "users";
+    private static final String TRAININGS_REGION = "trainings";
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager(final PersistenceProperties persistenceProperties) {
+        PersistenceProperties.SecondLevelCache properties = persistenceProperties.getSecondLevelCache();
+        // every application context gets its own cache manager, the default one is shared by the whole class loader
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), PersistenceConfig.class.getClassLoader());
+        createRegion(cacheManager, USERS_REGION, properties.getUsers());
+        createRegion(cacheManager, TRAININGS_REGION, properties.getTrainings());
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, properties.getQueryResults());
+        // timestamps of the last write per table must outlive every cached query result, so they are never evicted
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(final CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(final CacheManager cacheManager,
+                                     final String name,
+                                     final PersistenceProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.capgemini.wsb.fitnesstracker.persistence.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the persistence layer shared by all modules.
+ */
+@ConfigurationProperties(prefix = "persistence")
+@Getter
+class PersistenceProperties {
+
+    /**
+     * Regions of the Hibernate second-level and query cache.
+     */
+    private final SecondLevelCache secondLevelCache;
+
+    PersistenceProperties(@DefaultValue final SecondLevelCache secondLevelCache) {
+        this.secondLevelCache = secondLevelCache;
+    }
+
+    @Getter
+    static class SecondLevelCache {
+
+        /**
+         * Region of the {@code User} entities.
+         */
+        private final Region users;
+
+        /**
+         * Region of the {@code Training} entities.
+         */
+        private final Region trainings;
+
+        /**
+         * Region of the results of cacheable queries. Results are invalidated on every write to one of their tables,
+         * so the time to live mainly bounds the memory held by rarely repeated queries.
+         */
+        private final Region queryResults;
+
+        SecondLevelCache(@DefaultValue({"10000", "PT10M"}) final Region users,
+                         @DefaultValue({"100000", "PT10M"}) final Region trainings,
+                         @DefaultValue({"10000", "PT1M"}) final Region queryResults) {
+            this.users = users;
+            this.trainings = trainings;
+            this.queryResults = queryResults;
+        }
+    }
+
+    @Getter
+    static class Region {
+
+        /**
+         * Maximal number of entries of the region, rarely used ones are evicted first.
+         */
+        private final long maximumSize;
+
+        /**
+         * Time after which an entry is evicted, bounding how long writes done outside of Hibernate stay invisible.
+         */
+        private final Duration timeToLive;
+
+        Region(final long maximumSize, final Duration timeToLive) {
+            this.maximumSize = maximumSize;
+            this.timeToLive = timeToLive;
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Machine readable report: a single line {@code weekStart;trainings;durationSeconds;distance}.
+ */
+@Component
+class CsvWeeklyReportFormat implements WeeklyReportFormat {
+
+    @Override
+    public String name() {
+        return "csv";
+    }
+
+    @Override
+    public EmailDto format(WeeklyReport report) {
+        String content = String.format(Locale.ROOT, "%s;%d;%d;%.3f",
+                                       report.weekStart(), report.trainings(), report.durationSeconds(), report.distance());
+        return new EmailDto(report.email(), "Training summary " + report.weekStart(), content);
+    }
+
+}
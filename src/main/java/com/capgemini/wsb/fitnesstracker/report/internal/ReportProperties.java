@@ -0,0 +1,57 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the report module.
+ */
+@ConfigurationProperties(prefix = "report")
+@Getter
+class ReportProperties {
+
+    /**
+     * Weekly training summary emailed to every user.
+     */
+    private final Weekly weekly;
+
+    ReportProperties(@DefaultValue final Weekly weekly) {
+        this.weekly = weekly;
+    }
+
+    @Getter
+    static class Weekly {
+
+        /**
+         * Cron expression of the report of the previous week, {@code -} disables it.
+         */
+        private final String cron;
+
+        /**
+         * Name of the {@link WeeklyReportFormat} of the emails.
+         */
+        private final String format;
+
+        /**
+         * Width of the user ID range processed by one chunk. Kept per run, so a resumed run uses the same chunks.
+         */
+        private final int chunkSize;
+
+        /**
+         * Number of chunks processed in parallel.
+         */
+        private final int parallelism;
+
+        Weekly(@DefaultValue("-") final String cron,
+               @DefaultValue("text") final String format,
+               @DefaultValue("1000") final int chunkSize,
+               @DefaultValue("4") final int parallelism) {
+            this.cron = cron;
+            this.format = format;
+            this.chunkSize = chunkSize;
+            this.parallelism = parallelism;
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Human readable report: one sentence with the totals followed by one line per activity type.
+ */
+@Component
+class TextWeeklyReportFormat implements WeeklyReportFormat {
+
+    @Override
+    public String name() {
+        return "text";
+    }
+
+    @Override
+    public EmailDto format(WeeklyReport report) {
+        StringBuilder content = new StringBuilder()
+                .append("Hi ").append(report.firstName()).append(",\n\n")
+                .append("in the week starting on ").append(report.weekStart())
+                .append(" you completed ").append(report.trainings()).append(" trainings")
+                .append(" and spent ").append(duration(report.durationSeconds())).append(" on activities.\n");
+        for (WeeklyReport.ActivityTotals activity : report.activities()) {
+            content.append("\n- ").append(activity.activityType().getDisplayName()).append(": ")
+                    .append(activity.trainings()).append(" trainings, ")
+                    .append(String.format(Locale.ROOT, "%.1f", activity.distance())).append(" km, ")
+                    .append(duration(activity.durationSeconds()));
+        }
+        return new EmailDto(report.email(), "Your training summary of the week " + report.weekStart(), content.toString());
+    }
+
+    private static String duration(long seconds) {
+        return "%dh %02dmin".formatted(seconds / 3600, seconds % 3600 / 60);
+    }
+
+}
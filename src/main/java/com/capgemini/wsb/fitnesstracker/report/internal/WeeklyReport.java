@@ -0,0 +1,54 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Summary of the trainings of one user which started within one ISO week.
+ *
+ * @param email email of the user
+ * @param firstName first name of the user
+ * @param weekStart Monday of the week
+ * @param activities totals per activity type, only activity types with trainings
+ */
+record WeeklyReport(String email,
+                    String firstName,
+                    LocalDate weekStart,
+                    List<ActivityTotals> activities) {
+
+    static WeeklyReport of(User user, LocalDate weekStart, List<TrainingRollup> rollups) {
+        return new WeeklyReport(user.getEmail(),
+                                user.getFirstName(),
+                                weekStart,
+                                rollups.stream()
+                                        .map(rollup -> new ActivityTotals(rollup.getId().getActivityType(),
+                                                                          rollup.getTrainings(),
+                                                                          rollup.getDistance(),
+                                                                          rollup.getDurationSeconds()))
+                                        .toList());
+    }
+
+    int trainings() {
+        return activities.stream().mapToInt(ActivityTotals::trainings).sum();
+    }
+
+    double distance() {
+        return activities.stream().mapToDouble(ActivityTotals::distance).sum();
+    }
+
+    long durationSeconds() {
+        return activities.stream().mapToLong(ActivityTotals::durationSeconds).sum();
+    }
+
+    record ActivityTotals(ActivityType activityType,
+                          int trainings,
+                          double distance,
+                          long durationSeconds) {
+
+    }
+
+}
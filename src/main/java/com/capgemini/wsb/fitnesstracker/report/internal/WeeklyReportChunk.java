@@ -0,0 +1,44 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Completed chunk of a {@link WeeklyReportRun}: the reports of all users with IDs in
+ * {@code [chunkIndex * chunkSize + 1, (chunkIndex + 1) * chunkSize]} were sent.
+ */
+@Entity
+@Table(name = "weekly_report_chunks",
+       uniqueConstraints = @UniqueConstraint(name = "uk_weekly_report_chunks", columnNames = {"week_start", "chunk_index"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class WeeklyReportChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
+    @Column(name = "reports", nullable = false)
+    private int reports;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+
+    public WeeklyReportChunk(final LocalDate weekStart, final int chunkIndex, final int reports, final Instant completedAt) {
+        this.weekStart = weekStart;
+        this.chunkIndex = chunkIndex;
+        this.reports = reports;
+        this.completedAt = completedAt;
+    }
+
+}
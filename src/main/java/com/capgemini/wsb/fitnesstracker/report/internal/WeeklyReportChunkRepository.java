@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WeeklyReportChunkRepository extends JpaRepository<WeeklyReportChunk, Long> {
+
+    @Query("select c.chunkIndex from WeeklyReportChunk c where c.weekStart = :weekStart")
+    List<Integer> findCompletedChunkIndexes(@Param("weekStart") LocalDate weekStart);
+
+}
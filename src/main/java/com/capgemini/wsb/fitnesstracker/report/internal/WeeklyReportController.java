@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/v1/reports")
+@RequiredArgsConstructor
+class WeeklyReportController {
+
+    private final WeeklyReportJob weeklyReportJob;
+
+    /**
+     * Sends the weekly training summaries of the given week, or resumes its interrupted run.
+     *
+     * @param weekStart The Monday of the reported week in ISO-8601 format.
+     * @return The outcome of the run.
+     */
+    @PostMapping("/weekly")
+    public WeeklyReportResultDto sendWeeklyReports(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate weekStart) {
+        return weeklyReportJob.run(weekStart);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+
+/**
+ * Renders a {@link WeeklyReport} as an email. The format used by the weekly report job is selected by its
+ * {@link #name()} with the {@code report.weekly.format} property; further formats are added as beans.
+ */
+interface WeeklyReportFormat {
+
+    /**
+     * @return name of the format used in the configuration
+     */
+    String name();
+
+    /**
+     * @param report report to render
+     * @return email with the report addressed to its user
+     */
+    EmailDto format(WeeklyReport report);
+
+}
@@ -0,0 +1,199 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupPeriod;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupProvider;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Emails every user the summary of their trainings of one ISO week.
+ * <p>
+ * Users are partitioned into fixed ranges of user IDs (chunks). Each chunk loads its users and their weekly
+ * training rollups with one query each, so the job issues two queries per chunk regardless of the number of
+ * trainings. Chunks are processed in parallel on a bounded executor; when its queue is full the submitting thread
+ * processes the chunk itself, so memory stays bounded for any number of users.
+ * <p>
+ * Every completed chunk is recorded, and a run is marked finished only when all of its chunks completed. An
+ * interrupted run is resumed on the next invocation for the same week (and on startup), skipping the completed
+ * chunks. The reports of a chunk are handed to the {@link EmailSender} in the same transaction which records the
+ * chunk, so with the email outbox every report is enqueued exactly once.
+ */
+@Component
+@Slf4j
+public class WeeklyReportJob {
+
+    private final UserProvider userProvider;
+    private final TrainingRollupProvider trainingRollupProvider;
+    private final EmailSender emailSender;
+    private final WeeklyReportFormat format;
+    private final WeeklyReportRunRepository runRepository;
+    private final WeeklyReportChunkRepository chunkRepository;
+    private final ReportProperties.Weekly properties;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Clock clock = Clock.systemUTC();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    WeeklyReportJob(final UserProvider userProvider,
+                    final TrainingRollupProvider trainingRollupProvider,
+                    final EmailSender emailSender,
+                    final List<WeeklyReportFormat> formats,
+                    final WeeklyReportRunRepository runRepository,
+                    final WeeklyReportChunkRepository chunkRepository,
+                    final ReportProperties reportProperties,
+                    final PlatformTransactionManager transactionManager) {
+        this.userProvider = userProvider;
+        this.trainingRollupProvider = trainingRollupProvider;
+        this.emailSender = emailSender;
+        this.runRepository = runRepository;
+        this.chunkRepository = chunkRepository;
+        this.properties = reportProperties.getWeekly();
+        this.format = formats.stream()
+                .filter(candidate -> candidate.name().equals(properties.getFormat()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown weekly report format " + properties.getFormat()
+                        + ", available: " + formats.stream().map(WeeklyReportFormat::name).toList()));
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${report.weekly.cron:-}")
+    void runForPreviousWeek() {
+        run(RollupPeriod.WEEK.bucketStart(LocalDate.now(clock)).minusWeeks(1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void resumeUnfinishedRuns() {
+        List<WeeklyReportRun> unfinished = runRepository.findByFinishedAtIsNull();
+        if (!unfinished.isEmpty()) {
+            CompletableFuture.runAsync(() -> unfinished.forEach(run -> {
+                try {
+                    run(run.getWeekStart());
+                } catch (RuntimeException e) {
+                    log.error("Resuming of the weekly reports of the week starting {} failed", run.getWeekStart(), e);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Sends the reports of the week, or resumes the run of the week if it was interrupted. Does nothing if the
+     * reports of the week were already sent.
+     *
+     * @param weekStart Monday of the reported week
+     * @return outcome of this invocation
+     */
+    public WeeklyReportResultDto run(LocalDate weekStart) {
+        if (weekStart.getDayOfWeek() != DayOfWeek.MONDAY) {
+            throw new BusinessException("Week has to start on Monday, got " + weekStart);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("Weekly report job is already running");
+        }
+        try {
+            return runExclusively(weekStart);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private WeeklyReportResultDto runExclusively(LocalDate weekStart) {
+        long start = System.nanoTime();
+        WeeklyReportRun run = transaction.execute(status -> runRepository.findById(weekStart)
+                .orElseGet(() -> runRepository.save(new WeeklyReportRun(weekStart, properties.getChunkSize(), clock.instant()))));
+        if (run.getFinishedAt() != null) {
+            return new WeeklyReportResultDto(weekStart, 0, 0, 0, 0);
+        }
+
+        int chunkSize = run.getChunkSize();
+        int chunkCount = (int) ((userProvider.findMaxUserId() + chunkSize - 1) / chunkSize);
+        Set<Integer> completed = new HashSet<>(chunkRepository.findCompletedChunkIndexes(weekStart));
+
+        int parallelism = properties.getParallelism();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                                                             new ArrayBlockingQueue<>(parallelism * 2),
+                                                             new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<Integer>> chunks = new ArrayList<>();
+        try {
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                if (!completed.contains(chunk)) {
+                    int chunkIndex = chunk;
+                    chunks.add(executor.submit(() -> processChunk(weekStart, chunkIndex, chunkSize)));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int reports = 0;
+        int failed = 0;
+        for (Future<Integer> chunk : chunks) {
+            try {
+                reports += chunk.get();
+            } catch (ExecutionException e) {
+                failed++;
+                log.error("Chunk of the weekly report of {} failed, it will be retried on resume", weekStart, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the weekly report of " + weekStart, e);
+            }
+        }
+
+        if (failed == 0) {
+            transaction.executeWithoutResult(status -> runRepository.findById(weekStart)
+                    .ifPresent(finished -> finished.setFinishedAt(clock.instant())));
+        }
+        log.info("Weekly report of {}: {} reports in {} chunks ({} skipped, {} failed) in {} ms", weekStart, reports,
+                 chunks.size(), completed.size(), failed, (System.nanoTime() - start) / 1_000_000);
+        return new WeeklyReportResultDto(weekStart, chunks.size(), completed.size(), failed, reports);
+    }
+
+    private int processChunk(LocalDate weekStart, int chunkIndex, int chunkSize) {
+        long firstUserId = (long) chunkIndex * chunkSize + 1;
+        long lastUserId = firstUserId + chunkSize - 1;
+        record Chunk(List<User> users, Map<Long, List<TrainingRollup>> rollups) {
+        }
+        Chunk chunk = readOnlyTransaction.execute(status -> new Chunk(
+                userProvider.findUsersWithIdBetween(firstUserId, lastUserId),
+                trainingRollupProvider.findRollupsOfUsers(firstUserId, lastUserId, RollupPeriod.WEEK, weekStart).stream()
+                        .collect(Collectors.groupingBy(rollup -> rollup.getId().getUserId()))));
+
+        transaction.executeWithoutResult(status -> {
+            for (User user : chunk.users()) {
+                WeeklyReport report = WeeklyReport.of(user, weekStart, chunk.rollups().getOrDefault(user.getId(), List.of()));
+                emailSender.send(format.format(report));
+            }
+            chunkRepository.save(new WeeklyReportChunk(weekStart, chunkIndex, chunk.users().size(), clock.instant()));
+        });
+        return chunk.users().size();
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one invocation of the weekly report job.
+ *
+ * @param weekStart Monday of the reported week
+ * @param chunks number of chunks processed by this invocation
+ * @param skippedChunks number of chunks completed by a previous invocation
+ * @param failedChunks number of chunks which failed and will be retried on resume
+ * @param reports number of sent reports
+ */
+public record WeeklyReportResultDto(LocalDate weekStart,
+                                    int chunks,
+                                    int skippedChunks,
+                                    int failedChunks,
+                                    int reports) {
+
+}
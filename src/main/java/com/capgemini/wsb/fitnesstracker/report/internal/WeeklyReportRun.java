@@ -0,0 +1,42 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Progress of the weekly report of one week. A run without {@code finishedAt} was interrupted or had failing
+ * chunks and is resumed with the same chunk size.
+ */
+@Entity
+@Table(name = "weekly_report_runs")
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class WeeklyReportRun {
+
+    @Id
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Nullable
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public WeeklyReportRun(final LocalDate weekStart, final int chunkSize, final Instant startedAt) {
+        this.weekStart = weekStart;
+        this.chunkSize = chunkSize;
+        this.startedAt = startedAt;
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.report.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WeeklyReportRunRepository extends JpaRepository<WeeklyReportRun, LocalDate> {
+
+    List<WeeklyReportRun> findByFinishedAtIsNull();
+
+}
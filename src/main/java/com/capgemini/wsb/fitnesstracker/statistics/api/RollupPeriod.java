@@ -0,0 +1,48 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of the time bucket of a {@link TrainingRollup}. Buckets are calendar days and ISO weeks (starting on
+ * Monday) in UTC.
+ */
+public enum RollupPeriod {
+
+    DAY {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate nextBucketStart(LocalDate bucketStart) {
+            return bucketStart.plusDays(1);
+        }
+    },
+    WEEK {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate nextBucketStart(LocalDate bucketStart) {
+            return bucketStart.plusWeeks(1);
+        }
+    };
+
+    /**
+     * @param date day within the bucket
+     * @return first day of the bucket containing the date
+     */
+    public abstract LocalDate bucketStart(LocalDate date);
+
+    /**
+     * @param bucketStart first day of a bucket
+     * @return first day of the following bucket
+     */
+    public abstract LocalDate nextBucketStart(LocalDate bucketStart);
+
+}
@@ -5,10 +5,10 @@ import java.util.Optional;
 public interface StatisticsProvider {
 
     /**
-     * Retrieves a statistics based on their ID.
-     * If the user with given ID is not found, then {@link Optional#empty()} will be returned.
+     * Retrieves a statistics based on their ID, which is the ID of the user they belong to.
+     * If the user with given ID is not found or has no trainings yet, then {@link Optional#empty()} will be returned.
      *
-     * @param statisticsId id of the statistics to be searched
+     * @param statisticsId id of the statistics (and of their user) to be searched
      * @return An {@link Optional} containing the located Statistics, or {@link Optional#empty()} if not found
      */
     Optional<Statistics> getStatistics(Long statisticsId);
@@ -0,0 +1,47 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Pre-computed totals of the trainings of one user and activity type which started within one day or ISO week,
+ * so summaries over a date range sum a few buckets instead of scanning trainings.
+ * Buckets without trainings are not stored.
+ */
+@Entity
+@Table(name = "training_rollups")
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TrainingRollup {
+
+    @EmbeddedId
+    private TrainingRollupId id;
+
+    @Column(name = "trainings", nullable = false)
+    private int trainings;
+
+    @Column(name = "distance", nullable = false)
+    private double distance;
+
+    @Column(name = "duration_seconds", nullable = false)
+    private long durationSeconds;
+
+    @Column(name = "max_speed", nullable = false)
+    private double maxSpeed;
+
+    public TrainingRollup(
+            final TrainingRollupId id,
+            final int trainings,
+            final double distance,
+            final long durationSeconds,
+            final double maxSpeed) {
+        this.id = id;
+        this.trainings = trainings;
+        this.distance = distance;
+        this.durationSeconds = durationSeconds;
+        this.maxSpeed = maxSpeed;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TrainingRollupProvider {
+
+    /**
+     * Retrieves the buckets of one period of all users with IDs within the given range, using a single query.
+     * Users without trainings in the bucket have no rows.
+     *
+     * @param firstUserId inclusive lower bound of the user IDs
+     * @param lastUserId inclusive upper bound of the user IDs
+     * @param period period of the buckets
+     * @param bucketStart first day of the bucket, a Monday for {@link RollupPeriod#WEEK}
+     * @return rollups of every user and activity type with trainings in the bucket, ordered by user ID
+     */
+    List<TrainingRollup> findRollupsOfUsers(long firstUserId, long lastUserId, RollupPeriod period, LocalDate bucketStart);
+
+}
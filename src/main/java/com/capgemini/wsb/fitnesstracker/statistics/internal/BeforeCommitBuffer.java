@@ -0,0 +1,76 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Collects changes per key for the current transaction and hands them over to the flusher once, right before the
+ * transaction commits, so repeated changes of the same aggregate within one transaction cost one write.
+ * Outside of a transaction the changes are flushed immediately.
+ *
+ * @param <K> key of the changed aggregate
+ * @param <V> accumulated change of one aggregate
+ */
+final class BeforeCommitBuffer<K, V> {
+
+    private final Consumer<Map<K, V>> flusher;
+
+    BeforeCommitBuffer(Consumer<Map<K, V>> flusher) {
+        this.flusher = flusher;
+    }
+
+    /**
+     * @param changes callback recording changes into the pending changes of the current transaction
+     */
+    void update(Consumer<Map<K, V>> changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<K, V> pending = new HashMap<>();
+            changes.accept(pending);
+            flusher.accept(pending);
+            return;
+        }
+        changes.accept(pending());
+    }
+
+    /**
+     * Drops the pending changes of the current transaction whose key matches, e.g. of an aggregate deleted within it.
+     *
+     * @param keys keys of the dropped changes
+     */
+    void discard(Predicate<K> keys) {
+        @SuppressWarnings("unchecked")
+        Map<K, V> pending = (Map<K, V>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            pending.keySet().removeIf(keys);
+        }
+    }
+
+    private Map<K, V> pending() {
+        @SuppressWarnings("unchecked")
+        Map<K, V> pending = (Map<K, V>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Map<K, V> newPending = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, newPending);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                flusher.accept(newPending);
+                newPending.clear();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BeforeCommitBuffer.this);
+            }
+        });
+        return newPending;
+    }
+
+}
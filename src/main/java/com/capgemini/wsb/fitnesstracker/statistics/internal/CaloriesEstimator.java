@@ -0,0 +1,36 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Estimates calories burned during a training from its duration and the metabolic equivalent (MET) of the activity.
+ * Users have no body weight recorded, so a reference body weight is assumed.
+ */
+final class CaloriesEstimator {
+
+    private static final double REFERENCE_BODY_WEIGHT_KG = 70.0;
+
+    private static final Map<ActivityType, Double> METABOLIC_EQUIVALENTS = new EnumMap<>(Map.of(
+            ActivityType.RUNNING, 9.8,
+            ActivityType.CYCLING, 7.5,
+            ActivityType.WALKING, 3.5,
+            ActivityType.SWIMMING, 8.0,
+            ActivityType.TENNIS, 7.3));
+
+    private CaloriesEstimator() {
+    }
+
+    /**
+     * @param training training to estimate
+     * @return estimated kilocalories burned during the training
+     */
+    static int estimate(TrainingSnapshot training) {
+        double hours = training.durationSeconds() / 3600.0;
+        return (int) Math.round(METABOLIC_EQUIVALENTS.get(training.activityType()) * REFERENCE_BODY_WEIGHT_KG * hours);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+/**
+ * Sums of the training columns per group, a group being a pair of activity type and time bucket.
+ * Groups are addressed by {@code bucket * ACTIVITY_TYPES + activityType} in flat primitive arrays.
+ */
+final class GroupTotals {
+
+    static final int ACTIVITY_TYPES = ActivityType.values().length;
+
+    final long[] counts;
+    final long[] durations;
+    final double[] distances;
+    final double[] averageSpeeds;
+
+    GroupTotals(int buckets) {
+        int groups = buckets * ACTIVITY_TYPES;
+        counts = new long[groups];
+        durations = new long[groups];
+        distances = new double[groups];
+        averageSpeeds = new double[groups];
+    }
+
+    static int group(int bucket, int activityType) {
+        return bucket * ACTIVITY_TYPES + activityType;
+    }
+
+    GroupTotals merge(GroupTotals other) {
+        for (int group = 0; group < counts.length; group++) {
+            counts[group] += other.counts[group];
+            durations[group] += other.durations[group];
+            distances[group] += other.distances[group];
+            averageSpeeds[group] += other.averageSpeeds[group];
+        }
+        return this;
+    }
+
+}
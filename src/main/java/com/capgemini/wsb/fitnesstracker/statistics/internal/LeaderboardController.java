@@ -0,0 +1,57 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/trainings/leaderboards")
+@RequiredArgsConstructor
+class LeaderboardController {
+
+    private final TrainingColumnStore trainingColumnStore;
+
+    /**
+     * Retrieves the users with the longest total distance of an activity type, from the incrementally maintained
+     * in-memory leaderboards.
+     *
+     * @param activityType The activity type of the trainings.
+     * @param window The window of the trainings: {@code WEEK} (current ISO week), {@code MONTH} (current month) or
+     *               {@code ALL_TIME}, in UTC.
+     * @param limit The maximal number of users.
+     * @return The leading users, best first.
+     */
+    @GetMapping("/{activityType}")
+    public List<LeaderboardEntryDto> getLeaderboard(@PathVariable ActivityType activityType,
+                                                    @RequestParam(defaultValue = "WEEK") LeaderboardWindow window,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return trainingColumnStore.leaderboard(window, activityType, CursorPage.checkLimit(limit));
+    }
+
+    /**
+     * Retrieves the rank of a user on the leaderboard of an activity type.
+     *
+     * @param activityType The activity type of the trainings.
+     * @param userId The unique identifier of the user.
+     * @param window The window of the trainings: {@code WEEK}, {@code MONTH} or {@code ALL_TIME}.
+     * @return A {@link ResponseEntity} containing the {@link LeaderboardEntryDto} of the user,
+     *         or a not found status if the user has no such training within the window.
+     */
+    @GetMapping("/{activityType}/users/{userId}")
+    public ResponseEntity<LeaderboardEntryDto> getLeaderboardEntry(@PathVariable ActivityType activityType,
+                                                                   @PathVariable long userId,
+                                                                   @RequestParam(defaultValue = "WEEK") LeaderboardWindow window) {
+        return trainingColumnStore.leaderboardEntry(window, activityType, userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Position of a user on a leaderboard. Users with the same total distance share the rank.
+ *
+ * @param rank rank of the user, starting at 1
+ * @param userId id of the user
+ * @param totalDistance sum of the distances of the trainings within the window
+ * @param trainings number of trainings within the window
+ */
+record LeaderboardEntryDto(int rank,
+                           long userId,
+                           double totalDistance,
+                           int trainings) {
+
+}
@@ -0,0 +1,185 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Totals of one leaderboard: the distance and number of trainings of every user with a training within the window,
+ * kept sorted from the longest distance (ties by user id). A changed total moves its user only across the users it
+ * overtakes or falls behind, so adding a training touches a few entries instead of sorting the board again, and the
+ * rank of any user is a binary search.
+ * <p>
+ * Not thread-safe, guarded by {@link TrainingColumnStore}.
+ */
+final class LeaderboardTotals {
+
+    private final Map<Long, Total> totals = new HashMap<>();
+    private long[] userIds = new long[16];
+    private double[] distances = new double[16];
+    private int size;
+
+    private static final class Total {
+        double distance;
+        int trainings;
+    }
+
+    /**
+     * Adds a training to the total of the user, without keeping the order. Used while building the board, which has
+     * to be finished by {@link #sort()}.
+     */
+    void accumulate(long userId, double distance) {
+        Total total = totals.computeIfAbsent(userId, id -> new Total());
+        total.distance += distance;
+        total.trainings++;
+    }
+
+    /**
+     * Sorts the totals collected by {@link #accumulate(long, double)}.
+     */
+    void sort() {
+        List<Map.Entry<Long, Total>> entries = new ArrayList<>(totals.entrySet());
+        entries.sort(Comparator.<Map.Entry<Long, Total>>comparingDouble(entry -> -entry.getValue().distance)
+                             .thenComparingLong(Map.Entry::getKey));
+        size = entries.size();
+        userIds = new long[Math.max(16, size)];
+        distances = new double[userIds.length];
+        for (int i = 0; i < size; i++) {
+            userIds[i] = entries.get(i).getKey();
+            distances[i] = entries.get(i).getValue().distance;
+        }
+    }
+
+    void add(long userId, double distance) {
+        Total total = totals.get(userId);
+        if (total == null) {
+            total = new Total();
+            totals.put(userId, total);
+            if (size == userIds.length) {
+                userIds = Arrays.copyOf(userIds, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            // a new user enters below everyone and moves up from there
+            move(size++, userId, distance);
+        } else {
+            move(positionOf(total.distance, userId), userId, total.distance + distance);
+        }
+        total.distance += distance;
+        total.trainings++;
+    }
+
+    void subtract(long userId, double distance) {
+        Total total = totals.get(userId);
+        if (total == null) {
+            return;
+        }
+        int position = positionOf(total.distance, userId);
+        if (--total.trainings == 0) {
+            totals.remove(userId);
+            System.arraycopy(userIds, position + 1, userIds, position, size - position - 1);
+            System.arraycopy(distances, position + 1, distances, position, size - position - 1);
+            size--;
+            return;
+        }
+        total.distance -= distance;
+        move(position, userId, total.distance);
+    }
+
+    /**
+     * @param limit maximal number of entries
+     * @return the leading users, best first
+     */
+    List<LeaderboardEntryDto> top(int limit) {
+        List<LeaderboardEntryDto> entries = new ArrayList<>(Math.min(limit, size));
+        int rank = 0;
+        for (int i = 0; i < size && i < limit; i++) {
+            if (i == 0 || distances[i] != distances[i - 1]) {
+                rank = i + 1;
+            }
+            entries.add(new LeaderboardEntryDto(rank, userIds[i], distances[i], totals.get(userIds[i]).trainings));
+        }
+        return entries;
+    }
+
+    /**
+     * @param userId id of the user
+     * @return position of the user, or {@link Optional#empty()} if the user has no training within the window
+     */
+    Optional<LeaderboardEntryDto> entryOf(long userId) {
+        Total total = totals.get(userId);
+        if (total == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new LeaderboardEntryDto(firstNotLongerThan(total.distance) + 1, userId, total.distance, total.trainings));
+    }
+
+    /**
+     * Places the user with a new distance, shifting the entries between its old and new position.
+     *
+     * @param from current position of the user, {@code size - 1} for a user just appended
+     */
+    private void move(int from, long userId, double distance) {
+        int to;
+        if (from > 0 && isBefore(distance, userId, from - 1)) {
+            to = insertionPoint(distance, userId, 0, from);
+            System.arraycopy(userIds, to, userIds, to + 1, from - to);
+            System.arraycopy(distances, to, distances, to + 1, from - to);
+        } else {
+            to = insertionPoint(distance, userId, from + 1, size) - 1;
+            System.arraycopy(userIds, from + 1, userIds, from, to - from);
+            System.arraycopy(distances, from + 1, distances, from, to - from);
+        }
+        userIds[to] = userId;
+        distances[to] = distance;
+    }
+
+    private int positionOf(double distance, long userId) {
+        return insertionPoint(distance, userId, 0, size) - 1;
+    }
+
+    /**
+     * @return first position within {@code from..to} whose entry ranks after the given one
+     */
+    private int insertionPoint(double distance, long userId, int from, int to) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (isBefore(distance, userId, middle)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return whether the given entry ranks before the entry at the position
+     */
+    private boolean isBefore(double distance, long userId, int position) {
+        return distance > distances[position] || distance == distances[position] && userId < userIds[position];
+    }
+
+    /**
+     * @return number of users with a longer distance
+     */
+    private int firstNotLongerThan(double distance) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (distances[middle] > distance) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Time window of a leaderboard. Weeks are ISO weeks (starting on Monday) and months calendar months, both in UTC.
+ */
+enum LeaderboardWindow {
+
+    WEEK {
+        @Override
+        LocalDate start(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    },
+    MONTH {
+        @Override
+        LocalDate start(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+    },
+    ALL_TIME {
+        @Override
+        LocalDate start(LocalDate date) {
+            return LocalDate.MIN;
+        }
+    };
+
+    /**
+     * @param date day within the window
+     * @return first day of the window containing the date
+     */
+    abstract LocalDate start(LocalDate date);
+
+}
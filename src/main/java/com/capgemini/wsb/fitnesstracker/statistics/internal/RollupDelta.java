@@ -0,0 +1,66 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupPeriod;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupId;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Mutable accumulator of changes of one rollup bucket. The maximal speed cannot be reduced incrementally, so once
+ * a training is subtracted the bucket is marked to be recomputed from its trainings instead.
+ */
+class RollupDelta {
+
+    private int trainings;
+    private double distance;
+    private long durationSeconds;
+    private double maxSpeed;
+    private boolean subtracted;
+
+    /**
+     * @param training training to bucket
+     * @param period period of the bucket
+     * @return id of the bucket of the given period containing the start of the training
+     */
+    static TrainingRollupId bucketOf(TrainingSnapshot training, RollupPeriod period) {
+        LocalDate startDay = training.startTime().toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+        return new TrainingRollupId(training.userId(), training.activityType(), period, period.bucketStart(startDay));
+    }
+
+    void add(TrainingSnapshot training) {
+        trainings++;
+        distance += training.distance();
+        durationSeconds += training.durationSeconds();
+        maxSpeed = Math.max(maxSpeed, training.averageSpeed());
+    }
+
+    void subtract(TrainingSnapshot training) {
+        trainings--;
+        distance -= training.distance();
+        durationSeconds -= training.durationSeconds();
+        subtracted = true;
+    }
+
+    boolean isSubtracted() {
+        return subtracted;
+    }
+
+    int trainings() {
+        return trainings;
+    }
+
+    double distance() {
+        return distance;
+    }
+
+    long durationSeconds() {
+        return durationSeconds;
+    }
+
+    double maxSpeed() {
+        return maxSpeed;
+    }
+
+}
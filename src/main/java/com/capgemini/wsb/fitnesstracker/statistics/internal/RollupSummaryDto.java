@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+/**
+ * Totals of the trainings of one activity type within a date range.
+ *
+ * @param activityType activity type of the trainings
+ * @param trainings number of trainings
+ * @param totalDistance sum of the distances
+ * @param totalDurationSeconds sum of the durations
+ * @param maxSpeed highest average speed of a training
+ */
+public record RollupSummaryDto(ActivityType activityType,
+                               Long trainings,
+                               Double totalDistance,
+                               Long totalDurationSeconds,
+                               Double maxSpeed) {
+
+}
@@ -0,0 +1,117 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupPeriod;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/statistics")
+@RequiredArgsConstructor
+class StatisticsController {
+
+    private final StatisticsProvider statisticsProvider;
+
+    private final StatisticsRebuildJob statisticsRebuildJob;
+
+    private final TrainingColumnStore trainingColumnStore;
+
+    private final TrainingRollupService trainingRollupService;
+
+    private final TrainingRollupBackfillJob trainingRollupBackfillJob;
+
+    /**
+     * Retrieves the aggregated statistics of a user. The statistics are maintained incrementally,
+     * so this is a single primary key lookup regardless of the number of trainings.
+     *
+     * @param userId The unique identifier of the user.
+     * @return A {@link ResponseEntity} containing a {@link StatisticsDto} if the user has any trainings,
+     *         or a not found status otherwise.
+     */
+    @GetMapping("/{userId}")
+    public ResponseEntity<StatisticsDto> getStatistics(@PathVariable Long userId) {
+        return statisticsProvider.getStatistics(userId)
+                .map(statistics -> ResponseEntity.ok(new StatisticsDto(statistics.getId(),
+                                                                       statistics.getTotalTrainings(),
+                                                                       statistics.getTotalDistance(),
+                                                                       statistics.getTotalCaloriesBurned())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Recomputes the statistics of all users from the training history.
+     *
+     * @return The number of users with statistics after the rebuild.
+     */
+    @PostMapping("/rebuild")
+    public int rebuildStatistics() {
+        return statisticsRebuildJob.rebuild();
+    }
+
+    /**
+     * Aggregates the trainings of all users by activity type and time bucket, from the in-memory column store.
+     *
+     * @param from The inclusive start of the range in ISO-8601 format, rounded down to the start of its bucket.
+     * @param to The exclusive end of the range in ISO-8601 format.
+     * @param bucket The calendar unit of one bucket (UTC): {@code HOURS}, {@code DAYS}, {@code WEEKS}, {@code MONTHS}
+     *               or {@code YEARS}.
+     * @return The aggregates of all non-empty groups, ordered by bucket and activity type.
+     */
+    @GetMapping("/trainings")
+    public List<TrainingAggregateDto> aggregateTrainings(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                         @RequestParam(defaultValue = "DAYS") ChronoUnit bucket) {
+        return trainingColumnStore.aggregate(from, to, bucket);
+    }
+
+    /**
+     * Summarizes the trainings of a user within a date range per activity type, from the pre-computed daily and
+     * weekly rollups.
+     *
+     * @param userId The unique identifier of the user.
+     * @param from The first day of the range in ISO-8601 format.
+     * @param to The last day of the range in ISO-8601 format, inclusive.
+     * @return The totals of every activity type with trainings which started within the range (UTC).
+     */
+    @GetMapping("/{userId}/summary")
+    public List<RollupSummaryDto> summarizeTrainings(@PathVariable Long userId,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return trainingRollupService.summarize(userId, from, to);
+    }
+
+    /**
+     * Retrieves the daily or weekly training rollups of a user within a date range.
+     *
+     * @param userId The unique identifier of the user.
+     * @param period The period of the buckets, {@code DAY} or {@code WEEK}.
+     * @param from The first day of the range in ISO-8601 format, rounded down to the start of its bucket.
+     * @param to The last day of the range in ISO-8601 format, inclusive.
+     * @return The non-empty buckets ordered by their start and activity type.
+     */
+    @GetMapping("/{userId}/rollups")
+    public List<TrainingRollupDto> getTrainingRollups(@PathVariable Long userId,
+                                                      @RequestParam(defaultValue = "WEEK") RollupPeriod period,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return trainingRollupService.findBuckets(userId, period, from, to);
+    }
+
+    /**
+     * Recomputes the daily and weekly training rollups of all users from the training history.
+     *
+     * @return The number of stored buckets after the backfill.
+     */
+    @PostMapping("/rollups/backfill")
+    public int backfillTrainingRollups() {
+        return trainingRollupBackfillJob.backfill();
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+
+/**
+ * Mutable accumulator of changes of the statistics of one user.
+ */
+class StatisticsDelta {
+
+    private int trainings;
+    private double distance;
+    private int calories;
+
+    void add(TrainingSnapshot training) {
+        trainings++;
+        distance += training.distance();
+        calories += CaloriesEstimator.estimate(training);
+    }
+
+    void subtract(TrainingSnapshot training) {
+        trainings--;
+        distance -= training.distance();
+        calories -= CaloriesEstimator.estimate(training);
+    }
+
+    boolean isEmpty() {
+        return trainings == 0 && distance == 0 && calories == 0;
+    }
+
+    int trainings() {
+        return trainings;
+    }
+
+    double distance() {
+        return distance;
+    }
+
+    int calories() {
+        return calories;
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the statistics module.
+ */
+@ConfigurationProperties(prefix = "statistics")
+@Getter
+class StatisticsProperties {
+
+    /**
+     * Full recomputation of the statistics from the training history.
+     */
+    private final Job rebuild;
+
+    /**
+     * Full recomputation of the daily and weekly training rollups from the training history.
+     */
+    private final Job rollupBackfill;
+
+    StatisticsProperties(@DefaultValue final Job rebuild,
+                         @DefaultValue final Job rollupBackfill) {
+        this.rebuild = rebuild;
+        this.rollupBackfill = rollupBackfill;
+    }
+
+    @Getter
+    static class Job {
+
+        /**
+         * Cron expression of the periodic run, {@code -} disables it.
+         */
+        private final String cron;
+
+        /**
+         * Whether the job runs once the application is ready.
+         */
+        private final boolean onStartup;
+
+        /**
+         * Number of consecutive user IDs recomputed per transaction, with the users locked until it commits.
+         */
+        private final int chunkSize;
+
+        Job(@DefaultValue("-") final String cron,
+            @DefaultValue("false") final boolean onStartup,
+            @DefaultValue("500") final int chunkSize) {
+            this.cron = cron;
+            this.onStartup = onStartup;
+            this.chunkSize = chunkSize;
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes the statistics of all users from the training history.
+ * <p>
+ * {@link StatisticsUpdater} keeps the statistics current on every change made through the training service, so this
+ * job is only needed to initialise the table and to repair drift caused by changes bypassing the service
+ * (e.g. direct SQL). It runs periodically when {@code statistics.rebuild.cron} is set, on startup when
+ * {@code statistics.rebuild.on-startup} is enabled, or on demand.
+ * <p>
+ * The users are processed in chunks of consecutive ids, each in its own transaction holding the locks of the users
+ * of the chunk, the same locks {@link StatisticsUpdater} takes before writing. A training changed concurrently is
+ * therefore either part of the recomputed totals or applied on top of them, never lost or counted twice.
+ */
+@Component
+@Slf4j
+public class StatisticsRebuildJob {
+
+    private final TrainingProvider trainingProvider;
+    private final UserProvider userProvider;
+    private final StatisticsRepository statisticsRepository;
+    private final EntityManager entityManager;
+    private final StatisticsProperties.Job properties;
+    private final TransactionTemplate transaction;
+
+    StatisticsRebuildJob(final TrainingProvider trainingProvider,
+                         final UserProvider userProvider,
+                         final StatisticsRepository statisticsRepository,
+                         final EntityManager entityManager,
+                         final StatisticsProperties statisticsProperties,
+                         final PlatformTransactionManager transactionManager) {
+        this.trainingProvider = trainingProvider;
+        this.userProvider = userProvider;
+        this.statisticsRepository = statisticsRepository;
+        this.entityManager = entityManager;
+        this.properties = statisticsProperties.getRebuild();
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        if (properties.isOnStartup()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${statistics.rebuild.cron:-}")
+    void rebuildPeriodically() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the statistics of all users with totals computed from their trainings, one chunk of users at a time.
+     *
+     * @return number of users with statistics
+     */
+    public int rebuild() {
+        long start = System.nanoTime();
+        long maxUserId = userProvider.findMaxUserId();
+        int users = 0;
+        for (long chunkStart = 1; chunkStart <= maxUserId; chunkStart += properties.getChunkSize()) {
+            long firstId = chunkStart;
+            long lastId = chunkStart + properties.getChunkSize() - 1;
+            Integer rebuilt = transaction.execute(status -> rebuildUsersWithIdBetween(firstId, lastId));
+            users += rebuilt == null ? 0 : rebuilt;
+        }
+        log.info("Statistics of {} users rebuilt in {} ms", users, (System.nanoTime() - start) / 1_000_000);
+        return users;
+    }
+
+    private int rebuildUsersWithIdBetween(long firstId, long lastId) {
+        List<Long> userIds = userProvider.findUsersWithIdBetween(firstId, lastId).stream()
+                .map(User::getId)
+                .toList();
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        userProvider.lockUsers(userIds);
+
+        Map<Long, StatisticsDelta> totals = new HashMap<>();
+        trainingProvider.findTrainingsOfUsers(userIds).forEach(training ->
+                totals.computeIfAbsent(training.userId(), userId -> new StatisticsDelta()).add(training));
+
+        statisticsRepository.deleteOfUsers(userIds);
+        totals.forEach((userId, total) ->
+                entityManager.persist(new Statistics(entityManager.getReference(User.class, userId),
+                                                     total.trainings(),
+                                                     total.distance(),
+                                                     total.calories())));
+        return totals.size();
+    }
+
+}
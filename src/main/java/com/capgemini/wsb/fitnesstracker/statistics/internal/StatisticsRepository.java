@@ -0,0 +1,56 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+public interface StatisticsRepository extends JpaRepository<Statistics, Long> {
+
+    /**
+     * Adds the given (possibly negative) deltas to the totals of the user, creating the statistics of the user if they
+     * do not exist yet. Native, because Hibernate renders the arithmetic on a {@code double} parameter as a cast H2
+     * cannot parse. The query declares the table it writes, otherwise Hibernate would clear the whole second-level
+     * cache on every execution. H2 still fails one of two transactions inserting the statistics of the same user concurrently, so callers
+     * lock the user first.
+     *
+     * @param userId id of the user
+     * @param trainings delta of the number of trainings
+     * @param distance delta of the total distance
+     * @param calories delta of the total calories burned
+     * @return number of inserted or updated rows
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "statistics"))
+    @Query(value = """
+            merge into statistics s
+            using (select cast(:userId as bigint) as user_id) d
+            on s.user_id = d.user_id
+            when matched then update
+                set total_trainings = s.total_trainings + :trainings,
+                    total_distance = s.total_distance + :distance,
+                    total_calories_burned = s.total_calories_burned + :calories
+            when not matched then insert (user_id, total_trainings, total_distance, total_calories_burned)
+                values (d.user_id, :trainings, :distance, :calories)
+            """, nativeQuery = true)
+    int upsertTotals(@Param("userId") Long userId,
+                     @Param("trainings") int trainings,
+                     @Param("distance") double distance,
+                     @Param("calories") int calories);
+
+    @Modifying
+    @Query("delete from Statistics s where s.id = :userId")
+    int deleteOfUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from Statistics s where s.id in :userIds")
+    int deleteOfUsers(@Param("userIds") Collection<Long> userIds);
+
+}
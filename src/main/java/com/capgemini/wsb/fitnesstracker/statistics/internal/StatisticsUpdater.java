@@ -0,0 +1,60 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Keeps the {@link Statistics} of users up to date by applying the difference between the old and the new state
+ * of every changed training, so the totals never have to be computed from the training history.
+ * <p>
+ * Changes are collected per transaction and written right before it commits, with one update per affected user,
+ * so a bulk ingestion of thousands of trainings does not update the same row thousands of times. The statistics of a
+ * user are created with the first training of the user and deleted with the user.
+ */
+@Component
+class StatisticsUpdater {
+
+    private final StatisticsRepository statisticsRepository;
+    private final UserProvider userProvider;
+    private final BeforeCommitBuffer<Long, StatisticsDelta> pendingDeltas = new BeforeCommitBuffer<>(this::apply);
+
+    StatisticsUpdater(final StatisticsRepository statisticsRepository, final UserProvider userProvider) {
+        this.statisticsRepository = statisticsRepository;
+        this.userProvider = userProvider;
+    }
+
+    @EventListener
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        pendingDeltas.update(deltas -> {
+            if (event.before() != null) {
+                deltas.computeIfAbsent(event.before().userId(), userId -> new StatisticsDelta()).subtract(event.before());
+            }
+            if (event.after() != null) {
+                deltas.computeIfAbsent(event.after().userId(), userId -> new StatisticsDelta()).add(event.after());
+            }
+        });
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        pendingDeltas.discard(event.userId()::equals);
+        statisticsRepository.deleteOfUser(event.userId());
+    }
+
+    private void apply(Map<Long, StatisticsDelta> deltas) {
+        // serializes with transactions creating the same statistics and with StatisticsRebuildJob
+        userProvider.lockUsers(deltas.keySet());
+        deltas.forEach((userId, delta) -> {
+            if (!delta.isEmpty()) {
+                statisticsRepository.upsertTotals(userId, delta.trainings(), delta.distance(), delta.calories());
+            }
+        });
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Consecutive calendar buckets (in UTC) covering a time range, as an array of epoch-millisecond boundaries,
+ * so the bucket of a timestamp is found by a binary search without any allocation.
+ */
+final class TimeBuckets {
+
+    static final int MAX_BUCKETS = 10_000;
+
+    private static final Set<ChronoUnit> SUPPORTED_UNITS =
+            EnumSet.of(ChronoUnit.HOURS, ChronoUnit.DAYS, ChronoUnit.WEEKS, ChronoUnit.MONTHS, ChronoUnit.YEARS);
+
+    /**
+     * Boundaries of the buckets, bucket {@code i} spans {@code [bounds[i], bounds[i + 1])}.
+     */
+    private final long[] bounds;
+
+    private TimeBuckets(long[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * @param from inclusive start of the range, rounded down to the start of its bucket
+     * @param to exclusive end of the range
+     * @param unit calendar unit of one bucket; weeks start on Monday
+     * @return buckets covering the range
+     */
+    static TimeBuckets of(Instant from, Instant to, ChronoUnit unit) {
+        if (!SUPPORTED_UNITS.contains(unit)) {
+            throw new BusinessException("Unsupported bucket unit " + unit + ", expected one of " + SUPPORTED_UNITS);
+        }
+        if (!from.isBefore(to)) {
+            throw new BusinessException("Start of the range has to be before its end");
+        }
+        long[] bounds = new long[16];
+        int count = 0;
+        ZonedDateTime bound = startOfBucket(from.atZone(ZoneOffset.UTC), unit);
+        long end = to.toEpochMilli();
+        while (true) {
+            if (count == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[count++] = bound.toInstant().toEpochMilli();
+            if (bounds[count - 1] >= end) {
+                break;
+            }
+            if (count > MAX_BUCKETS) {
+                throw new BusinessException("The range spans more than " + MAX_BUCKETS + " buckets");
+            }
+            bound = bound.plus(1, unit);
+        }
+        return new TimeBuckets(Arrays.copyOf(bounds, count));
+    }
+
+    private static ZonedDateTime startOfBucket(ZonedDateTime time, ChronoUnit unit) {
+        return switch (unit) {
+            case HOURS -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAYS -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEKS -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHS -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            case YEARS -> time.truncatedTo(ChronoUnit.DAYS).withDayOfYear(1);
+            default -> throw new IllegalArgumentException(unit.toString());
+        };
+    }
+
+    int count() {
+        return bounds.length - 1;
+    }
+
+    Instant start(int bucket) {
+        return Instant.ofEpochMilli(bounds[bucket]);
+    }
+
+    /**
+     * @param epochMillis timestamp to look up
+     * @return index of the bucket containing the timestamp, or -1 if it is outside of all buckets
+     */
+    int indexOf(long epochMillis) {
+        if (epochMillis < bounds[0] || epochMillis >= bounds[bounds.length - 1]) {
+            return -1;
+        }
+        int position = Arrays.binarySearch(bounds, epochMillis);
+        return position >= 0 ? position : -position - 2;
+    }
+
+}
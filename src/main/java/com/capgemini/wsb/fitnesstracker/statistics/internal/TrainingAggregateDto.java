@@ -0,0 +1,28 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Instant;
+
+/**
+ * Aggregates of all trainings of one activity type which started within one time bucket.
+ *
+ * @param activityType activity type of the trainings
+ * @param bucketStart start of the time bucket
+ * @param trainings number of trainings
+ * @param totalDistance sum of the distances
+ * @param averageDistance mean distance of a training
+ * @param averageSpeed mean of the average speeds
+ * @param totalDurationSeconds sum of the durations
+ * @param averageDurationSeconds mean duration of a training
+ */
+record TrainingAggregateDto(ActivityType activityType,
+                            Instant bucketStart,
+                            long trainings,
+                            double totalDistance,
+                            double averageDistance,
+                            double averageSpeed,
+                            long totalDurationSeconds,
+                            double averageDurationSeconds) {
+
+}
@@ -0,0 +1,58 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join scan of a range of rows of {@link TrainingColumns}, summing them into {@link GroupTotals}.
+ * Ranges are split in halves down to {@link #LEAF_ROWS}; each leaf allocates one set of totals and nothing per row.
+ */
+final class TrainingAggregationTask extends RecursiveTask<GroupTotals> {
+
+    static final int LEAF_ROWS = 1 << 16;
+
+    private final TrainingColumns columns;
+    private final TimeBuckets buckets;
+    private final int from;
+    private final int to;
+
+    TrainingAggregationTask(TrainingColumns columns, TimeBuckets buckets, int from, int to) {
+        this.columns = columns;
+        this.buckets = buckets;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected GroupTotals compute() {
+        if (to - from <= LEAF_ROWS) {
+            return scan();
+        }
+        int middle = (from + to) >>> 1;
+        TrainingAggregationTask left = new TrainingAggregationTask(columns, buckets, from, middle);
+        left.fork();
+        GroupTotals right = new TrainingAggregationTask(columns, buckets, middle, to).compute();
+        return left.join().merge(right);
+    }
+
+    private GroupTotals scan() {
+        GroupTotals totals = new GroupTotals(buckets.count());
+        long[] startTimes = columns.startTimes;
+        byte[] activityTypes = columns.activityTypes;
+        long[] durations = columns.durations;
+        double[] distances = columns.distances;
+        double[] averageSpeeds = columns.averageSpeeds;
+        for (int row = from; row < to; row++) {
+            int bucket = buckets.indexOf(startTimes[row]);
+            if (bucket < 0) {
+                continue;
+            }
+            int group = GroupTotals.group(bucket, activityTypes[row]);
+            totals.counts[group]++;
+            totals.durations[group] += durations[row];
+            totals.distances[group] += distances[row];
+            totals.averageSpeeds[group] += averageSpeeds[row];
+        }
+        return totals;
+    }
+
+}
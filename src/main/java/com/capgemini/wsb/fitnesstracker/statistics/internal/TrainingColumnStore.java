@@ -0,0 +1,195 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory columnar copy of all trainings for dashboard aggregates across all users, which would otherwise need
+ * a full scan through JPA entities. The store also keeps the {@link TrainingLeaderboards}.
+ * <p>
+ * The store is loaded once the application is ready and then follows committed training changes. Changes
+ * committed while the initial load runs are replayed on top of the loaded data; replaying a change that the load
+ * already saw is harmless, because every change carries the full state of the training. The leaderboards are built
+ * from the loaded columns and then updated from the previous state of a changed training as stored in the columns,
+ * so they never count a training twice.
+ */
+@Component
+@Slf4j
+class TrainingColumnStore {
+
+    private final TrainingProvider trainingProvider;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Clock clock = Clock.systemUTC();
+
+    private TrainingColumns columns = new TrainingColumns();
+    private TrainingLeaderboards leaderboards = new TrainingLeaderboards(LocalDate.now(clock));
+    private List<TrainingChangedEvent> changesDuringLoad;
+
+    TrainingColumnStore(final TrainingProvider trainingProvider) {
+        this.trainingProvider = trainingProvider;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void load() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TrainingColumns loaded = new TrainingColumns();
+        try {
+            trainingProvider.forEachTraining(loaded::upsert);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changesDuringLoad.forEach(change -> apply(loaded, change));
+                changesDuringLoad = null;
+                columns = loaded;
+                leaderboards = TrainingLeaderboards.of(loaded, LocalDate.now(clock));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Training column store loaded with {} trainings in {} ms", loaded.size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(event);
+            }
+            leaderboards.rollOver(LocalDate.now(clock));
+            leaderboards.apply(columns, event);
+            apply(columns, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(TrainingColumns columns, TrainingChangedEvent event) {
+        if (event.after() != null) {
+            columns.upsert(event.after());
+        } else if (event.before() != null) {
+            columns.remove(event.before().trainingId());
+        }
+    }
+
+    /**
+     * Retrieves the users with the longest total distance of an activity type within the current window.
+     *
+     * @param window leaderboard window
+     * @param activityType activity type of the trainings
+     * @param limit maximal number of users
+     * @return the leading users, best first
+     */
+    List<LeaderboardEntryDto> leaderboard(LeaderboardWindow window, ActivityType activityType, int limit) {
+        rollOverLeaderboards();
+        lock.readLock().lock();
+        try {
+            return leaderboards.top(window, activityType, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the rank of a user on the leaderboard of an activity type within the current window.
+     *
+     * @param window leaderboard window
+     * @param activityType activity type of the trainings
+     * @param userId id of the user
+     * @return position of the user, or {@link Optional#empty()} if the user has no such training within the window
+     */
+    Optional<LeaderboardEntryDto> leaderboardEntry(LeaderboardWindow window, ActivityType activityType, long userId) {
+        rollOverLeaderboards();
+        lock.readLock().lock();
+        try {
+            return leaderboards.entryOf(window, activityType, userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rollOverLeaderboards() {
+        LocalDate today = LocalDate.now(clock);
+        lock.readLock().lock();
+        try {
+            if (!today.isAfter(leaderboards.today())) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            leaderboards.rollOver(today);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aggregates all trainings which started within the range, grouped by activity type and calendar bucket (UTC).
+     *
+     * @param from inclusive start of the range, rounded down to the start of its bucket
+     * @param to exclusive end of the range
+     * @param unit calendar unit of one bucket: hours, days, weeks (starting on Monday), months or years
+     * @return aggregates of the non-empty groups, ordered by bucket and activity type
+     */
+    List<TrainingAggregateDto> aggregate(Instant from, Instant to, ChronoUnit unit) {
+        TimeBuckets buckets = TimeBuckets.of(from, to, unit);
+        GroupTotals totals;
+        lock.readLock().lock();
+        try {
+            totals = pool.invoke(new TrainingAggregationTask(columns, buckets, 0, columns.size));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        ActivityType[] activityTypes = ActivityType.values();
+        List<TrainingAggregateDto> aggregates = new ArrayList<>();
+        for (int bucket = 0; bucket < buckets.count(); bucket++) {
+            for (int activityType = 0; activityType < activityTypes.length; activityType++) {
+                int group = GroupTotals.group(bucket, activityType);
+                long count = totals.counts[group];
+                if (count == 0) {
+                    continue;
+                }
+                aggregates.add(new TrainingAggregateDto(activityTypes[activityType],
+                                                        buckets.start(bucket),
+                                                        count,
+                                                        totals.distances[group],
+                                                        totals.distances[group] / count,
+                                                        totals.averageSpeeds[group] / count,
+                                                        totals.durations[group],
+                                                        (double) totals.durations[group] / count));
+            }
+        }
+        return aggregates;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trainings stored column by column in primitive arrays, so a scan over one attribute touches contiguous memory
+ * and creates no objects. Rows are kept dense: a removed row is replaced by the last one.
+ * <p>
+ * Not thread-safe, guarded by {@link TrainingColumnStore}.
+ */
+final class TrainingColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<Long, Integer> rowByTrainingId = new HashMap<>();
+
+    long[] trainingIds;
+    long[] userIds;
+    byte[] activityTypes;
+    long[] startTimes;
+    long[] durations;
+    double[] distances;
+    double[] averageSpeeds;
+    int size;
+
+    TrainingColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    TrainingColumns(int capacity) {
+        trainingIds = new long[capacity];
+        userIds = new long[capacity];
+        activityTypes = new byte[capacity];
+        startTimes = new long[capacity];
+        durations = new long[capacity];
+        distances = new double[capacity];
+        averageSpeeds = new double[capacity];
+    }
+
+    /**
+     * @param trainingId id of a training
+     * @return row of the training, or -1 if it is not stored
+     */
+    int rowOf(long trainingId) {
+        Integer row = rowByTrainingId.get(trainingId);
+        return row != null ? row : -1;
+    }
+
+    /**
+     * Inserts the training, or overwrites its row if it is already stored.
+     *
+     * @param training training to store
+     */
+    void upsert(TrainingSnapshot training) {
+        Integer existing = rowByTrainingId.get(training.trainingId());
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowByTrainingId.put(training.trainingId(), row);
+        }
+        trainingIds[row] = training.trainingId();
+        userIds[row] = training.userId();
+        activityTypes[row] = (byte) training.activityType().ordinal();
+        startTimes[row] = training.startTime().getTime();
+        durations[row] = training.durationSeconds();
+        distances[row] = training.distance();
+        averageSpeeds[row] = training.averageSpeed();
+    }
+
+    /**
+     * Removes the training if it is stored.
+     *
+     * @param trainingId id of the training to remove
+     */
+    void remove(long trainingId) {
+        Integer removed = rowByTrainingId.remove(trainingId);
+        if (removed == null) {
+            return;
+        }
+        int last = --size;
+        if (removed != last) {
+            int row = removed;
+            trainingIds[row] = trainingIds[last];
+            userIds[row] = userIds[last];
+            activityTypes[row] = activityTypes[last];
+            startTimes[row] = startTimes[last];
+            durations[row] = durations[last];
+            distances[row] = distances[last];
+            averageSpeeds[row] = averageSpeeds[last];
+            rowByTrainingId.put(trainingIds[row], row);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= trainingIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, trainingIds.length + (trainingIds.length >> 1));
+        trainingIds = Arrays.copyOf(trainingIds, newCapacity);
+        userIds = Arrays.copyOf(userIds, newCapacity);
+        activityTypes = Arrays.copyOf(activityTypes, newCapacity);
+        startTimes = Arrays.copyOf(startTimes, newCapacity);
+        durations = Arrays.copyOf(durations, newCapacity);
+        distances = Arrays.copyOf(distances, newCapacity);
+        averageSpeeds = Arrays.copyOf(averageSpeeds, newCapacity);
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Distance leaderboards of every activity type for the current week, the current month and all time.
+ * <p>
+ * Boards are kept per window start, for the current windows and for the future ones (trainings may be entered ahead).
+ * When a new week or month begins, its board is already up to date and the boards of the past windows are simply
+ * dropped, so a rollover never recomputes anything. Changes of trainings in past windows only affect the all time
+ * boards.
+ * <p>
+ * Not thread-safe, guarded by {@link TrainingColumnStore}.
+ */
+final class TrainingLeaderboards {
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+
+    private final Map<LeaderboardWindow, TreeMap<LocalDate, LeaderboardTotals[]>> boards = new EnumMap<>(LeaderboardWindow.class);
+    private LocalDate today;
+
+    TrainingLeaderboards(LocalDate today) {
+        this.today = today;
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            boards.put(window, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Builds the leaderboards of all stored trainings, sorting every board once.
+     */
+    static TrainingLeaderboards of(TrainingColumns columns, LocalDate today) {
+        TrainingLeaderboards leaderboards = new TrainingLeaderboards(today);
+        for (int row = 0; row < columns.size; row++) {
+            LocalDate day = dayOf(columns.startTimes[row]);
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                LeaderboardTotals totals = leaderboards.totalsOf(window, day, columns.activityTypes[row]);
+                if (totals != null) {
+                    totals.accumulate(columns.userIds[row], columns.distances[row]);
+                }
+            }
+        }
+        leaderboards.boards.values().forEach(windows -> windows.values().forEach(activities -> {
+            for (LeaderboardTotals totals : activities) {
+                totals.sort();
+            }
+        }));
+        return leaderboards;
+    }
+
+    LocalDate today() {
+        return today;
+    }
+
+    /**
+     * Moves to the windows of a new day, dropping the boards of the windows which ended.
+     */
+    void rollOver(LocalDate newToday) {
+        if (!newToday.isAfter(today)) {
+            return;
+        }
+        today = newToday;
+        boards.forEach((window, windows) -> windows.headMap(window.start(today)).clear());
+    }
+
+    /**
+     * Applies a committed change. Has to be called before the change is applied to the columns, which still hold the
+     * previous state of the training.
+     */
+    void apply(TrainingColumns columns, TrainingChangedEvent event) {
+        TrainingSnapshot changed = event.after() != null ? event.after() : event.before();
+        if (changed == null) {
+            return;
+        }
+        int row = columns.rowOf(changed.trainingId());
+        if (row >= 0) {
+            LocalDate day = dayOf(columns.startTimes[row]);
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                LeaderboardTotals totals = totalsOf(window, day, columns.activityTypes[row]);
+                if (totals != null) {
+                    totals.subtract(columns.userIds[row], columns.distances[row]);
+                }
+            }
+        }
+        TrainingSnapshot after = event.after();
+        if (after != null) {
+            LocalDate day = dayOf(after.startTime().getTime());
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                LeaderboardTotals totals = totalsOf(window, day, (byte) after.activityType().ordinal());
+                if (totals != null) {
+                    totals.add(after.userId(), after.distance());
+                }
+            }
+        }
+    }
+
+    List<LeaderboardEntryDto> top(LeaderboardWindow window, ActivityType activityType, int limit) {
+        LeaderboardTotals[] current = boards.get(window).get(window.start(today));
+        return current != null ? current[activityType.ordinal()].top(limit) : List.of();
+    }
+
+    Optional<LeaderboardEntryDto> entryOf(LeaderboardWindow window, ActivityType activityType, long userId) {
+        LeaderboardTotals[] current = boards.get(window).get(window.start(today));
+        return current != null ? current[activityType.ordinal()].entryOf(userId) : Optional.empty();
+    }
+
+    /**
+     * @return board of the window containing the day, or {@code null} if the window already ended
+     */
+    @Nullable
+    private LeaderboardTotals totalsOf(LeaderboardWindow window, LocalDate day, byte activityType) {
+        LocalDate start = window.start(day);
+        if (start.isBefore(window.start(today))) {
+            return null;
+        }
+        return boards.get(window).computeIfAbsent(start, key -> {
+            LeaderboardTotals[] activities = new LeaderboardTotals[ACTIVITY_TYPES.length];
+            for (int i = 0; i < activities.length; i++) {
+                activities[i] = new LeaderboardTotals();
+            }
+            return activities;
+        })[activityType];
+    }
+
+    private static LocalDate dayOf(long epochMilli) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupPeriod;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupId;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes all daily and weekly training rollups from the training history.
+ * <p>
+ * {@link TrainingRollupUpdater} keeps the rollups current on every change made through the training service; like
+ * {@link StatisticsRebuildJob}, this job initialises the table and repairs drift from changes bypassing the service.
+ * It runs periodically when {@code statistics.rollup-backfill.cron} is set, on startup when
+ * {@code statistics.rollup-backfill.on-startup} is enabled, or on demand.
+ * <p>
+ * The users are processed in chunks of consecutive ids, each in its own transaction locking the users of the chunk
+ * like {@link TrainingRollupUpdater} does before writing, so concurrent changes are not lost or counted twice.
+ */
+@Component
+@Slf4j
+public class TrainingRollupBackfillJob {
+
+    private final TrainingProvider trainingProvider;
+    private final UserProvider userProvider;
+    private final TrainingRollupRepository trainingRollupRepository;
+    private final EntityManager entityManager;
+    private final StatisticsProperties.Job properties;
+    private final TransactionTemplate transaction;
+
+    TrainingRollupBackfillJob(final TrainingProvider trainingProvider,
+                              final UserProvider userProvider,
+                              final TrainingRollupRepository trainingRollupRepository,
+                              final EntityManager entityManager,
+                              final StatisticsProperties statisticsProperties,
+                              final PlatformTransactionManager transactionManager) {
+        this.trainingProvider = trainingProvider;
+        this.userProvider = userProvider;
+        this.trainingRollupRepository = trainingRollupRepository;
+        this.entityManager = entityManager;
+        this.properties = statisticsProperties.getRollupBackfill();
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void backfillOnStartup() {
+        if (properties.isOnStartup()) {
+            backfill();
+        }
+    }
+
+    @Scheduled(cron = "${statistics.rollup-backfill.cron:-}")
+    void backfillPeriodically() {
+        backfill();
+    }
+
+    /**
+     * Replaces all rollups with buckets computed from the trainings, one chunk of users at a time.
+     *
+     * @return number of stored buckets
+     */
+    public int backfill() {
+        long start = System.nanoTime();
+        long maxUserId = userProvider.findMaxUserId();
+        int buckets = 0;
+        for (long chunkStart = 1; chunkStart <= maxUserId; chunkStart += properties.getChunkSize()) {
+            long firstId = chunkStart;
+            long lastId = chunkStart + properties.getChunkSize() - 1;
+            Integer inserted = transaction.execute(status -> backfillUsersWithIdBetween(firstId, lastId));
+            buckets += inserted == null ? 0 : inserted;
+        }
+        log.info("{} training rollup buckets backfilled in {} ms", buckets, (System.nanoTime() - start) / 1_000_000);
+        return buckets;
+    }
+
+    private int backfillUsersWithIdBetween(long firstId, long lastId) {
+        List<Long> userIds = userProvider.findUsersWithIdBetween(firstId, lastId).stream()
+                .map(User::getId)
+                .toList();
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        userProvider.lockUsers(userIds);
+
+        Map<TrainingRollupId, RollupDelta> totals = new HashMap<>();
+        trainingProvider.findTrainingsOfUsers(userIds).forEach(training -> {
+            for (RollupPeriod period : RollupPeriod.values()) {
+                totals.computeIfAbsent(RollupDelta.bucketOf(training, period), id -> new RollupDelta()).add(training);
+            }
+        });
+
+        trainingRollupRepository.deleteOfUsers(userIds);
+        totals.forEach((id, total) ->
+                entityManager.persist(new TrainingRollup(id,
+                                                         total.trainings(),
+                                                         total.distance(),
+                                                         total.durationSeconds(),
+                                                         total.maxSpeed())));
+        return totals.size();
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupPeriod;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.LocalDate;
+
+record TrainingRollupDto(ActivityType activityType,
+                         RollupPeriod period,
+                         LocalDate bucketStart,
+                         int trainings,
+                         double distance,
+                         long durationSeconds,
+                         double maxSpeed) {
+
+    static TrainingRollupDto of(TrainingRollup rollup) {
+        return new TrainingRollupDto(rollup.getId().getActivityType(),
+                                     rollup.getId().getPeriod(),
+                                     rollup.getId().getBucketStart(),
+                                     rollup.getTrainings(),
+                                     rollup.getDistance(),
+                                     rollup.getDurationSeconds(),
+                                     rollup.getMaxSpeed());
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupPeriod;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupId;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+public interface TrainingRollupRepository extends JpaRepository<TrainingRollup, TrainingRollupId> {
+
+    /**
+     * Adds trainings to a bucket, creating it if it does not exist yet, in a single statement. Native for the same
+     * reason as {@link StatisticsRepository#addToTotals}. H2 still fails one of two transactions creating the same
+     * bucket concurrently, so callers lock the user first.
+     *
+     * @param userId id of the user
+     * @param activityType ordinal of the activity type
+     * @param period ordinal of the period
+     * @param bucketStart first day of the bucket
+     * @param trainings number of added trainings
+     * @param distance total distance of the added trainings
+     * @param durationSeconds total duration of the added trainings
+     * @param maxSpeed highest average speed of the added trainings
+     * @return number of inserted or updated rows
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "training_rollups"))
+    @Query(value = """
+            merge into training_rollups r
+            using (select cast(:userId as bigint) as user_id, cast(:activityType as int) as activity_type,
+                          cast(:period as int) as period, cast(:bucketStart as date) as bucket_start) b
+            on r.user_id = b.user_id and r.activity_type = b.activity_type and r.period = b.period
+               and r.bucket_start = b.bucket_start
+            when matched then update
+                set trainings = r.trainings + :trainings,
+                    distance = r.distance + :distance,
+                    duration_seconds = r.duration_seconds + :durationSeconds,
+                    max_speed = greatest(r.max_speed, :maxSpeed)
+            when not matched then insert (user_id, activity_type, period, bucket_start, trainings, distance,
+                                          duration_seconds, max_speed)
+                values (b.user_id, b.activity_type, b.period, b.bucket_start, :trainings, :distance, :durationSeconds,
+                        :maxSpeed)
+            """, nativeQuery = true)
+    int addToBucket(@Param("userId") Long userId,
+                    @Param("activityType") int activityType,
+                    @Param("period") int period,
+                    @Param("bucketStart") LocalDate bucketStart,
+                    @Param("trainings") int trainings,
+                    @Param("distance") double distance,
+                    @Param("durationSeconds") long durationSeconds,
+                    @Param("maxSpeed") double maxSpeed);
+
+    /**
+     * Replaces the totals of a bucket, creating it if it does not exist yet, in a single statement. Like
+     * {@link #addToBucket}, callers lock the user first.
+     *
+     * @param userId id of the user
+     * @param activityType ordinal of the activity type
+     * @param period ordinal of the period
+     * @param bucketStart first day of the bucket
+     * @param trainings number of trainings of the bucket
+     * @param distance total distance of the trainings
+     * @param durationSeconds total duration of the trainings
+     * @param maxSpeed highest average speed of the trainings
+     * @return number of inserted or updated rows
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "training_rollups"))
+    @Query(value = """
+            merge into training_rollups r
+            using (select cast(:userId as bigint) as user_id, cast(:activityType as int) as activity_type,
+                          cast(:period as int) as period, cast(:bucketStart as date) as bucket_start) b
+            on r.user_id = b.user_id and r.activity_type = b.activity_type and r.period = b.period
+               and r.bucket_start = b.bucket_start
+            when matched then update
+                set trainings = :trainings,
+                    distance = :distance,
+                    duration_seconds = :durationSeconds,
+                    max_speed = :maxSpeed
+            when not matched then insert (user_id, activity_type, period, bucket_start, trainings, distance,
+                                          duration_seconds, max_speed)
+                values (b.user_id, b.activity_type, b.period, b.bucket_start, :trainings, :distance, :durationSeconds,
+                        :maxSpeed)
+            """, nativeQuery = true)
+    int replaceBucket(@Param("userId") Long userId,
+                      @Param("activityType") int activityType,
+                      @Param("period") int period,
+                      @Param("bucketStart") LocalDate bucketStart,
+                      @Param("trainings") int trainings,
+                      @Param("distance") double distance,
+                      @Param("durationSeconds") long durationSeconds,
+                      @Param("maxSpeed") double maxSpeed);
+
+    @Modifying
+    @Query("delete from TrainingRollup r where r.id = :id")
+    int deleteBucket(@Param("id") TrainingRollupId id);
+
+    /**
+     * Buckets of one user and period within a date range.
+     *
+     * @param userId id of the user
+     * @param period period of the buckets
+     * @param from inclusive lower bound of the bucket start
+     * @param to inclusive upper bound of the bucket start
+     * @return buckets ordered by their start and activity type
+     */
+    @Query("""
+            select r from TrainingRollup r
+            where r.id.userId = :userId and r.id.period = :period and r.id.bucketStart between :from and :to
+            order by r.id.bucketStart, r.id.activityType
+            """)
+    List<TrainingRollup> findBuckets(@Param("userId") Long userId,
+                                     @Param("period") RollupPeriod period,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    /**
+     * One bucket of all users with IDs within the range.
+     *
+     * @param firstUserId inclusive lower bound of the user IDs
+     * @param lastUserId inclusive upper bound of the user IDs
+     * @param period period of the bucket
+     * @param bucketStart first day of the bucket
+     * @return rollups ordered by user ID and activity type
+     */
+    @Query("""
+            select r from TrainingRollup r
+            where r.id.userId between :firstUserId and :lastUserId
+              and r.id.period = :period and r.id.bucketStart = :bucketStart
+            order by r.id.userId, r.id.activityType
+            """)
+    List<TrainingRollup> findBucketOfUsers(@Param("firstUserId") long firstUserId,
+                                           @Param("lastUserId") long lastUserId,
+                                           @Param("period") RollupPeriod period,
+                                           @Param("bucketStart") LocalDate bucketStart);
+
+    /**
+     * Sums the buckets of one user per activity type: whole weeks within {@code [weeksFrom, weeksTo)} from the
+     * weekly buckets and the remaining days within {@code [from, to)} from the daily buckets.
+     *
+     * @param userId id of the user
+     * @param from inclusive first day of the range
+     * @param to exclusive last day of the range
+     * @param weeksFrom first Monday within the range
+     * @param weeksTo Monday after the last whole week within the range, equal to {@code weeksFrom} if there is none
+     * @param week {@link RollupPeriod#WEEK}
+     * @param day {@link RollupPeriod#DAY}
+     * @return totals per activity type with any trainings
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.statistics.internal.RollupSummaryDto(
+                r.id.activityType, sum(r.trainings), sum(r.distance), sum(r.durationSeconds), max(r.maxSpeed))
+            from TrainingRollup r
+            where r.id.userId = :userId
+              and ((r.id.period = :week and r.id.bucketStart >= :weeksFrom and r.id.bucketStart < :weeksTo)
+                or (r.id.period = :day and r.id.bucketStart >= :from and r.id.bucketStart < :to
+                    and (r.id.bucketStart < :weeksFrom or r.id.bucketStart >= :weeksTo)))
+            group by r.id.activityType
+            order by r.id.activityType
+            """)
+    List<RollupSummaryDto> summarize(@Param("userId") Long userId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to,
+                                     @Param("weeksFrom") LocalDate weeksFrom,
+                                     @Param("weeksTo") LocalDate weeksTo,
+                                     @Param("week") RollupPeriod week,
+                                     @Param("day") RollupPeriod day);
+
+    @Modifying
+    @Query("delete from TrainingRollup r where r.id.userId = :userId")
+    int deleteOfUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from TrainingRollup r where r.id.userId in :userIds")
+    int deleteOfUsers(@Param("userIds") Collection<Long> userIds);
+
+}
@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupPeriod;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Answers training summaries of a user from the rollup buckets. A date range is covered by as many whole weekly
+ * buckets as possible and the remaining days at both ends, so a summary reads at most
+ * {@code (weeks + 12) * activity types} rows regardless of the number of trainings.
+ */
+@Service
+@RequiredArgsConstructor
+class TrainingRollupService implements TrainingRollupProvider {
+
+    private final TrainingRollupRepository trainingRollupRepository;
+
+    /**
+     * @param userId id of the user
+     * @param from first day of the range
+     * @param to last day of the range, inclusive
+     * @return totals per activity type of the trainings which started within the range (UTC)
+     */
+    List<RollupSummaryDto> summarize(Long userId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        LocalDate end = to.plusDays(1);
+        LocalDate weeksFrom = RollupPeriod.WEEK.bucketStart(from.plusDays(6));
+        LocalDate weeksTo = RollupPeriod.WEEK.bucketStart(end);
+        if (!weeksFrom.isBefore(weeksTo)) {
+            weeksFrom = end;
+            weeksTo = end;
+        }
+        return trainingRollupRepository.summarize(userId, from, end, weeksFrom, weeksTo, RollupPeriod.WEEK, RollupPeriod.DAY);
+    }
+
+    /**
+     * @param userId id of the user
+     * @param period period of the buckets
+     * @param from first day of the range, rounded down to the start of its bucket
+     * @param to last day of the range, inclusive
+     * @return non-empty buckets within the range, ordered by their start and activity type
+     */
+    List<TrainingRollupDto> findBuckets(Long userId, RollupPeriod period, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return trainingRollupRepository.findBuckets(userId, period, period.bucketStart(from), to).stream()
+                .map(TrainingRollupDto::of)
+                .toList();
+    }
+
+    @Override
+    public List<TrainingRollup> findRollupsOfUsers(long firstUserId, long lastUserId, RollupPeriod period, LocalDate bucketStart) {
+        return trainingRollupRepository.findBucketOfUsers(firstUserId, lastUserId, period, bucketStart);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("Start of the range has to be before its end");
+        }
+    }
+
+}
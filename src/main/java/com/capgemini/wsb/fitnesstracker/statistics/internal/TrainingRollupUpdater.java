@@ -0,0 +1,109 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.RollupPeriod;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollup;
+import com.capgemini.wsb.fitnesstracker.statistics.api.TrainingRollupId;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the daily and weekly {@link TrainingRollup} buckets up to date on every training change.
+ * <p>
+ * Like {@link StatisticsUpdater}, changes are collected per transaction and written right before it commits, with
+ * the users of the changes locked, so concurrent transactions never create or recompute the same bucket at once.
+ * Buckets which only gained trainings are updated in place; buckets which lost a training are recomputed from
+ * their trainings, because their maximal speed may have dropped. The buckets of a user are deleted with the user.
+ */
+@Component
+class TrainingRollupUpdater {
+
+    private final TrainingRollupRepository trainingRollupRepository;
+    private final TrainingProvider trainingProvider;
+    private final UserProvider userProvider;
+    private final BeforeCommitBuffer<TrainingRollupId, RollupDelta> pendingDeltas = new BeforeCommitBuffer<>(this::apply);
+
+    TrainingRollupUpdater(final TrainingRollupRepository trainingRollupRepository,
+                          final TrainingProvider trainingProvider,
+                          final UserProvider userProvider) {
+        this.trainingRollupRepository = trainingRollupRepository;
+        this.trainingProvider = trainingProvider;
+        this.userProvider = userProvider;
+    }
+
+    @EventListener
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        pendingDeltas.update(deltas -> {
+            for (RollupPeriod period : RollupPeriod.values()) {
+                if (event.before() != null) {
+                    deltas.computeIfAbsent(RollupDelta.bucketOf(event.before(), period), id -> new RollupDelta())
+                            .subtract(event.before());
+                }
+                if (event.after() != null) {
+                    deltas.computeIfAbsent(RollupDelta.bucketOf(event.after(), period), id -> new RollupDelta())
+                            .add(event.after());
+                }
+            }
+        });
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        pendingDeltas.discard(id -> id.getUserId().equals(event.userId()));
+        trainingRollupRepository.deleteOfUser(event.userId());
+    }
+
+    private void apply(Map<TrainingRollupId, RollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // serializes the changes of the buckets of a user, both their first insert and their recomputation
+        userProvider.lockUsers(deltas.keySet().stream().map(TrainingRollupId::getUserId).collect(Collectors.toSet()));
+        deltas.forEach((id, delta) -> {
+            if (delta.isSubtracted()) {
+                recompute(id);
+            } else if (delta.trainings() > 0) {
+                trainingRollupRepository.addToBucket(id.getUserId(),
+                                                     id.getActivityType().ordinal(),
+                                                     id.getPeriod().ordinal(),
+                                                     id.getBucketStart(),
+                                                     delta.trainings(),
+                                                     delta.distance(),
+                                                     delta.durationSeconds(),
+                                                     delta.maxSpeed());
+            }
+        });
+    }
+
+    private void recompute(TrainingRollupId id) {
+        Date from = Date.from(id.getBucketStart().atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date to = Date.from(id.getPeriod().nextBucketStart(id.getBucketStart()).atStartOfDay(ZoneOffset.UTC).toInstant());
+        List<TrainingSnapshot> trainings = trainingProvider.findTrainingsStartedBetween(id.getUserId(), id.getActivityType(), from, to);
+        if (trainings.isEmpty()) {
+            trainingRollupRepository.deleteBucket(id);
+            return;
+        }
+
+        RollupDelta totals = new RollupDelta();
+        trainings.forEach(totals::add);
+        trainingRollupRepository.replaceBucket(id.getUserId(),
+                                               id.getActivityType().ordinal(),
+                                               id.getPeriod().ordinal(),
+                                               id.getBucketStart(),
+                                               totals.trainings(),
+                                               totals.distance(),
+                                               totals.durationSeconds(),
+                                               totals.maxSpeed());
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Application event published by the training module whenever a training is created, updated or deleted.
+ * It is published inside the transaction of the change, so listeners using {@code @EventListener} take part in it,
+ * while listeners interested in committed changes only should use {@code @TransactionalEventListener}.
+ *
+ * @param before state of the training before the change, {@code null} if the training was created
+ * @param after state of the training after the change, {@code null} if the training was deleted
+ */
+public record TrainingChangedEvent(@Nullable TrainingSnapshot before, @Nullable TrainingSnapshot after) {
+
+    public static TrainingChangedEvent created(TrainingSnapshot training) {
+        return new TrainingChangedEvent(null, training);
+    }
+
+    public static TrainingChangedEvent updated(TrainingSnapshot before, TrainingSnapshot after) {
+        return new TrainingChangedEvent(before, after);
+    }
+
+    public static TrainingChangedEvent deleted(TrainingSnapshot training) {
+        return new TrainingChangedEvent(training, null);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+/**
+ * Application event published by the training module when a completed training is recorded.
+ * It is delivered to {@link TrainingCompletedListener} beans asynchronously, after the transaction recording the
+ * training committed.
+ *
+ * @param training the completed training
+ */
+public record TrainingCompletedEvent(TrainingSnapshot training) {
+
+}
@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+/**
+ * Listener of committed {@link TrainingCompletedEvent}s, invoked on the bounded training event executor rather than
+ * in the thread which recorded the training, so listeners never add latency to the write path.
+ * <p>
+ * Delivery is best effort: depending on {@code training.events.overflow-policy} events may be dropped when the
+ * executor is saturated, and events still queued in memory are lost if the application crashes.
+ */
+public interface TrainingCompletedListener {
+
+    /**
+     * @param event the completed training; exceptions are logged and do not affect other listeners
+     */
+    void onTrainingCompleted(TrainingCompletedEvent event);
+
+}
@@ -1,8 +1,13 @@
 package com.capgemini.wsb.fitnesstracker.training.api;
 
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TrainingProvider {
 
@@ -15,4 +20,32 @@ public interface TrainingProvider {
      */
     Optional<User> getTraining(Long trainingId);
 
+    /**
+     * Passes every stored training to the consumer, one by one in the order of their IDs, without loading all of
+     * them into memory. Meant for batch jobs rebuilding data derived from trainings.
+     *
+     * @param consumer consumer of the trainings
+     */
+    void forEachTraining(Consumer<TrainingSnapshot> consumer);
+
+    /**
+     * Retrieves all trainings of the given users using a single query.
+     * Meant for batch jobs processing all users in fixed ID ranges.
+     *
+     * @param userIds ids of the users owning the trainings
+     * @return trainings of the users, in no particular order
+     */
+    List<TrainingSnapshot> findTrainingsOfUsers(Collection<Long> userIds);
+
+    /**
+     * Retrieves the trainings of one user and activity type which started within the given time range.
+     *
+     * @param userId id of the user owning the trainings
+     * @param activityType activity type of the trainings
+     * @param startedFrom inclusive lower bound of the start time
+     * @param startedBefore exclusive upper bound of the start time
+     * @return matching trainings, in no particular order
+     */
+    List<TrainingSnapshot> findTrainingsStartedBetween(Long userId, ActivityType activityType, Date startedFrom, Date startedBefore);
+
 }
@@ -1,7 +1,10 @@
 package com.capgemini.wsb.fitnesstracker.training.api;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.BulkTrainingResultDto;
 import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import jakarta.annotation.Nullable;
 
 import java.util.Date;
 import java.util.List;
@@ -9,14 +12,38 @@ import java.util.List;
 public interface TrainingService {
     public List<TrainingDto> findAllTrainings();
 
+    CursorPage<TrainingDto> findAllTrainings(@Nullable String cursor, int limit);
+
     List<TrainingDto> findTrainingsByUserId(Long userId);
 
+    CursorPage<TrainingDto> findTrainingsByUserId(Long userId, @Nullable String cursor, int limit);
+
+    long getTrainingsVersion(Long userId);
+
     TrainingDto createTraining(TrainingDto trainingDto);
 
+    BulkTrainingResultDto createTrainings(List<TrainingDto> trainingDtos);
+
     public List<TrainingDto> findTrainingsEndedAfter(Date endDate);
 
+    List<TrainingDto> findTrainingsEndedBetween(Date endAfter,
+                                                @Nullable Date endBefore,
+                                                @Nullable Long userId,
+                                                @Nullable ActivityType activityType);
+
+    CursorPage<TrainingDto> findTrainingsEndedBetween(Date endAfter,
+                                                      @Nullable Date endBefore,
+                                                      @Nullable Long userId,
+                                                      @Nullable ActivityType activityType,
+                                                      @Nullable String cursor,
+                                                      int limit);
+
     TrainingDto updateTraining(Long id, TrainingDto trainingDto);
 
+    boolean deleteTraining(Long id);
+
     List<TrainingDto> findTrainingsByActivityType(ActivityType activityType);
 
+    CursorPage<TrainingDto> findTrainingsByActivityType(ActivityType activityType, @Nullable String cursor, int limit);
+
 }
@@ -0,0 +1,49 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.util.Date;
+
+/**
+ * Immutable copy of the state of a {@link Training} at a given moment, safe to be handed over to other modules
+ * and threads.
+ *
+ * @param trainingId id of the training
+ * @param userId id of the user owning the training
+ * @param activityType activity type of the training
+ * @param startTime start of the training
+ * @param endTime end of the training
+ * @param distance distance covered during the training
+ * @param averageSpeed average speed during the training
+ */
+public record TrainingSnapshot(Long trainingId,
+                               Long userId,
+                               ActivityType activityType,
+                               Date startTime,
+                               Date endTime,
+                               double distance,
+                               double averageSpeed) {
+
+    public TrainingSnapshot {
+        startTime = new Date(startTime.getTime());
+        endTime = new Date(endTime.getTime());
+    }
+
+    public static TrainingSnapshot of(Training training) {
+        return new TrainingSnapshot(training.getId(),
+                                    training.getUser().getId(),
+                                    training.getActivityType(),
+                                    training.getStartTime(),
+                                    training.getEndTime(),
+                                    training.getDistance(),
+                                    training.getAverageSpeed());
+    }
+
+    /**
+     * @return duration of the training in seconds, never negative
+     */
+    public long durationSeconds() {
+        return Math.max(0, (endTime.getTime() - startTime.getTime()) / 1000);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Outcome of one training of a bulk ingestion. Exactly one of {@code id} and {@code error} is set.
+ *
+ * @param index position of the training in the request
+ * @param id id of the created training
+ * @param error reason why the training was rejected
+ */
+public record BulkTrainingItemDto(int index, @Nullable Long id, @Nullable String error) {
+
+    static BulkTrainingItemDto created(int index, Long id) {
+        return new BulkTrainingItemDto(index, id, null);
+    }
+
+    static BulkTrainingItemDto failed(int index, String error) {
+        return new BulkTrainingItemDto(index, null, error);
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk training ingestion.
+ *
+ * @param created number of created trainings
+ * @param failed number of rejected trainings
+ * @param items outcome of every submitted training, in the order of the request
+ */
+public record BulkTrainingResultDto(int created, int failed, List<BulkTrainingItemDto> items) {
+
+}
@@ -0,0 +1,32 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+/**
+ * Training of a {@link CompactTrainingPage}: the user is referenced by id only and the dates are epoch milliseconds.
+ *
+ * @param id id of the training
+ * @param userId id of the user, a key of {@link CompactTrainingPage#users()}
+ * @param startTime start of the training, in milliseconds since the epoch
+ * @param endTime end of the training, in milliseconds since the epoch
+ * @param activityType activity type
+ * @param distance distance
+ * @param averageSpeed average speed
+ */
+public record CompactTrainingDto(Long id,
+                                 Long userId,
+                                 long startTime,
+                                 long endTime,
+                                 ActivityType activityType,
+                                 double distance,
+                                 double averageSpeed) {
+
+    static CompactTrainingDto of(TrainingDto training) {
+        return new CompactTrainingDto(training.getId(),
+                                      training.getUser().getId(),
+                                      training.getStartTime().getTime(),
+                                      training.getEndTime().getTime(),
+                                      training.getActivityType(),
+                                      training.getDistance(),
+                                      training.getAverageSpeed());
+    }
+
+}
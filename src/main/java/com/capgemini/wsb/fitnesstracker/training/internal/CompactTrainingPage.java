@@ -0,0 +1,31 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserDto;
+import jakarta.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of trainings in the compact format: the trainings reference their users by id and every referenced user is
+ * included once, so a page of trainings of a single user carries the user once instead of in every training.
+ *
+ * @param items trainings of the page, in the order of the listing sort key
+ * @param users referenced users by id, in the order of their first reference
+ * @param nextCursor token of the next page, {@code null} on the last page
+ */
+public record CompactTrainingPage(List<CompactTrainingDto> items,
+                                  Map<Long, UserDto> users,
+                                  @Nullable String nextCursor) {
+
+    static CompactTrainingPage of(CursorPage<TrainingDto> page) {
+        Map<Long, UserDto> users = new LinkedHashMap<>();
+        page.items().forEach(training -> users.putIfAbsent(training.getUser().getId(), training.getUser()));
+        return new CompactTrainingPage(page.items().stream().map(CompactTrainingDto::of).toList(),
+                                       users,
+                                       page.nextCursor());
+    }
+
+}
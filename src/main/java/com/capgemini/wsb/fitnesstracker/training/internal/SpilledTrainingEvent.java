@@ -0,0 +1,64 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Training completed event which did not fit into the in-memory delivery queue and waits for room in it.
+ */
+@Entity
+@Table(name = "training_event_spill")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class SpilledTrainingEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "training_id", nullable = false)
+    private Long trainingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "activity_type", nullable = false)
+    private ActivityType activityType;
+
+    @Column(name = "start_time", nullable = false)
+    private Date startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private Date endTime;
+
+    @Column(name = "distance")
+    private double distance;
+
+    @Column(name = "average_speed")
+    private double averageSpeed;
+
+    @Column(name = "spilled_at", nullable = false)
+    private Instant spilledAt;
+
+    SpilledTrainingEvent(final TrainingSnapshot training, final Instant spilledAt) {
+        this.trainingId = training.trainingId();
+        this.userId = training.userId();
+        this.activityType = training.activityType();
+        this.startTime = training.startTime();
+        this.endTime = training.endTime();
+        this.distance = training.distance();
+        this.averageSpeed = training.averageSpeed();
+        this.spilledAt = spilledAt;
+    }
+
+    TrainingSnapshot toSnapshot() {
+        return new TrainingSnapshot(trainingId, userId, activityType, startTime, endTime, distance, averageSpeed);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface SpilledTrainingEventRepository extends JpaRepository<SpilledTrainingEvent, Long> {
+
+    List<SpilledTrainingEvent> findByOrderById(Limit limit);
+
+}
@@ -1,43 +1,78 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
 import com.capgemini.wsb.fitnesstracker.training.internal.TrainingMapper;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserExistsException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
 import com.capgemini.wsb.fitnesstracker.user.internal.UserDto;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/v1/trainings")
+@Timed(value = "training.controller", histogram = true)
 @RequiredArgsConstructor
 public class TrainingController {
 
     private final TrainingService trainingService;
     private final TrainingMapper trainingMapper;
+    private final UserProvider userProvider;
 
     /**
-     * Get all trainings
-     * @return list of all trainings
+     * Get one page of all trainings, ordered by id
+     * @param cursor cursor returned with the previous page, absent for the first page
+     * @param limit maximal number of trainings on the page
+     * @param format {@code FULL} (default) or {@code COMPACT}, see {@link TrainingListFormat}
+     * @return page of trainings
      */
     @GetMapping("/training/list")
-    public List<TrainingDto> getAllUsersSummary() {
-        return trainingService.findAllTrainings();
+    public ResponseEntity<Object> getAllUsersSummary(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+                                                     @RequestParam(defaultValue = "FULL") TrainingListFormat format) {
+        return ResponseEntity.ok(format.render(trainingService.findAllTrainings(cursor, limit)));
     }
 
+    /**
+     * Get one page of trainings of the user, ordered by id. The ETag combines the version of the trainings of the user
+     * with the version of the user embedded in every training; if it matches the {@code If-None-Match} header, a not
+     * modified status is returned without querying the trainings.
+     * @param userId user id
+     * @param cursor cursor returned with the previous page, absent for the first page
+     * @param limit maximal number of trainings on the page
+     * @param format {@code FULL} (default) or {@code COMPACT}, see {@link TrainingListFormat}
+     * @param request request, checked for the {@code If-None-Match} header
+     * @return page of trainings, or null if the client's copy is still current
+     */
     @GetMapping("/training/user/{userId}")
-    public List<TrainingDto> getTrainingsByUserId(@PathVariable Long userId) {
-        return trainingService.findTrainingsByUserId(userId);
+    public ResponseEntity<Object> getTrainingsByUserId(@PathVariable Long userId,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+                                                       @RequestParam(defaultValue = "FULL") TrainingListFormat format,
+                                                       WebRequest request) {
+        Optional<User> user = userProvider.getUser(userId);
+        if (user.isEmpty()) {
+            return ResponseEntity.ok(format.render(trainingService.findTrainingsByUserId(userId, cursor, limit)));
+        }
+        String eTag = trainingService.getTrainingsVersion(userId) + "." + user.get().getVersion();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(format.render(trainingService.findTrainingsByUserId(userId, cursor, limit)));
     }
 
     @PostMapping("/training")
@@ -45,22 +80,71 @@ public class TrainingController {
         return ResponseEntity.ok(trainingService.createTraining(trainingDto));
     }
 
+    /**
+     * Create many trainings at once, e.g. when a device synchronizes its history
+     * @param trainingDtos trainings to be created
+     * @return outcome of every training; invalid trainings are reported without rejecting the others
+     */
+    @PostMapping("/training/bulk")
+    public ResponseEntity<BulkTrainingResultDto> addTrainings(@RequestBody List<TrainingDto> trainingDtos) {
+        return ResponseEntity.ok(trainingService.createTrainings(trainingDtos));
+    }
+
+    /**
+     * Get trainings which ended after the given date, optionally before an upper bound and for a user or activity type
+     * @param endDate exclusive lower bound of the end date, formatted as {@code yyyy-MM-dd'T'HH:mm:ss'Z'}
+     * @param endBefore exclusive upper bound of the end date, same format as {@code endDate}
+     * @param userId id of the user owning the trainings
+     * @param activityType activity type of the trainings
+     * @param cursor cursor returned with the previous page, absent for the first page
+     * @param limit maximal number of trainings on the page
+     * @param format {@code FULL} (default) or {@code COMPACT}, see {@link TrainingListFormat}
+     * @return page of matching trainings ordered by end date
+     */
     @GetMapping("/trainings/ended")
-    public ResponseEntity<List<TrainingDto>> getAllTrainingsEndedAfter(@RequestParam String endDate) {
+    public ResponseEntity<Object> getAllTrainingsEndedAfter(@RequestParam String endDate,
+                                                            @RequestParam(required = false) String endBefore,
+                                                            @RequestParam(required = false) Long userId,
+                                                            @RequestParam(required = false) ActivityType activityType,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+                                                            @RequestParam(defaultValue = "FULL") TrainingListFormat format) {
         try {
             SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
             Date end = formatter.parse(endDate);
-            List<TrainingDto> trainings = trainingService.findTrainingsEndedAfter(end);
-            return ResponseEntity.ok(trainings);
+            Date before = endBefore != null ? formatter.parse(endBefore) : null;
+            CursorPage<TrainingDto> trainings = trainingService.findTrainingsEndedBetween(end, before, userId, activityType, cursor, limit);
+            return ResponseEntity.ok(format.render(trainings));
         } catch (ParseException e) {
             return ResponseEntity.badRequest().body(null); // Or handle the parse exception more gracefully
         }
     }
 
+    /**
+     * Get one page of trainings of the activity type, ordered by id
+     * @param activityType activity type
+     * @param cursor cursor returned with the previous page, absent for the first page
+     * @param limit maximal number of trainings on the page
+     * @param format {@code FULL} (default) or {@code COMPACT}, see {@link TrainingListFormat}
+     * @return page of trainings
+     */
     @GetMapping("/trainings/by-activity")
-    public ResponseEntity<List<TrainingDto>> getAllTrainingsByActivityType(@RequestParam ActivityType activityType) {
-        List<TrainingDto> trainings = trainingService.findTrainingsByActivityType(activityType);
-        return ResponseEntity.ok(trainings);
+    public ResponseEntity<Object> getAllTrainingsByActivityType(@RequestParam ActivityType activityType,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit,
+                                                                @RequestParam(defaultValue = "FULL") TrainingListFormat format) {
+        CursorPage<TrainingDto> trainings = trainingService.findTrainingsByActivityType(activityType, cursor, limit);
+        return ResponseEntity.ok(format.render(trainings));
+    }
+
+    /**
+     * Delete training
+     * @param id training id
+     * @return OK if the training was deleted, not found if it does not exist
+     */
+    @DeleteMapping("/trainings/{id}")
+    public ResponseEntity<Void> deleteTraining(@PathVariable Long id) {
+        return trainingService.deleteTraining(id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 
     @PatchMapping("/trainings/{id}")
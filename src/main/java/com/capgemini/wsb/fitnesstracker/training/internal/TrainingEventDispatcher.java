@@ -0,0 +1,269 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers committed {@link TrainingCompletedEvent}s to all {@link TrainingCompletedListener}s on a bounded thread
+ * pool, so the listeners run outside of the request which recorded the training. The events of a transaction are
+ * queued together once it committed.
+ * <p>
+ * When the queue is full, the configured {@link TrainingProperties.OverflowPolicy} decides whether the committing
+ * thread waits, the event is dropped, or it is spilled to the {@code training_event_spill} table, in one batch with
+ * the other overflowing events of its transaction, and queued again by {@link #drainSpill()} once there is room. On shutdown, events still queued are spilled as well under the
+ * spill policy.
+ * <p>
+ * Metrics: {@code training.events.queue.depth} (gauge), {@code training.events.queue.wait} (time between commit
+ * and delivery), {@code training.events.handler} (latency per listener), {@code training.events.overflow}
+ * (overflowed events per policy) and {@code training.events.failures} (failed listener invocations).
+ */
+@Component
+@Slf4j
+class TrainingEventDispatcher {
+
+    private final List<TrainingCompletedListener> listeners;
+    private final SpilledTrainingEventRepository spillRepository;
+    private final TrainingProperties.Events properties;
+    private final TransactionTemplate newTransaction;
+    private final ThreadPoolExecutor executor;
+    private final Clock clock = Clock.systemUTC();
+
+    private final Timer queueWait;
+    private final Map<TrainingCompletedListener, Timer> handlerLatency;
+    private final Counter overflow;
+    private final Counter failures;
+
+    TrainingEventDispatcher(final List<TrainingCompletedListener> listeners,
+                            final SpilledTrainingEventRepository spillRepository,
+                            final TrainingProperties trainingProperties,
+                            final PlatformTransactionManager transactionManager,
+                            final MeterRegistry meterRegistry) {
+        this.listeners = listeners;
+        this.spillRepository = spillRepository;
+        this.properties = trainingProperties.getEvents();
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                                               runnable -> new Thread(runnable, "training-events-" + threadNumber.incrementAndGet()),
+                                               new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+
+        Gauge.builder("training.events.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Training completed events waiting for delivery")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("training.events.queue.wait")
+                .description("Time between the commit of a training and the delivery of its event")
+                .register(meterRegistry);
+        this.handlerLatency = listeners.stream().collect(Collectors.toMap(Function.identity(), listener ->
+                Timer.builder("training.events.handler")
+                        .description("Latency of a training completed listener")
+                        .tag("listener", listener.getClass().getSimpleName())
+                        .register(meterRegistry)));
+        this.overflow = Counter.builder("training.events.overflow")
+                .description("Training completed events which did not fit into the queue")
+                .tag("policy", properties.getOverflowPolicy().name())
+                .register(meterRegistry);
+        this.failures = Counter.builder("training.events.failures")
+                .description("Training completed listener invocations which threw an exception")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onTrainingCompleted(TrainingCompletedEvent event) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(List.of(event));
+            return;
+        }
+        completedEvents().add(event);
+    }
+
+    /**
+     * @return events completed by the current transaction, dispatched together once it committed
+     */
+    private List<TrainingCompletedEvent> completedEvents() {
+        @SuppressWarnings("unchecked")
+        List<TrainingCompletedEvent> completed = (List<TrainingCompletedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (completed != null) {
+            return completed;
+        }
+        List<TrainingCompletedEvent> newCompleted = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, newCompleted);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TrainingEventDispatcher.this);
+                if (status == STATUS_COMMITTED) {
+                    dispatch(newCompleted);
+                }
+            }
+        });
+        return newCompleted;
+    }
+
+    /**
+     * Queues the events of one committed transaction. Under the spill policy, all events which did not fit into the
+     * queue are spilled together, in one transaction.
+     */
+    private void dispatch(List<TrainingCompletedEvent> events) {
+        List<Delivery> overflowing = new ArrayList<>();
+        for (TrainingCompletedEvent event : events) {
+            Delivery delivery = new Delivery(event, System.nanoTime());
+            if (tryEnqueue(delivery)) {
+                continue;
+            }
+            overflow.increment();
+            switch (properties.getOverflowPolicy()) {
+                case BLOCK -> enqueueBlocking(delivery);
+                case DROP -> log.warn("Training event queue is full, dropping event of training {}", event.training().trainingId());
+                case SPILL -> overflowing.add(delivery);
+            }
+        }
+        if (!overflowing.isEmpty()) {
+            spill(overflowing);
+        }
+    }
+
+    /**
+     * Moves spilled events back to the queue as long as there is room in it, oldest first.
+     */
+    @Scheduled(fixedDelayString = "${training.events.spill-drain-interval:PT5S}")
+    void drainSpill() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        int room = executor.getQueue().remainingCapacity();
+        while (room > 0) {
+            List<SpilledTrainingEvent> spilled = spillRepository.findByOrderById(Limit.of(Math.min(room, properties.getSpillDrainBatchSize())));
+            if (spilled.isEmpty()) {
+                return;
+            }
+            List<Long> queued = new ArrayList<>(spilled.size());
+            for (SpilledTrainingEvent event : spilled) {
+                if (!tryEnqueue(new Delivery(new TrainingCompletedEvent(event.toSnapshot()), System.nanoTime()))) {
+                    break;
+                }
+                queued.add(event.getId());
+            }
+            spillRepository.deleteAllByIdInBatch(queued);
+            if (queued.size() < spilled.size()) {
+                return;
+            }
+            room = executor.getQueue().remainingCapacity();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        List<Runnable> pending = executor.shutdownNow();
+        if (properties.getOverflowPolicy() == TrainingProperties.OverflowPolicy.SPILL && !pending.isEmpty()) {
+            spill(pending.stream().map(Delivery.class::cast).toList());
+        } else if (!pending.isEmpty()) {
+            log.warn("{} training events were not delivered before shutdown", pending.size());
+        }
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private boolean tryEnqueue(Delivery delivery) {
+        try {
+            executor.execute(delivery);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void enqueueBlocking(Delivery delivery) {
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        try {
+            queue.put(delivery);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for room in the training event queue, dropping event of training {}",
+                     delivery.event().training().trainingId());
+        }
+    }
+
+    private void spill(List<Delivery> deliveries) {
+        newTransaction.executeWithoutResult(status -> spillRepository.saveAll(deliveries.stream()
+                .map(delivery -> new SpilledTrainingEvent(delivery.event().training(), clock.instant()))
+                .toList()));
+    }
+
+    private void deliver(Delivery delivery) {
+        queueWait.record(System.nanoTime() - delivery.enqueuedAt(), TimeUnit.NANOSECONDS);
+        for (TrainingCompletedListener listener : listeners) {
+            long start = System.nanoTime();
+            try {
+                listener.onTrainingCompleted(delivery.event());
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Training completed listener {} failed for training {}",
+                          listener.getClass().getSimpleName(), delivery.event().training().trainingId(), e);
+            } finally {
+                handlerLatency.get(listener).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Queued delivery of one event, kept as a named type so undelivered events can be spilled on shutdown.
+     */
+    private final class Delivery implements Runnable {
+
+        private final TrainingCompletedEvent event;
+        private final long enqueuedAt;
+
+        private Delivery(TrainingCompletedEvent event, long enqueuedAt) {
+            this.event = event;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        TrainingCompletedEvent event() {
+            return event;
+        }
+
+        long enqueuedAt() {
+            return enqueuedAt;
+        }
+
+        @Override
+        public void run() {
+            deliver(this);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Bulk export of the training history as newline delimited JSON, for downstream analytics.
+ * The response is written while the trainings are read, so it is never held in memory as a whole.
+ */
+@RestController
+@RequestMapping("/v1/trainings/export")
+@RequiredArgsConstructor
+public class TrainingExportController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final TrainingExporter trainingExporter;
+    private final UserProvider userProvider;
+
+    /**
+     * Export all trainings, ordered by id
+     * @param response response the trainings are written to
+     */
+    @GetMapping(produces = NDJSON)
+    public void exportAllTrainings(HttpServletResponse response) throws IOException {
+        prepare(response, "trainings.ndjson");
+        trainingExporter.export(null, response.getOutputStream());
+    }
+
+    /**
+     * Export all trainings of the user, ordered by id
+     * @param userId user id
+     * @param response response the trainings are written to
+     */
+    @GetMapping(value = "/user/{userId}", produces = NDJSON)
+    public void exportTrainingsOfUser(@PathVariable Long userId, HttpServletResponse response) throws IOException {
+        if (userProvider.getUser(userId).isEmpty()) {
+            throw new UserNotFoundException(userId);
+        }
+        prepare(response, "trainings-user-%d.ndjson".formatted(userId));
+        trainingExporter.export(userId, response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, String fileName) {
+        response.setContentType(NDJSON);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"%s\"".formatted(fileName));
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Writes trainings as newline delimited JSON (one {@link TrainingDto} per line).
+ * Rows are streamed from the database and written one by one, and the persistence context is cleared after every
+ * fetched batch, so the heap use does not depend on the number of exported trainings.
+ */
+@Component
+@Slf4j
+public class TrainingExporter {
+
+    private final TrainingRepository trainingRepository;
+    private final TrainingMapper trainingMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter writer;
+
+    TrainingExporter(final TrainingRepository trainingRepository,
+                     final TrainingMapper trainingMapper,
+                     final EntityManager entityManager,
+                     final PlatformTransactionManager transactionManager,
+                     final ObjectMapper objectMapper) {
+        this.trainingRepository = trainingRepository;
+        this.trainingMapper = trainingMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writer = objectMapper.writerFor(TrainingDto.class)
+                                  .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                                  .withRootValueSeparator("\n");
+    }
+
+    /**
+     * Exports trainings of one user, or of all users, to the given stream. The stream is flushed but not closed.
+     *
+     * @param userId id of the user whose trainings are exported, all trainings if null
+     * @param out stream the NDJSON lines are written to
+     * @return number of exported trainings
+     */
+    public long export(@Nullable Long userId, OutputStream out) {
+        Long exported = readOnlyTransaction.execute(status -> {
+            try (Stream<Training> trainings = userId != null
+                    ? trainingRepository.streamByUserId(userId)
+                    : trainingRepository.streamAll();
+                 SequenceWriter lines = writer.writeValues(out)) {
+                long count = 0;
+                for (Training training : (Iterable<Training>) trainings::iterator) {
+                    lines.write(trainingMapper.toDto(training));
+                    if (++count % TrainingRepository.STREAM_FETCH_SIZE == 0) {
+                        entityManager.clear();
+                        lines.flush();
+                    }
+                }
+                lines.flush();
+                if (count > 0) {
+                    out.write('\n');
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} trainings", exported);
+        return exported;
+    }
+
+}
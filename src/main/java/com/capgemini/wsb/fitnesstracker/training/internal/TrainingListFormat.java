@@ -0,0 +1,36 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+
+/**
+ * Response format of the training listings, chosen by the client with the {@code format} request parameter.
+ */
+public enum TrainingListFormat {
+
+    /**
+     * {@link CursorPage} of {@link TrainingDto}s, every training embeds its user and the dates are ISO-8601 strings.
+     */
+    FULL {
+        @Override
+        Object render(CursorPage<TrainingDto> page) {
+            return page;
+        }
+    },
+
+    /**
+     * {@link CompactTrainingPage}, every referenced user is included once and the dates are epoch milliseconds.
+     */
+    COMPACT {
+        @Override
+        Object render(CursorPage<TrainingDto> page) {
+            return CompactTrainingPage.of(page);
+        }
+    };
+
+    /**
+     * @param page page of trainings
+     * @return response body of the page in this format
+     */
+    abstract Object render(CursorPage<TrainingDto> page);
+
+}
@@ -1,6 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
 import com.capgemini.wsb.fitnesstracker.user.internal.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -37,4 +38,14 @@ public class TrainingMapper {
                             trainingDto.getAverageSpeed()
         );
     }
+
+    TrainingSnapshot toSnapshot(TrainingDto trainingDto) {
+        return new TrainingSnapshot(trainingDto.getId(),
+                                    trainingDto.getUser().getId(),
+                                    trainingDto.getActivityType(),
+                                    trainingDto.getStartTime(),
+                                    trainingDto.getEndTime(),
+                                    trainingDto.getDistance(),
+                                    trainingDto.getAverageSpeed());
+    }
 }
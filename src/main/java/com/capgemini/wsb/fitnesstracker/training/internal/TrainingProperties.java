@@ -0,0 +1,113 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the training module.
+ */
+@ConfigurationProperties(prefix = "training")
+@Getter
+class TrainingProperties {
+
+    /**
+     * Limits of the bulk training ingestion.
+     */
+    private final Bulk bulk;
+
+    /**
+     * Asynchronous delivery of training completed events.
+     */
+    private final Events events;
+
+    TrainingProperties(@DefaultValue final Bulk bulk,
+                       @DefaultValue final Events events) {
+        this.bulk = bulk;
+        this.events = events;
+    }
+
+    @Getter
+    static class Bulk {
+
+        /**
+         * Maximal number of trainings accepted in one bulk request.
+         */
+        private final int maxItems;
+
+        /**
+         * Number of inserted trainings after which the persistence context is flushed and cleared.
+         * Should be a multiple of the JDBC batch size.
+         */
+        private final int flushInterval;
+
+        Bulk(@DefaultValue("5000") final int maxItems,
+             @DefaultValue("500") final int flushInterval) {
+            this.maxItems = maxItems;
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    @Getter
+    static class Events {
+
+        /**
+         * Number of threads delivering events to the listeners.
+         */
+        private final int threads;
+
+        /**
+         * Maximal number of events waiting for delivery in memory.
+         */
+        private final int queueCapacity;
+
+        /**
+         * What happens to an event when the queue is full.
+         */
+        private final OverflowPolicy overflowPolicy;
+
+        /**
+         * Delay between two attempts to move spilled events back to the queue.
+         */
+        private final Duration spillDrainInterval;
+
+        /**
+         * Maximal number of spilled events moved back to the queue at once.
+         */
+        private final int spillDrainBatchSize;
+
+        Events(@DefaultValue("2") final int threads,
+               @DefaultValue("1000") final int queueCapacity,
+               @DefaultValue("SPILL") final OverflowPolicy overflowPolicy,
+               @DefaultValue("PT5S") final Duration spillDrainInterval,
+               @DefaultValue("500") final int spillDrainBatchSize) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.overflowPolicy = overflowPolicy;
+            this.spillDrainInterval = spillDrainInterval;
+            this.spillDrainBatchSize = spillDrainBatchSize;
+        }
+    }
+
+    enum OverflowPolicy {
+
+        /**
+         * The committing thread waits until there is room in the queue.
+         */
+        BLOCK,
+
+        /**
+         * The event is discarded and counted.
+         */
+        DROP,
+
+        /**
+         * The event is stored in the {@code training_event_spill} table and queued again once there is room.
+         */
+        SPILL
+
+    }
+
+}
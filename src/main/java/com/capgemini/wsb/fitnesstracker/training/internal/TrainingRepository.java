@@ -1,15 +1,169 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
-import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Repository of {@link Training} entities.
+ * All listing queries fetch the owning user in the same statement, so mapping the results to {@link TrainingDto}
+ * does not issue an additional select per user.
+ * The hot finders by user and by activity type are served from the query cache until the next write to the
+ * trainings table. The streaming queries bypass the second-level cache, so full scans neither read stale entries
+ * nor evict the hot ones.
+ */
 public interface TrainingRepository extends JpaRepository<Training, Long> {
-    List<Training> findByUser(Optional<User> user);
 
+    /**
+     * Number of rows fetched from the database per round trip by the streaming queries.
+     */
+    int STREAM_FETCH_SIZE = 1000;
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Training> findAll();
+
+    @EntityGraph(attributePaths = "user")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Training> findByUserId(Long userId);
+
+    @EntityGraph(attributePaths = "user")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Training> findByActivityType(ActivityType activityType);
+
+    /**
+     * Keyset page of trainings ordered by id.
+     *
+     * @param afterId id of the last training of the previous page, 0 for the first page
+     * @param limit maximal number of trainings
+     * @return trainings with id greater than {@code afterId}
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByIdGreaterThanOrderById(long afterId, Limit limit);
+
+    /**
+     * Keyset page of trainings of the user ordered by id.
+     *
+     * @param userId id of the user owning the trainings
+     * @param afterId id of the last training of the previous page, 0 for the first page
+     * @param limit maximal number of trainings
+     * @return trainings of the user with id greater than {@code afterId}
+     */
+    @EntityGraph(attributePaths = "user")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Training> findByUserIdAndIdGreaterThanOrderById(Long userId, long afterId, Limit limit);
+
+    /**
+     * Keyset page of trainings of the activity type ordered by id.
+     *
+     * @param activityType activity type of the trainings
+     * @param afterId id of the last training of the previous page, 0 for the first page
+     * @param limit maximal number of trainings
+     * @return trainings of the activity type with id greater than {@code afterId}
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByActivityTypeAndIdGreaterThanOrderById(ActivityType activityType, long afterId, Limit limit);
+
+    /**
+     * Query searching trainings which ended within the given time range, served by the index on {@code end_time}.
+     * All filter parameters except the lower bound are optional and ignored when {@code null}.
+     * Results are paged by the {@code (end_time, id)} keyset.
+     *
+     * @param endAfter exclusive lower bound of the training end time
+     * @param endBefore exclusive upper bound of the training end time
+     * @param userId id of the user owning the trainings
+     * @param activityType activity type of the trainings
+     * @param afterEndTime end time of the last training of the previous page, {@code endAfter} for the first page
+     * @param afterId id of the last training of the previous page, 0 for the first page
+     * @param limit maximal number of trainings
+     * @return trainings matching all given criteria, ordered by end time and id
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("""
+            select t from Training t
+            where t.endTime > :endAfter
+              and (cast(:endBefore as timestamp) is null or t.endTime < :endBefore)
+              and (:userId is null or t.user.id = :userId)
+              and (:activityType is null or t.activityType = :activityType)
+              and t.endTime >= :afterEndTime and (t.endTime > :afterEndTime or t.id > :afterId)
+            order by t.endTime, t.id
+            """)
+    List<Training> findEndedBetween(@Param("endAfter") Date endAfter,
+                                    @Param("endBefore") @Nullable Date endBefore,
+                                    @Param("userId") @Nullable Long userId,
+                                    @Param("activityType") @Nullable ActivityType activityType,
+                                    @Param("afterEndTime") Date afterEndTime,
+                                    @Param("afterId") long afterId,
+                                    Limit limit);
+
+    /**
+     * Streams all trainings ordered by id, fetching {@link #STREAM_FETCH_SIZE} rows per round trip.
+     * Has to be consumed inside a transaction and closed afterwards.
+     *
+     * @return stream of read-only trainings with their users
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true"),
+                 @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("select t from Training t join fetch t.user order by t.id")
+    Stream<Training> streamAll();
+
+    /**
+     * Streams all trainings of the user ordered by id, fetching {@link #STREAM_FETCH_SIZE} rows per round trip.
+     * Has to be consumed inside a transaction and closed afterwards.
+     *
+     * @param userId id of the user owning the trainings
+     * @return stream of read-only trainings with their users
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true"),
+                 @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("select t from Training t join fetch t.user where t.user.id = :userId order by t.id")
+    Stream<Training> streamByUserId(@Param("userId") Long userId);
+
+    /**
+     * Query searching trainings of one user and activity type by start time, served by the index on
+     * {@code (user_id, start_time)}. The user is not fetched.
+     *
+     * @param userId id of the user owning the trainings
+     * @param activityType activity type of the trainings
+     * @param startedFrom inclusive lower bound of the start time
+     * @param startedBefore exclusive upper bound of the start time
+     * @return matching trainings
+     */
+    @Query("""
+            select t from Training t
+            where t.user.id = :userId
+              and t.activityType = :activityType
+              and t.startTime >= :startedFrom and t.startTime < :startedBefore
+            """)
+    List<Training> findStartedBetween(@Param("userId") Long userId,
+                                      @Param("activityType") ActivityType activityType,
+                                      @Param("startedFrom") Date startedFrom,
+                                      @Param("startedBefore") Date startedBefore);
+
+    /**
+     * Query searching all trainings of the given users. The users are not fetched.
+     *
+     * @param userIds ids of the users owning the trainings
+     * @return trainings of the users
+     */
+    @Query("select t from Training t where t.user.id in :userIds")
+    List<Training> findOfUsers(@Param("userIds") Collection<Long> userIds);
 }
@@ -1,30 +1,63 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.pagination.api.PageCursor;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedEvent;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
 import com.capgemini.wsb.fitnesstracker.user.internal.UserDto;
 import com.capgemini.wsb.fitnesstracker.user.internal.UserMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.capgemini.wsb.fitnesstracker.training.internal.TrainingStepTimers.DB;
+import static com.capgemini.wsb.fitnesstracker.training.internal.TrainingStepTimers.MAPPING;
+import static com.capgemini.wsb.fitnesstracker.training.internal.TrainingStepTimers.VALIDATION;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "training.service", histogram = true)
 @Slf4j
 public class TrainingServiceImpl implements TrainingProvider, TrainingService {
 
+    private static final String CREATE = "createTraining";
+    private static final String FIND_BY_USER = "findTrainingsByUserId";
+
     private final TrainingRepository trainingRepository;
     private final TrainingMapper trainingMapper;
     private final UserService userService;
     private final UserMapper userMapper;
+    private final TrainingProperties trainingProperties;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TrainingStepTimers stepTimers;
+    private final UserTrainingsVersionRepository trainingsVersionRepository;
 
     /**
      * Get training by id
@@ -36,6 +69,51 @@ public class TrainingServiceImpl implements TrainingProvider, TrainingService {
         throw new UnsupportedOperationException("Not finished yet");
     }
 
+    /**
+     * Pass every training to the consumer, streaming them from the database in batches
+     * @param consumer consumer of the trainings
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTraining(Consumer<TrainingSnapshot> consumer) {
+        try (Stream<Training> trainings = trainingRepository.streamAll()) {
+            long count = 0;
+            for (Training training : (Iterable<Training>) trainings::iterator) {
+                consumer.accept(TrainingSnapshot.of(training));
+                if (++count % TrainingRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Find all trainings of the users
+     * @param userIds ids of the users
+     * @return trainings of the users
+     */
+    @Override
+    public List<TrainingSnapshot> findTrainingsOfUsers(Collection<Long> userIds) {
+        return trainingRepository.findOfUsers(userIds).stream()
+                .map(TrainingSnapshot::of)
+                .toList();
+    }
+
+    /**
+     * Find trainings of the user and activity type which started within the time range
+     * @param userId user id
+     * @param activityType activity type
+     * @param startedFrom inclusive lower bound of the start time
+     * @param startedBefore exclusive upper bound of the start time
+     * @return matching trainings
+     */
+    @Override
+    public List<TrainingSnapshot> findTrainingsStartedBetween(Long userId, ActivityType activityType, Date startedFrom, Date startedBefore) {
+        return trainingRepository.findStartedBetween(userId, activityType, startedFrom, startedBefore).stream()
+                .map(TrainingSnapshot::of)
+                .toList();
+    }
+
     /**
      * Find all trainings
      * @return list of trainings
@@ -48,20 +126,64 @@ public class TrainingServiceImpl implements TrainingProvider, TrainingService {
     }
 
     /**
-     * Find all trainings by user id
+     * Find one page of all trainings, ordered by id
+     * @param cursor cursor returned with the previous page, null for the first page
+     * @param limit maximal number of trainings on the page
+     * @return page of trainings
+     */
+    @Override
+    public CursorPage<TrainingDto> findAllTrainings(@Nullable String cursor, int limit) {
+        List<Training> trainings = trainingRepository.findByIdGreaterThanOrderById(afterId(cursor), lookahead(limit));
+        return CursorPage.fromLookahead(trainings, limit, training -> PageCursor.ofId(training.getId()))
+                .map(trainingMapper::toDto);
+    }
+
+    /**
+     * Find all trainings by user id. The user is only looked up separately when they have no trainings.
      * @param userId user id
      * @return list of trainings
      */
     @Override
     public List<TrainingDto> findTrainingsByUserId(Long userId) {
-        Optional<User> user = userService.getUser(userId);
-        if (user.isEmpty()) {
-            throw new IllegalArgumentException("User with id " + userId + " not found");
+        List<Training> trainings = stepTimers.record(FIND_BY_USER, DB, () -> trainingRepository.findByUserId(userId));
+        if (trainings.isEmpty()) {
+            stepTimers.record(FIND_BY_USER, VALIDATION, () -> getValidatedUser(userId));
         }
 
-        return trainingRepository.findByUser(user).stream()
+        return stepTimers.record(FIND_BY_USER, MAPPING, () -> trainings.stream()
                 .map(trainingMapper::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Find one page of trainings of the user, ordered by id. The user is only looked up separately when the page is empty.
+     * @param userId user id
+     * @param cursor cursor returned with the previous page, null for the first page
+     * @param limit maximal number of trainings on the page
+     * @return page of trainings
+     */
+    @Override
+    public CursorPage<TrainingDto> findTrainingsByUserId(Long userId, @Nullable String cursor, int limit) {
+        List<Training> trainings = stepTimers.record(FIND_BY_USER, DB, () ->
+                trainingRepository.findByUserIdAndIdGreaterThanOrderById(userId, afterId(cursor), lookahead(limit)));
+        if (trainings.isEmpty()) {
+            stepTimers.record(FIND_BY_USER, VALIDATION, () -> getValidatedUser(userId));
+        }
+
+        return stepTimers.record(FIND_BY_USER, MAPPING, () ->
+                CursorPage.fromLookahead(trainings, limit, training -> PageCursor.ofId(training.getId()))
+                        .map(trainingMapper::toDto));
+    }
+
+    /**
+     * Get the version of the trainings of the user, changing with every committed creation, update or deletion of
+     * any of them, with a single primary key lookup
+     * @param userId user id
+     * @return version of the trainings of the user, 0 if they never changed
+     */
+    @Override
+    public long getTrainingsVersion(Long userId) {
+        return trainingsVersionRepository.findVersion(userId).orElse(0L);
     }
 
     /**
@@ -70,17 +192,81 @@ public class TrainingServiceImpl implements TrainingProvider, TrainingService {
      * @return created training dto
      */
     @Override
+    @Transactional
     public TrainingDto createTraining(TrainingDto trainingDto) {
 
-        this.validateTrainingIsNotExists(trainingDto);
-        Optional<User> existedUser = getValidatedUser(trainingDto.getUser().getId());
+        Optional<User> existedUser = stepTimers.record(CREATE, VALIDATION, () -> {
+            this.validateTrainingIsNotExists(trainingDto);
+            return getValidatedUser(trainingDto.getUser().getId());
+        });
 
-        Training newTraining = trainingMapper.toEntity(trainingDto);
-        existedUser.ifPresent(newTraining::setUser);
+        Training training = stepTimers.record(CREATE, DB, () -> {
+            Training newTraining = trainingMapper.toEntity(trainingDto);
+            existedUser.ifPresent(newTraining::setUser);
 
-        Training training = trainingRepository.save(newTraining);
+            Training saved = trainingRepository.save(newTraining);
+            TrainingSnapshot snapshot = TrainingSnapshot.of(saved);
+            eventPublisher.publishEvent(TrainingChangedEvent.created(snapshot));
+            eventPublisher.publishEvent(new TrainingCompletedEvent(snapshot));
+            return saved;
+        });
 
-        return  trainingMapper.toDto(training);
+        return stepTimers.record(CREATE, MAPPING, () -> trainingMapper.toDto(training));
+    }
+
+    /**
+     * Create many trainings at once. All referenced users are validated with a single query and the trainings are
+     * inserted in JDBC batches. Invalid trainings are reported in the result and do not abort the others.
+     * Ids sent with the trainings are ignored, every training is created as a new one.
+     * @param trainingDtos trainings to be created
+     * @return outcome of every training, in the order of the request
+     */
+    @Override
+    @Transactional
+    public BulkTrainingResultDto createTrainings(List<TrainingDto> trainingDtos) {
+        TrainingProperties.Bulk bulk = trainingProperties.getBulk();
+        if (trainingDtos.size() > bulk.getMaxItems()) {
+            throw new BusinessException("At most %d trainings can be created at once".formatted(bulk.getMaxItems()));
+        }
+
+        Set<Long> userIds = trainingDtos.stream()
+                .map(dto -> dto.getUser() != null ? dto.getUser().getId() : null)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = userService.findUsersByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<BulkTrainingItemDto> items = new ArrayList<>(trainingDtos.size());
+        int created = 0;
+        for (int index = 0; index < trainingDtos.size(); index++) {
+            TrainingDto dto = trainingDtos.get(index);
+            String error = validateBulkTraining(dto, users);
+            if (error != null) {
+                items.add(BulkTrainingItemDto.failed(index, error));
+                continue;
+            }
+
+            Training training = new Training(users.get(dto.getUser().getId()),
+                                             dto.getStartTime(),
+                                             dto.getEndTime(),
+                                             dto.getActivityType(),
+                                             dto.getDistance(),
+                                             dto.getAverageSpeed());
+            entityManager.persist(training);
+            TrainingSnapshot snapshot = TrainingSnapshot.of(training);
+            eventPublisher.publishEvent(TrainingChangedEvent.created(snapshot));
+            eventPublisher.publishEvent(new TrainingCompletedEvent(snapshot));
+            items.add(BulkTrainingItemDto.created(index, training.getId()));
+
+            if (++created % bulk.getFlushInterval() == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+
+        log.info("Bulk created {} trainings, rejected {}", created, trainingDtos.size() - created);
+        return new BulkTrainingResultDto(created, trainingDtos.size() - created, items);
     }
 
     /**
@@ -90,12 +276,54 @@ public class TrainingServiceImpl implements TrainingProvider, TrainingService {
      */
     @Override
     public List<TrainingDto> findTrainingsEndedAfter(Date endDate) {
-        List<Training> trainings = trainingRepository.findAll();
+        return findTrainingsEndedBetween(endDate, null, null, null);
+    }
 
-        return trainings.stream()
-                .filter(training -> training.getEndTime() != null && training.getEndTime().after(endDate))
+    /**
+     * Find all trainings that ended within the provided time range, optionally narrowed to a user and activity type.
+     * Filtering is done by the database, so the cost depends on the result size only.
+     * @param endAfter exclusive lower bound of the end date
+     * @param endBefore exclusive upper bound of the end date, no upper bound if null
+     * @param userId id of the user, all users if null
+     * @param activityType activity type, all activity types if null
+     * @return list of trainings ordered by end date
+     */
+    @Override
+    public List<TrainingDto> findTrainingsEndedBetween(Date endAfter,
+                                                       @Nullable Date endBefore,
+                                                       @Nullable Long userId,
+                                                       @Nullable ActivityType activityType) {
+        return trainingRepository.findEndedBetween(endAfter, endBefore, userId, activityType, endAfter, 0L, Limit.unlimited()).stream()
                 .map(trainingMapper::toDto)
-                .collect(Collectors.toList());
+                .toList();
+    }
+
+    /**
+     * Find one page of trainings that ended within the provided time range, ordered by end date
+     * @param endAfter exclusive lower bound of the end date
+     * @param endBefore exclusive upper bound of the end date, no upper bound if null
+     * @param userId id of the user, all users if null
+     * @param activityType activity type, all activity types if null
+     * @param cursor cursor returned with the previous page, null for the first page
+     * @param limit maximal number of trainings on the page
+     * @return page of trainings
+     */
+    @Override
+    public CursorPage<TrainingDto> findTrainingsEndedBetween(Date endAfter,
+                                                             @Nullable Date endBefore,
+                                                             @Nullable Long userId,
+                                                             @Nullable ActivityType activityType,
+                                                             @Nullable String cursor,
+                                                             int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        Date afterEndTime = after != null ? after.key(key -> new Date(Long.parseLong(key))) : endAfter;
+        long afterId = after != null ? after.id() : 0L;
+
+        List<Training> trainings = trainingRepository.findEndedBetween(endAfter, endBefore, userId, activityType,
+                                                                       afterEndTime, afterId, lookahead(limit));
+        return CursorPage.fromLookahead(trainings, limit,
+                                        training -> new PageCursor(String.valueOf(training.getEndTime().getTime()), training.getId()))
+                .map(trainingMapper::toDto);
     }
 
     /**
@@ -112,6 +340,20 @@ public class TrainingServiceImpl implements TrainingProvider, TrainingService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Find one page of trainings by activity type, ordered by id
+     * @param activityType activity type
+     * @param cursor cursor returned with the previous page, null for the first page
+     * @param limit maximal number of trainings on the page
+     * @return page of trainings
+     */
+    @Override
+    public CursorPage<TrainingDto> findTrainingsByActivityType(ActivityType activityType, @Nullable String cursor, int limit) {
+        List<Training> trainings = trainingRepository.findByActivityTypeAndIdGreaterThanOrderById(activityType, afterId(cursor), lookahead(limit));
+        return CursorPage.fromLookahead(trainings, limit, training -> PageCursor.ofId(training.getId()))
+                .map(trainingMapper::toDto);
+    }
+
     /**
      * Update training
      * @param id training id
@@ -119,8 +361,10 @@ public class TrainingServiceImpl implements TrainingProvider, TrainingService {
      * @return updated training dto
      */
     @Override
+    @Transactional
     public TrainingDto updateTraining(Long id, TrainingDto trainingDto) {
         TrainingDto existingTraining = this.validateTraining(trainingDto);
+        TrainingSnapshot before = trainingMapper.toSnapshot(existingTraining);
 
         if(trainingDto.getDistance() > 0 && trainingDto.getDistance() != existingTraining.getDistance()){
             existingTraining.setDistance(trainingDto.getDistance());
@@ -147,9 +391,28 @@ public class TrainingServiceImpl implements TrainingProvider, TrainingService {
         }
 
 
-        return trainingMapper.toDto(
-                trainingRepository.save(updatedTraining)
-        );
+        Training savedTraining = trainingRepository.save(updatedTraining);
+        eventPublisher.publishEvent(TrainingChangedEvent.updated(before, TrainingSnapshot.of(savedTraining)));
+
+        return trainingMapper.toDto(savedTraining);
+    }
+
+    /**
+     * Delete training
+     * @param id training id
+     * @return true if the training was deleted, false if it does not exist
+     */
+    @Override
+    @Transactional
+    public boolean deleteTraining(Long id) {
+        Optional<Training> training = trainingRepository.findById(id);
+        if (training.isEmpty()) {
+            return false;
+        }
+
+        trainingRepository.delete(training.get());
+        eventPublisher.publishEvent(TrainingChangedEvent.deleted(TrainingSnapshot.of(training.get())));
+        return true;
     }
 
     /**
@@ -176,6 +439,35 @@ public class TrainingServiceImpl implements TrainingProvider, TrainingService {
         }
     }
 
+    /**
+     * Validate one training of a bulk request
+     * @param dto training dto
+     * @param users users referenced by the bulk request, by id
+     * @return reason of the rejection, or null if the training is valid
+     */
+    @Nullable
+    private static String validateBulkTraining(TrainingDto dto, Map<Long, User> users) {
+        if (dto.getUser() == null || dto.getUser().getId() == null) {
+            return "User id is missing";
+        }
+        if (!users.containsKey(dto.getUser().getId())) {
+            return "User with id " + dto.getUser().getId() + " not found";
+        }
+        if (dto.getStartTime() == null || dto.getEndTime() == null) {
+            return "Start and end time are required";
+        }
+        if (dto.getEndTime().before(dto.getStartTime())) {
+            return "End time is before start time";
+        }
+        if (dto.getActivityType() == null) {
+            return "Activity type is required";
+        }
+        if (dto.getDistance() < 0 || dto.getAverageSpeed() < 0) {
+            return "Distance and average speed cannot be negative";
+        }
+        return null;
+    }
+
     /**
      * Get user by id and validate if exists
      * @param userId user id
@@ -190,4 +482,13 @@ public class TrainingServiceImpl implements TrainingProvider, TrainingService {
         return user;
 
     }
+
+    private static long afterId(@Nullable String cursor) {
+        PageCursor after = PageCursor.decode(cursor);
+        return after != null ? after.id() : 0L;
+    }
+
+    private static Limit lookahead(int limit) {
+        return Limit.of(CursorPage.checkLimit(limit) + 1);
+    }
 }
@@ -0,0 +1,46 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Times the steps of the hot training operations, so a slow operation can be attributed to validation, the database
+ * or the mapping of the results. Published as {@code training.service.steps} with the tags {@code operation} and
+ * {@code step}, including a percentile histogram.
+ */
+@Component
+@RequiredArgsConstructor
+class TrainingStepTimers {
+
+    static final String VALIDATION = "validation";
+    static final String DB = "db";
+    static final String MAPPING = "mapping";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Runs one step of the operation and records its duration.
+     *
+     * @param operation name of the service operation
+     * @param step name of the step within the operation
+     * @param work the step
+     * @return result of the step
+     */
+    <T> T record(final String operation, final String step, final Supplier<T> work) {
+        return timers.computeIfAbsent(operation + '/' + step, key -> Timer.builder("training.service.steps")
+                        .description("Duration of one step of a training service operation")
+                        .tag("operation", operation)
+                        .tag("step", step)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(work);
+    }
+
+}
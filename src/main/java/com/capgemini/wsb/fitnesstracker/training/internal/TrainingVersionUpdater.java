@@ -0,0 +1,91 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Increments the {@link UserTrainingsVersion} of every user whose trainings changed.
+ * <p>
+ * The users are collected per transaction and their versions incremented once, right before it commits, with one
+ * update for all of them, so a bulk ingestion of thousands of trainings increments the version of its user once.
+ * As the increment is part of the transaction of the change, a client reading the new version always finds the
+ * changed trainings.
+ */
+@Component
+class TrainingVersionUpdater {
+
+    private final UserTrainingsVersionRepository versionRepository;
+    private final UserProvider userProvider;
+
+    TrainingVersionUpdater(final UserTrainingsVersionRepository versionRepository, final UserProvider userProvider) {
+        this.versionRepository = versionRepository;
+        this.userProvider = userProvider;
+    }
+
+    @EventListener
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        Set<Long> userIds = changedUsers();
+        if (event.before() != null) {
+            userIds.add(event.before().userId());
+        }
+        if (event.after() != null) {
+            userIds.add(event.after().userId());
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(userIds);
+        }
+    }
+
+    /**
+     * @return users changed by the current transaction, or a new set if there is no transaction
+     */
+    private Set<Long> changedUsers() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashSet<>();
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> changed = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (changed != null) {
+            return changed;
+        }
+        Set<Long> newChanged = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(this, newChanged);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                increment(newChanged);
+                newChanged.clear();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TrainingVersionUpdater.this);
+            }
+        });
+        return newChanged;
+    }
+
+    private void increment(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (versionRepository.increment(userIds) == userIds.size()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(userIds);
+        missing.removeAll(versionRepository.findExisting(userIds));
+        // another transaction may be creating the same versions, wait for it by locking all users of this one;
+        // a version it created meanwhile is incremented twice, which still changes the ETag
+        userProvider.lockUsers(userIds);
+        missing.forEach(versionRepository::upsertIncrement);
+    }
+
+}
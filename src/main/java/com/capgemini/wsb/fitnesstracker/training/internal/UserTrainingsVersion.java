@@ -0,0 +1,24 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Modification counter of the trainings of one user, incremented by every transaction creating, updating or deleting
+ * trainings of the user. Serves as the cheap version of the training list of the user, e.g. for its ETag.
+ */
+@Entity
+@Table(name = "user_trainings_versions")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class UserTrainingsVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+}
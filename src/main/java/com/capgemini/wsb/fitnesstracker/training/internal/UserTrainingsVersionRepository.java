@@ -0,0 +1,51 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+interface UserTrainingsVersionRepository extends JpaRepository<UserTrainingsVersion, Long> {
+
+    @Query("select v.version from UserTrainingsVersion v where v.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") Long userId);
+
+    @Query("select v.userId from UserTrainingsVersion v where v.userId in :userIds")
+    Collection<Long> findExisting(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Increments the versions of the users in a single statement.
+     *
+     * @param userIds ids of the users
+     * @return number of updated rows, lower than the number of users if some of them have no version yet
+     */
+    @Modifying
+    @Query("update UserTrainingsVersion v set v.version = v.version + 1 where v.userId in :userIds")
+    int increment(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Increments the version of the user, creating it if the user has none yet. H2 still fails one of two
+     * transactions creating the version of the same user concurrently, so callers lock the user first.
+     *
+     * @param userId id of the user
+     * @return number of inserted or updated rows
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "user_trainings_versions"))
+    @Query(value = """
+            merge into user_trainings_versions v
+            using (select cast(:userId as bigint) as user_id) d
+            on v.user_id = d.user_id
+            when matched then update set version = v.version + 1
+            when not matched then insert (user_id, version) values (d.user_id, 1)
+            """, nativeQuery = true)
+    int upsertIncrement(@Param("userId") Long userId);
+
+}
@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Number of users within an age bracket.
+ *
+ * @param fromAge lowest age of the bracket, in whole years
+ * @param toAge highest age of the bracket, {@code null} for the last bracket which has no upper bound
+ * @param users number of users of the bracket
+ */
+public record AgeBracket(int fromAge, @Nullable Integer toAge, long users) {
+}
@@ -3,11 +3,16 @@ package com.capgemini.wsb.fitnesstracker.user.api;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_birthdate", columnList = "birthdate, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -31,6 +36,15 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
+    /**
+     * Incremented by every update of the user, also serves as the ETag of the user. Defaults to 0 in the database, so
+     * users inserted with plain SQL by the loaders start at the same version as users persisted by Hibernate.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     public User(
             final String firstName,
             final String lastName,
@@ -0,0 +1,11 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+/**
+ * Application event published by the user module when a user is deleted. It is published inside the transaction of
+ * the deletion, before the user row is removed, so listeners using {@code @EventListener} can delete the data they
+ * keep of the user, including rows referencing the user, within the same transaction.
+ *
+ * @param userId id of the deleted user
+ */
+public record UserDeletedEvent(Long userId) {
+}
@@ -1,6 +1,11 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import jakarta.annotation.Nullable;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserProvider {
@@ -23,6 +28,33 @@ public interface UserProvider {
      */
     Optional<User> getUserByEmail(String email);
 
+    /**
+     * Retrieves all users with the given IDs using a single query.
+     * IDs of users which do not exist are skipped.
+     *
+     * @param userIds ids of the users to be searched
+     * @return A list of the located users, in no particular order
+     */
+    List<User> findUsersByIds(Collection<Long> userIds);
+
+    /**
+     * Retrieves the IDs of the friends of all given users using a single query.
+     *
+     * @param userIds ids of the users whose friends are searched
+     * @return IDs of the friends by the ID of the user; users without friends are skipped
+     */
+    Map<Long, List<Long>> findFriendIds(Collection<Long> userIds);
+
+    /**
+     * Locks the rows of the given users until the end of the current transaction, in ascending ID order, so
+     * transactions locking overlapping sets of users cannot deadlock. Other modules use it to serialize the first
+     * insert of their rows keyed by user, which H2 reports as an error when two transactions insert the same key
+     * concurrently, even with {@code MERGE}. Must be called within a transaction.
+     *
+     * @param userIds ids of the users to be locked
+     */
+    void lockUsers(Collection<Long> userIds);
+
     /**
      * Retrieves all users.
      *
@@ -30,4 +62,30 @@ public interface UserProvider {
      */
     List<User> findAllUsers();
 
+    /**
+     * Retrieves one page of all users, ordered by id.
+     *
+     * @param cursor cursor returned with the previous page, {@code null} for the first page
+     * @param limit maximal number of users on the page
+     * @return A {@link CursorPage} of users
+     */
+    CursorPage<User> findAllUsers(@Nullable String cursor, int limit);
+
+    /**
+     * Retrieves all users with IDs within the given range using a single query.
+     * Meant for batch jobs processing all users in fixed ID ranges.
+     *
+     * @param firstId inclusive lower bound of the user IDs
+     * @param lastId inclusive upper bound of the user IDs
+     * @return A list of the located users, ordered by id
+     */
+    List<User> findUsersWithIdBetween(long firstId, long lastId);
+
+    /**
+     * Retrieves the highest ID of all users.
+     *
+     * @return The highest user ID, or 0 if there are no users
+     */
+    long findMaxUserId();
+
 }
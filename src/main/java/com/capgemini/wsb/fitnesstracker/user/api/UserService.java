@@ -1,5 +1,9 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import jakarta.annotation.Nullable;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +16,19 @@ public interface UserService {
     User createUser(User user) throws UserExistsException;
     public Optional<User> getUser(final Long userId);
     public Optional<User> getUserByEmail(final String email);
+    public List<User> findUsersByIds(Collection<Long> userIds);
     public List<User> findAllUsers();
+    public CursorPage<User> findAllUsers(@Nullable String cursor, int limit);
     public boolean deleteUser(Long userId);
     public List<User> findByEmailIgnoreCaseContaining(String emailFragment);
+    public CursorPage<User> findByEmailIgnoreCaseContaining(String emailFragment, @Nullable String cursor, int limit);
+    public List<User> searchUsers(String query, int limit);
     public List<User> findUsersOlderThan(int age);
+    public CursorPage<User> findUsersOlderThan(int age, @Nullable String cursor, int limit);
+    public CursorPage<User> findUsersByAge(int minAge, @Nullable Integer maxAge, @Nullable String cursor, int limit);
+    public List<AgeBracket> countUsersByAge(int bracketYears, int maxAge);
     public User updateUser(Long id, User newUserDetails);
+    public void addFriend(Long userId, Long friendId);
+    public boolean removeFriend(Long userId, Long friendId);
+    public List<User> findFriends(Long userId);
 }
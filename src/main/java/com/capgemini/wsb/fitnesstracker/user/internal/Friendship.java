@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Friendship of two users. Friendships are mutual and stored in both directions, so the friends of any number of
+ * users are found with one lookup along the {@code user_id} index.
+ */
+@Entity
+@Table(name = "friendships", indexes = @Index(name = "idx_friendships_user", columnList = "user_id, friend_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class Friendship {
+
+    @EmbeddedId
+    private FriendshipId id;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    Friendship(final FriendshipId id, final Instant createdAt) {
+        this.id = id;
+        this.createdAt = createdAt;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Identifies one direction of a {@link Friendship}.
+ */
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class FriendshipId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "friend_id", nullable = false)
+    private Long friendId;
+
+}
@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+interface FriendshipRepository extends JpaRepository<Friendship, FriendshipId> {
+
+    /**
+     * @param userIds ids of the users
+     * @return ids of the friendships of the users, one per friend
+     */
+    @Query("select f.id from Friendship f where f.id.userId in :userIds")
+    List<FriendshipId> findOfUsers(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Removes both directions of all friendships of a user.
+     *
+     * @param userId id of the user
+     * @return number of removed rows
+     */
+    @Modifying
+    @Query("delete from Friendship f where f.id.userId = :userId or f.id.friendId = :userId")
+    int deleteOfUser(@Param("userId") Long userId);
+
+}
@@ -0,0 +1,155 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Size and TTL bounded cache of single user lookups by id and by email, including lookups of users which do not
+ * exist.
+ * <p>
+ * Concurrent misses of the same key are coalesced, only one of the callers loads the user and the others wait for
+ * its result. Users are cached as detached copies, which are shared by all callers and must not be modified.
+ * Emails are cached as the id of their user, so a changed email cannot be served from a stale copy: the cached id is
+ * only used when the user cached under it still has the email.
+ * <p>
+ * Writes invalidate their entries right away and once more after the commit, so a lookup running concurrently with
+ * the writing transaction cannot keep the old state cached. Users loaded within a transaction which rolls back are
+ * invalidated as well, as they might have been created or changed by that transaction.
+ * <p>
+ * Hits, misses and evictions are published as {@code cache.gets} and {@code cache.evictions} with the cache names
+ * {@code users.byId} and {@code users.byEmail}.
+ */
+@Component
+class UserCache {
+
+    private final Cache<Long, Optional<User>> byId;
+    private final Cache<String, Optional<Long>> idByEmail;
+
+    UserCache(final UserProperties userProperties, final MeterRegistry meterRegistry) {
+        UserProperties.Cache properties = userProperties.getCache();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "users.byEmail");
+    }
+
+    /**
+     * Returns the cached user with the given id, loading it on a miss.
+     *
+     * @param userId id of the user
+     * @param loader loads the user from the database
+     * @return the user, or {@link Optional#empty()} if it does not exist
+     */
+    Optional<User> getUser(final Long userId, final Function<Long, Optional<User>> loader) {
+        return byId.get(userId, id -> {
+            Optional<User> loaded = loader.apply(id).map(UserCache::detachedCopy);
+            invalidateOnRollback(id, null);
+            return loaded;
+        });
+    }
+
+    /**
+     * Returns the cached user with the given email, loading it on a miss.
+     *
+     * @param email email of the user
+     * @param loader loads the user from the database
+     * @return the user, or {@link Optional#empty()} if no user has the email
+     */
+    Optional<User> getUserByEmail(final String email, final Function<String, Optional<User>> loader) {
+        Optional<Long> userId = idByEmail.get(email, key -> loadByEmail(key, loader).map(User::getId));
+        if (userId.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<User> user = byId.getIfPresent(userId.get());
+        if (user != null && user.map(User::getEmail).filter(email::equals).isPresent()) {
+            return user;
+        }
+        // the user was evicted or invalidated since, or the email moved to another user
+        Optional<User> reloaded = loadByEmail(email, loader);
+        idByEmail.put(email, reloaded.map(User::getId));
+        return reloaded;
+    }
+
+    /**
+     * Invalidates the cached entries of the user, immediately and again after the current transaction commits.
+     *
+     * @param user created, updated or deleted user
+     */
+    void invalidate(final User user) {
+        invalidateNowAndAfterCommit(() -> {
+            byId.invalidate(user.getId());
+            idByEmail.invalidate(user.getEmail());
+        });
+    }
+
+    /**
+     * Invalidates the cached entries of the user with the given id, immediately and again after the current
+     * transaction commits. Entries of the user's email are detected as stale on their next lookup.
+     *
+     * @param userId id of the created, updated or deleted user
+     */
+    void invalidate(final Long userId) {
+        invalidateNowAndAfterCommit(() -> byId.invalidate(userId));
+    }
+
+    private Optional<User> loadByEmail(final String email, final Function<String, Optional<User>> loader) {
+        Optional<User> loaded = loader.apply(email).map(UserCache::detachedCopy);
+        loaded.ifPresent(user -> byId.put(user.getId(), loaded));
+        invalidateOnRollback(loaded.map(User::getId).orElse(null), email);
+        return loaded;
+    }
+
+    private void invalidateNowAndAfterCommit(final Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private void invalidateOnRollback(@Nullable final Long userId, @Nullable final String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    Optional.ofNullable(userId).ifPresent(byId::invalidate);
+                    Optional.ofNullable(email).ifPresent(idByEmail::invalidate);
+                }
+            }
+        });
+    }
+
+    private static User detachedCopy(final User user) {
+        User copy = new User(user.getFirstName(), user.getLastName(), user.getBirthdate(), user.getEmail());
+        copy.setId(user.getId());
+        copy.setVersion(user.getVersion());
+        return copy;
+    }
+
+}
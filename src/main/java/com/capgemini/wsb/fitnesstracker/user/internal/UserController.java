@@ -1,19 +1,27 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.user.api.AgeBracket;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserExistsException;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.java.Log;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/v1/users")
+@Timed(value = "user.controller", histogram = true)
 @RequiredArgsConstructor
 public class UserController {
 
@@ -22,31 +30,41 @@ public class UserController {
     private final UserMapper userMapper;
 
     /**
-     * Retrieves a summary list of all users.
+     * Retrieves a page of the summary list of all users, ordered by ID.
      * Each summary includes the user's ID and full name (first name and last name concatenated).
      *
-     * @return A list of {@link UserSummaryDto} objects, each representing a user's summary details.
+     * @param cursor The cursor returned with the previous page, absent for the first page.
+     * @param limit The maximal number of users on the page.
+     * @return A {@link CursorPage} of {@link UserSummaryDto} objects, each representing a user's summary details.
      */
     @GetMapping("/user/list")
-    public List<UserSummaryDto> getAllUsersSummary() {
-        return userService.findAllUsers()
-                .stream()
-                .map(user -> new UserSummaryDto(user.getId(), user.getFirstName() + " " + user.getLastName()))
-                .toList();
+    public CursorPage<UserSummaryDto> getAllUsersSummary(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
+        return userService.findAllUsers(cursor, limit)
+                .map(user -> new UserSummaryDto(user.getId(), user.getFirstName() + " " + user.getLastName()));
     }
 
     /**
      * Retrieves detailed information about a specific user identified by their ID.
+     * The version of the user is returned as the ETag; if it matches the {@code If-None-Match} header of the request,
+     * a not modified status is returned without mapping and serializing the user.
      *
      * @param id The unique identifier of the user.
-     * @return A {@link ResponseEntity} containing a {@link UserDto} if the user is found,
-     *         or a not found status if the user does not exist.
+     * @param request The request, checked for the {@code If-None-Match} header.
+     * @return A {@link ResponseEntity} containing a {@link UserDto} if the user is found and changed,
+     *         null if the client's copy is still current, or a not found status if the user does not exist.
      */
     @GetMapping("/user/{id}")
-    public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
-        return userService.getUser(id)
-                .map(user -> ResponseEntity.ok(userMapper.toDto(user)))
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long id, WebRequest request) {
+        Optional<User> user = userService.getUser(id);
+        if (user.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = String.valueOf(user.get().getVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(userMapper.toDto(user.get()));
     }
 
     /**
@@ -74,40 +92,129 @@ public class UserController {
     }
 
     /**
-     * Searches for users by a fragment of their email address.
+     * Searches for users by a fragment of their email address, ordered by email.
      *
      * @param email The email fragment to search for.
-     * @return A list of {@link UserSummaryDto} objects containing the IDs and emails of users matching the search.
+     * @param cursor The cursor returned with the previous page, absent for the first page.
+     * @param limit The maximal number of users on the page.
+     * @return A {@link CursorPage} of {@link UserSummaryDto} objects containing the IDs and emails of users matching the search.
      */
     @GetMapping("/user/search")
-    public List<UserSummaryDto> searchUsersByEmail(@RequestParam String email) {
-        return userService.findByEmailIgnoreCaseContaining(email)
-                .stream()
-                .map(user -> new UserSummaryDto(user.getId(), user.getEmail())) // Zmodyfikowany DTO
+    public CursorPage<UserSummaryDto> searchUsersByEmail(@RequestParam String email,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
+        return userService.findByEmailIgnoreCaseContaining(email, cursor, limit)
+                .map(user -> new UserSummaryDto(user.getId(), user.getEmail())); // Zmodyfikowany DTO
+    }
+
+    /**
+     * Searches for users by a fragment of their email address or name, best matches first.
+     *
+     * @param query The fragment to search for.
+     * @param limit The maximal number of users returned.
+     * @return A list of {@link UserDto} objects of the best matching users.
+     */
+    @GetMapping("/user/search/ranked")
+    public List<UserDto> searchUsers(@RequestParam String query,
+                                     @RequestParam(defaultValue = "10") int limit) {
+        return userService.searchUsers(query, limit).stream()
+                .map(userMapper::toDto)
                 .toList();
     }
 
     /**
-     * Retrieves a list of users who are older than a specified age.
+     * Retrieves a page of users who are older than a specified age, from the oldest one.
      *
      * @param age The age threshold users must be older than.
-     * @return A list of {@link UserDto} objects representing the users who meet the age criteria.
+     * @param cursor The cursor returned with the previous page, absent for the first page.
+     * @param limit The maximal number of users on the page.
+     * @return A {@link CursorPage} of {@link UserDto} objects representing the users who meet the age criteria.
      */
     @GetMapping("/user/age")
-    public List<UserDto> getUsersOlderThan(@RequestParam int age) {
-        return userService.findUsersOlderThan(age)
-                .stream()
-                .map(userMapper::toDto)
+    public CursorPage<UserDto> getUsersOlderThan(@RequestParam int age,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
+        return userService.findUsersOlderThan(age, cursor, limit)
+                .map(userMapper::toDto);
+    }
+
+    /**
+     * Retrieves a page of the summaries of users within an age range, from the oldest one.
+     *
+     * @param minAge The lowest age, in whole years.
+     * @param maxAge The highest age, in whole years, absent for no upper bound.
+     * @param cursor The cursor returned with the previous page, absent for the first page.
+     * @param limit The maximal number of users on the page.
+     * @return A {@link CursorPage} of {@link UserSummaryDto} objects of the users within the age range.
+     */
+    @GetMapping("/user/age/range")
+    public CursorPage<UserSummaryDto> getUsersByAge(@RequestParam(defaultValue = "0") int minAge,
+                                                    @RequestParam(required = false) Integer maxAge,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "" + CursorPage.DEFAULT_LIMIT) int limit) {
+        return userService.findUsersByAge(minAge, maxAge, cursor, limit)
+                .map(user -> new UserSummaryDto(user.getId(), user.getFirstName() + " " + user.getLastName()));
+    }
+
+    /**
+     * Retrieves the number of users per age bracket.
+     *
+     * @param bracket The number of years of a bracket.
+     * @param maxAge The lowest age of the last, open-ended bracket.
+     * @return A list of {@link AgeBracket} objects from the youngest users.
+     */
+    @GetMapping("/user/age/histogram")
+    public List<AgeBracket> getAgeHistogram(@RequestParam(defaultValue = "10") int bracket,
+                                            @RequestParam(defaultValue = "100") int maxAge) {
+        return userService.countUsersByAge(bracket, maxAge);
+    }
+
+    /**
+     * Retrieves the friends of a user.
+     *
+     * @param id The unique identifier of the user.
+     * @return A list of {@link UserSummaryDto} objects of the friends of the user.
+     */
+    @GetMapping("/user/{id}/friends")
+    public List<UserSummaryDto> getFriends(@PathVariable Long id) {
+        return userService.findFriends(id).stream()
+                .map(user -> new UserSummaryDto(user.getId(), user.getFirstName() + " " + user.getLastName()))
                 .toList();
     }
 
+    /**
+     * Makes two users friends of each other, whose completed trainings are then notified to one another.
+     *
+     * @param id The unique identifier of the user.
+     * @param friendId The unique identifier of the new friend.
+     * @return A {@link ResponseEntity} with OK status, also if the users already were friends.
+     */
+    @PutMapping("/user/{id}/friends/{friendId}")
+    public ResponseEntity<Void> addFriend(@PathVariable Long id, @PathVariable Long friendId) {
+        userService.addFriend(id, friendId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Ends the friendship of two users.
+     *
+     * @param id The unique identifier of the user.
+     * @param friendId The unique identifier of the friend.
+     * @return A {@link ResponseEntity} indicating the outcome (OK if successful, not found if the users are not friends).
+     */
+    @DeleteMapping("/user/{id}/friends/{friendId}")
+    public ResponseEntity<Void> removeFriend(@PathVariable Long id, @PathVariable Long friendId) {
+        return userService.removeFriend(id, friendId) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
     /**
      * Updates the details of an existing user identified by their ID.
      *
      * @param id The unique identifier of the user to update.
      * @param userDto The updated user data transfer object.
      * @return A {@link ResponseEntity} containing the updated user's details if successful,
-     *         a bad request status if the update data is invalid, or not found if the user does not exist.
+     *         a bad request status if the update data is invalid, not found if the user does not exist,
+     *         or conflict if the user was changed by a concurrent request, which the client may retry.
      */
     @PutMapping("/user/{id}")
     public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @RequestBody UserDto userDto) {
@@ -118,6 +225,8 @@ public class UserController {
             return ResponseEntity.badRequest().build();
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -0,0 +1,128 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Negative-lookup filter for user emails. Answers "definitely not registered" without touching the database,
+ * so most signups with a new email skip the duplicate check query.
+ * <p>
+ * The filter is loaded once the application is ready and kept in sync by {@link UserEntityListener}.
+ * Bloom filters cannot forget entries, so removed emails are only counted as stale and the filter is rebuilt
+ * in the background once the stale ratio exceeds the configured threshold. Until the first load finishes every
+ * email is reported as possibly existing, so callers always fall back to the database.
+ */
+@Component
+@Slf4j
+class UserEmailFilter {
+
+    private final UserRepository userRepository;
+    private final UserProperties.EmailFilter properties;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicLong insertedEntries = new AtomicLong();
+    private final AtomicLong staleEntries = new AtomicLong();
+    private final AtomicBoolean rebuildInProgress = new AtomicBoolean();
+
+    private volatile EmailBloomFilter active;
+    private volatile EmailBloomFilter rebuilding;
+    private volatile boolean ready;
+
+    UserEmailFilter(final UserRepository userRepository,
+                    final UserProperties userProperties,
+                    final PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.properties = userProperties.getEmailFilter();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.active = new EmailBloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveProbability());
+    }
+
+    /**
+     * Checks whether the email might belong to an existing user.
+     *
+     * @param email email to check
+     * @return false if no user has this email for sure, true if the database has to be asked
+     */
+    boolean mightContain(final String email) {
+        return !ready || active.mightContain(email);
+    }
+
+    /**
+     * Registers the email of a created or updated user.
+     *
+     * @param email email to register
+     */
+    void add(final String email) {
+        active.add(email);
+        EmailBloomFilter next = rebuilding;
+        if (next != null) {
+            next.add(email);
+        }
+        insertedEntries.incrementAndGet();
+    }
+
+    /**
+     * Marks the email of a deleted (or renamed) user as stale and schedules a rebuild when too many stale entries
+     * accumulated.
+     *
+     * @param email email that is no longer registered
+     */
+    void remove(final String email) {
+        long stale = staleEntries.incrementAndGet();
+        if (ready && stale > insertedEntries.get() * properties.getRebuildStaleRatio()
+                && rebuildInProgress.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::rebuildGuarded);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void load() {
+        if (rebuildInProgress.compareAndSet(false, true)) {
+            rebuildGuarded();
+        }
+    }
+
+    private void rebuildGuarded() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Rebuilding of the user email filter failed, keeping the previous one", e);
+            rebuilding = null;
+        } finally {
+            rebuildInProgress.set(false);
+        }
+    }
+
+    private void rebuild() {
+        long userCount = userRepository.count();
+        EmailBloomFilter next = new EmailBloomFilter(Math.max(properties.getExpectedInsertions(), userCount * 2),
+                                                     properties.getFalsePositiveProbability());
+        rebuilding = next;
+        AtomicLong loaded = new AtomicLong();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                emails.forEach(email -> {
+                    next.add(email);
+                    loaded.incrementAndGet();
+                });
+            }
+        });
+        active = next;
+        rebuilding = null;
+        insertedEntries.set(loaded.get());
+        staleEntries.set(0);
+        ready = true;
+        log.info("User email filter loaded with {} emails", loaded);
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener keeping the in-memory user lookup structures in sync with every write of {@link User},
+ * including writes done directly through the repository. It is registered in {@code META-INF/orm.xml}, so the api
+ * entity does not depend on this internal class.
+ * Collaborators are resolved lazily, because Hibernate instantiates the listener while the entity manager factory
+ * they depend on is still being created.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    private final ObjectProvider<UserEmailFilter> userEmailFilter;
+
+    private final ObjectProvider<UserCache> userCache;
+
+    private final ObjectProvider<UserSearchIndex> userSearchIndex;
+
+    @PostPersist
+    @PostUpdate
+    void onSaved(final User user) {
+        userEmailFilter.getObject().add(user.getEmail());
+        userCache.getObject().invalidate(user);
+        userSearchIndex.getObject().index(user);
+    }
+
+    @PostRemove
+    void onRemoved(final User user) {
+        userEmailFilter.getObject().remove(user.getEmail());
+        userCache.getObject().invalidate(user);
+        userSearchIndex.getObject().remove(user);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the user module.
+ */
+@ConfigurationProperties(prefix = "user")
+@Getter
+class UserProperties {
+
+    /**
+     * Sizing of the in-memory filter used to skip the database on signups with a new email.
+     */
+    private final EmailFilter emailFilter;
+
+    /**
+     * Bounds of the in-memory cache of single user lookups.
+     */
+    private final Cache cache;
+
+    UserProperties(@DefaultValue final EmailFilter emailFilter,
+                   @DefaultValue final Cache cache) {
+        this.emailFilter = emailFilter;
+        this.cache = cache;
+    }
+
+    @Getter
+    static class EmailFilter {
+
+        /**
+         * Minimal number of emails the filter is sized for. The filter grows with the users table on each rebuild.
+         */
+        private final long expectedInsertions;
+
+        /**
+         * Expected ratio of new emails that still have to be checked in the database.
+         */
+        private final double falsePositiveProbability;
+
+        /**
+         * Ratio of removed (stale) emails to all emails in the filter after which the filter is rebuilt.
+         */
+        private final double rebuildStaleRatio;
+
+        EmailFilter(@DefaultValue("1000000") final long expectedInsertions,
+                    @DefaultValue("0.01") final double falsePositiveProbability,
+                    @DefaultValue("0.1") final double rebuildStaleRatio) {
+            this.expectedInsertions = expectedInsertions;
+            this.falsePositiveProbability = falsePositiveProbability;
+            this.rebuildStaleRatio = rebuildStaleRatio;
+        }
+    }
+
+    @Getter
+    static class Cache {
+
+        /**
+         * Maximal number of users (and of emails) kept in the cache, rarely used ones are evicted first.
+         */
+        private final long maximumSize;
+
+        /**
+         * Time after which a cached user is loaded from the database again, bounding how long writes done outside
+         * of this application instance stay invisible.
+         */
+        private final Duration timeToLive;
+
+        Cache(@DefaultValue("10000") final long maximumSize,
+              @DefaultValue("PT5M") final Duration timeToLive) {
+            this.maximumSize = maximumSize;
+            this.timeToLive = timeToLive;
+        }
+    }
+
+}
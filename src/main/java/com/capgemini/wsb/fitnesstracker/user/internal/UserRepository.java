@@ -1,26 +1,69 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Query searching users by email address. It matches by exact match.
+     * Number of rows fetched from the database per round trip by the streaming queries.
+     */
+    int STREAM_FETCH_SIZE = 1000;
+
+    /**
+     * Query searching users by email address. It matches by exact match and is served by the unique index on the
+     * {@code email} column. Results are kept in the query cache until the next write to the users table.
      *
      * @param email email of the user to search
      * @return {@link Optional} containing found user or {@link Optional#empty()} if none matched
      */
-    default Optional<User> findByEmail(String email) {
-        return findAll().stream()
-                        .filter(user -> Objects.equals(user.getEmail(), email))
-                        .findFirst();
-    }
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Optional<User> findByEmail(String email);
+
+    /**
+     * Checks whether a user with the given email exists, without loading the entity.
+     *
+     * @param email email of the user to check
+     * @return true if a user with exactly this email exists
+     */
+    boolean existsByEmail(String email);
+
+    /**
+     * Streams the emails of all users. Has to be consumed inside a transaction.
+     *
+     * @return stream of all user emails
+     */
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Streams all users ordered by ID, fetching {@link #STREAM_FETCH_SIZE} rows per round trip and bypassing the
+     * second-level cache. Has to be consumed inside a transaction and closed afterwards.
+     *
+     * @return stream of read-only users
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+                 @QueryHint(name = HINT_READ_ONLY, value = "true"),
+                 @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAll();
 
     // Wyszukiwanie użytkowników po fragmencie e-mail
     List<User> findByEmailIgnoreCaseContaining(String emailFragment);
@@ -28,4 +71,99 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Wyszukiwanie użytkowników urodzonych przed daną datą
     List<User> findAllByBirthdateBefore(LocalDate date);
 
+    /**
+     * Keyset page of users ordered by id.
+     *
+     * @param afterId id of the last user of the previous page, 0 for the first page
+     * @param limit maximal number of users
+     * @return users with id greater than {@code afterId}
+     */
+    List<User> findByIdGreaterThanOrderById(long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<User> findByIdBetweenOrderById(long firstId, long lastId);
+
+    @Query("select coalesce(max(u.id), 0) from User u")
+    long findMaxId();
+
+    /**
+     * Reads the user with a write lock held until the end of the current transaction.
+     *
+     * @param id id of the user
+     * @return the locked user, or {@link Optional#empty()} if it does not exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findAndLockById(@Param("id") Long id);
+
+    /**
+     * Keyset page of users whose email contains the fragment (case-insensitive), ordered by email and id.
+     *
+     * @param fragment email fragment with {@code %}, {@code _} and {@code \} escaped by {@code \}
+     * @param afterEmail email of the last user of the previous page, empty for the first page
+     * @param afterId id of the last user of the previous page, 0 for the first page
+     * @param limit maximal number of users
+     * @return matching users after the given position
+     */
+    @Query("""
+            select u from User u
+            where lower(u.email) like lower(concat('%', :fragment, '%')) escape '\\'
+              and u.email >= :afterEmail and (u.email > :afterEmail or u.id > :afterId)
+            order by u.email, u.id
+            """)
+    List<User> findPageByEmailContaining(@Param("fragment") String fragment,
+                                         @Param("afterEmail") String afterEmail,
+                                         @Param("afterId") long afterId,
+                                         Limit limit);
+
+    /**
+     * Keyset page of users born before the given date, ordered by birthdate and id.
+     *
+     * @param bornBefore exclusive upper bound of the birthdate
+     * @param afterBirthdate birthdate of the last user of the previous page
+     * @param afterId id of the last user of the previous page, 0 for the first page
+     * @param limit maximal number of users
+     * @return matching users after the given position
+     */
+    @Query("""
+            select u from User u
+            where u.birthdate < :bornBefore
+              and u.birthdate >= :afterBirthdate and (u.birthdate > :afterBirthdate or u.id > :afterId)
+            order by u.birthdate, u.id
+            """)
+    List<User> findPageByBirthdateBefore(@Param("bornBefore") LocalDate bornBefore,
+                                         @Param("afterBirthdate") LocalDate afterBirthdate,
+                                         @Param("afterId") long afterId,
+                                         Limit limit);
+
+    /**
+     * Keyset page of users born in the given range, ordered by birthdate and id.
+     *
+     * @param bornFrom inclusive lower bound of the birthdate
+     * @param bornBefore exclusive upper bound of the birthdate
+     * @param afterBirthdate birthdate of the last user of the previous page
+     * @param afterId id of the last user of the previous page, 0 for the first page
+     * @param limit maximal number of users
+     * @return matching users after the given position
+     */
+    @Query("""
+            select u from User u
+            where u.birthdate >= :bornFrom and u.birthdate < :bornBefore
+              and u.birthdate >= :afterBirthdate and (u.birthdate > :afterBirthdate or u.id > :afterId)
+            order by u.birthdate, u.id
+            """)
+    List<User> findPageByBirthdateBetween(@Param("bornFrom") LocalDate bornFrom,
+                                          @Param("bornBefore") LocalDate bornBefore,
+                                          @Param("afterBirthdate") LocalDate afterBirthdate,
+                                          @Param("afterId") long afterId,
+                                          Limit limit);
+
+    /**
+     * Counts the users born before the given date, within the index on {@code birthdate}.
+     *
+     * @param date exclusive upper bound of the birthdate
+     * @return number of users born before the date
+     */
+    long countByBirthdateBefore(LocalDate date);
+
 }
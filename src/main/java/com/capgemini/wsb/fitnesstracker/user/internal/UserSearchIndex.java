@@ -0,0 +1,530 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.pagination.api.PageCursor;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over the lowercase emails and names of all users, answering fragment searches without
+ * scanning the users table, together with a sorted birthdate index answering age-range queries.
+ * <p>
+ * Every distinct three-character substring of a user's email and full name points to a sorted posting list of the
+ * ids of the users containing it. A search intersects the posting lists of the trigrams of the query, starting with
+ * the shortest one, and verifies the remaining candidates against their indexed text, since sharing all trigrams does
+ * not guarantee containing the query. Queries shorter than a trigram scan the indexed users instead.
+ * <p>
+ * The birthdate index is a sorted list of keys packing the birthdate and the id of every user, so a page of an age
+ * range starts with a binary search and the number of users born before any date is the position of the date in it.
+ * <p>
+ * Searches are answered entirely from memory: the index keeps a detached copy of every user, which is shared by all
+ * callers and must not be modified. The index is loaded once the application is ready and kept in sync by
+ * {@link UserEntityListener}; changes made within a transaction are applied after its commit. Until the first load
+ * finishes the index reports that it cannot answer, so callers fall back to the database.
+ */
+@Component
+@Slf4j
+class UserSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Birthdate keys hold the day of the birthdate, counted from {@link #FIRST_BIRTHDATE_DAY}, above the id bits.
+     */
+    private static final int ID_BITS = 40;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final long FIRST_BIRTHDATE_DAY = LocalDate.of(1, 1, 1).toEpochDay();
+    private static final long LAST_BIRTHDATE_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+
+    /**
+     * Orders matches of a ranked search: best rank first, shorter emails first, then by id.
+     */
+    private static final Comparator<RankedUser> BEST_FIRST = Comparator.comparingInt(RankedUser::rank)
+            .thenComparingInt(ranked -> ranked.indexed().email().length())
+            .thenComparingLong(ranked -> ranked.indexed().id());
+
+    private static final Comparator<IndexedUser> BY_EMAIL_AND_ID = Comparator.comparing(IndexedUser::email)
+            .thenComparingLong(IndexedUser::id);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, IndexedUser> users = new HashMap<>();
+    private final Postings birthdates = new Postings();
+    @Nullable
+    private Set<Long> changedWhileLoading;
+    private volatile boolean ready;
+
+    /**
+     * Searchable text of one user.
+     *
+     * @param user detached copy of the user, returned by searches
+     * @param emailLower lowercase email
+     * @param firstNameLower lowercase first name
+     * @param lastNameLower lowercase last name
+     * @param fullNameLower lowercase first and last name separated by a space
+     */
+    private record IndexedUser(User user, String emailLower, String firstNameLower, String lastNameLower,
+                               String fullNameLower) {
+
+        static IndexedUser of(User user) {
+            User copy = new User(user.getFirstName(), user.getLastName(), user.getBirthdate(), user.getEmail());
+            copy.setId(user.getId());
+            copy.setVersion(user.getVersion());
+            String firstName = lowercase(user.getFirstName());
+            String lastName = lowercase(user.getLastName());
+            return new IndexedUser(copy, lowercase(user.getEmail()), firstName, lastName, firstName + " " + lastName);
+        }
+
+        long id() {
+            return user.getId();
+        }
+
+        String email() {
+            return user.getEmail();
+        }
+
+        long birthdateKey() {
+            return UserSearchIndex.birthdateKey(user.getBirthdate(), id());
+        }
+
+        Set<Long> trigrams() {
+            Set<Long> trigrams = new HashSet<>();
+            addTrigrams(emailLower, trigrams);
+            addTrigrams(fullNameLower, trigrams);
+            return trigrams;
+        }
+
+        /**
+         * Rank of the match of the query, lower is better: 0 for an exact email or name, 1 for a prefix, 2 for a
+         * match starting a word (after a dot, an at sign, a space...), 3 for any other substring.
+         */
+        int rank(String query) {
+            return Math.min(Math.min(rank(emailLower, query), rank(fullNameLower, query)),
+                            Math.min(rank(firstNameLower, query), rank(lastNameLower, query)));
+        }
+
+        private static int rank(String text, String query) {
+            if (text.equals(query)) {
+                return 0;
+            }
+            if (text.startsWith(query)) {
+                return 1;
+            }
+            int rank = Integer.MAX_VALUE;
+            for (int index = text.indexOf(query); index >= 0 && rank > 2; index = text.indexOf(query, index + 1)) {
+                rank = Character.isLetterOrDigit(text.charAt(index - 1)) ? 3 : 2;
+            }
+            return rank;
+        }
+    }
+
+    private record RankedUser(IndexedUser indexed, int rank) {
+    }
+
+    UserSearchIndex(final UserRepository userRepository, final PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Finds the users whose email contains the fragment, ignoring case, ordered by email and id.
+     *
+     * @param fragment email fragment
+     * @param after position of the last user of the previous page
+     * @param limit maximal number of users
+     * @return the matching users after the position, or {@link Optional#empty()} if the index cannot answer and the
+     * database has to be searched instead
+     */
+    Optional<List<User>> findByEmailContaining(final String fragment, final PageCursor after, final int limit) {
+        String query = lowercase(fragment);
+        if (!ready || query.length() < GRAM) {
+            return Optional.empty();
+        }
+        PriorityQueue<IndexedUser> lastFirst = new PriorityQueue<>(BY_EMAIL_AND_ID.reversed());
+        readLocked(() -> {
+            for (IndexedUser user : candidates(query)) {
+                if (user.emailLower().contains(query) && isAfter(user, after)) {
+                    keepSmallest(lastFirst, user, limit, BY_EMAIL_AND_ID);
+                }
+            }
+        });
+        return Optional.of(sorted(lastFirst, BY_EMAIL_AND_ID, IndexedUser::user));
+    }
+
+    /**
+     * Finds the users whose email or name contains the query, ignoring case, best matches first.
+     *
+     * @param query searched fragment
+     * @param limit maximal number of users
+     * @return the best matching users, or {@link Optional#empty()} if the index cannot answer
+     */
+    Optional<List<User>> search(final String query, final int limit) {
+        String normalized = lowercase(query.strip());
+        if (!ready) {
+            return Optional.empty();
+        }
+        if (normalized.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        PriorityQueue<RankedUser> worstFirst = new PriorityQueue<>(BEST_FIRST.reversed());
+        readLocked(() -> {
+            Collection<IndexedUser> candidates = normalized.length() < GRAM ? users.values() : candidates(normalized);
+            for (IndexedUser user : candidates) {
+                int rank = user.rank(normalized);
+                if (rank != Integer.MAX_VALUE) {
+                    keepSmallest(worstFirst, new RankedUser(user, rank), limit, BEST_FIRST);
+                }
+            }
+        });
+        return Optional.of(sorted(worstFirst, BEST_FIRST, ranked -> ranked.indexed().user()));
+    }
+
+    /**
+     * Finds the users born in the range, ordered by birthdate and id.
+     *
+     * @param bornFrom inclusive lower bound of the birthdate
+     * @param bornBefore exclusive upper bound of the birthdate
+     * @param afterBirthdate birthdate of the last user of the previous page
+     * @param afterId id of the last user of the previous page, 0 for the first page
+     * @param limit maximal number of users
+     * @return the matching users after the position, or {@link Optional#empty()} if the index cannot answer
+     */
+    Optional<List<User>> findByBirthdate(final LocalDate bornFrom, final LocalDate bornBefore,
+                                         final LocalDate afterBirthdate, final long afterId, final int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        long from = Math.max(birthdateKey(bornFrom, 0), birthdateKey(afterBirthdate, afterId) + 1);
+        long to = birthdateKey(bornBefore, 0);
+        List<User> found = new ArrayList<>(limit);
+        readLocked(() -> {
+            for (int i = birthdates.firstAtLeast(from); i < birthdates.size() && found.size() < limit; i++) {
+                long key = birthdates.get(i);
+                if (key >= to) {
+                    break;
+                }
+                found.add(users.get(key & ID_MASK).user());
+            }
+        });
+        return Optional.of(found);
+    }
+
+    /**
+     * Counts the users born before each of the dates, all from the same state of the index.
+     *
+     * @param dates exclusive upper bounds of the birthdate
+     * @return number of users born before each date, or {@link Optional#empty()} if the index cannot answer
+     */
+    Optional<long[]> countBornBefore(final List<LocalDate> dates) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        long[] counts = new long[dates.size()];
+        readLocked(() -> {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = birthdates.firstAtLeast(birthdateKey(dates.get(i), 0));
+            }
+        });
+        return Optional.of(counts);
+    }
+
+    /**
+     * Indexes a created or updated user, replacing its previous text, once the current transaction commits.
+     *
+     * @param user the saved user
+     */
+    void index(final User user) {
+        IndexedUser indexed = IndexedUser.of(user);
+        afterCommit(() -> writeLocked(indexed.id(), () -> {
+            removeFromIndex(indexed.id());
+            users.put(indexed.id(), indexed);
+            birthdates.add(indexed.birthdateKey());
+            indexed.trigrams().forEach(trigram -> postings.computeIfAbsent(trigram, key -> new Postings()).add(indexed.id()));
+        }));
+    }
+
+    /**
+     * Removes a deleted user from the index once the current transaction commits.
+     *
+     * @param user the deleted user
+     */
+    void remove(final User user) {
+        long userId = user.getId();
+        afterCommit(() -> writeLocked(userId, () -> removeFromIndex(userId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void load() {
+        long start = System.nanoTime();
+        writeLocked(null, () -> {
+            users.clear();
+            postings.clear();
+            birthdates.clear();
+            changedWhileLoading = new HashSet<>();
+        });
+        List<IndexedUser> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<User> all = userRepository.streamAll()) {
+                all.forEach(user -> {
+                    batch.add(IndexedUser.of(user));
+                    if (batch.size() == LOAD_BATCH_SIZE) {
+                        addLoaded(batch);
+                    }
+                });
+            }
+        });
+        addLoaded(batch);
+        writeLocked(null, () -> {
+            // built once from all indexed users, since the keys of users loaded in ID order are not sorted
+            birthdates.replaceWith(users.values().stream().mapToLong(IndexedUser::birthdateKey).sorted().toArray());
+            changedWhileLoading = null;
+        });
+        ready = true;
+        log.info("User search index loaded with {} users and {} trigrams in {} ms", users.size(), postings.size(),
+                 (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void addLoaded(List<IndexedUser> batch) {
+        writeLocked(null, () -> {
+            for (IndexedUser user : batch) {
+                // users changed since the load started are already indexed in their newer state, or deleted
+                if (!changedWhileLoading.contains(user.id()) && users.putIfAbsent(user.id(), user) == null) {
+                    user.trigrams().forEach(trigram -> postings.computeIfAbsent(trigram, key -> new Postings()).add(user.id()));
+                }
+            }
+        });
+        batch.clear();
+    }
+
+    private void removeFromIndex(long userId) {
+        IndexedUser previous = users.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        birthdates.remove(previous.birthdateKey());
+        for (Long trigram : previous.trigrams()) {
+            Postings ids = postings.get(trigram);
+            if (ids != null && ids.remove(userId) && ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Users having all trigrams of the query, to be verified by the caller. Has to be called under the read lock.
+     */
+    private List<IndexedUser> candidates(String query) {
+        Set<Long> trigrams = new HashSet<>();
+        addTrigrams(query, trigrams);
+        List<Postings> lists = new ArrayList<>(trigrams.size());
+        for (Long trigram : trigrams) {
+            Postings ids = postings.get(trigram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+
+        long[] candidates = lists.get(0).toArray();
+        int size = candidates.length;
+        for (Iterator<Postings> others = lists.listIterator(1); others.hasNext() && size > 0; ) {
+            size = others.next().retainAll(candidates, size);
+        }
+        List<IndexedUser> found = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            found.add(users.get(candidates[i]));
+        }
+        return found;
+    }
+
+    private static boolean isAfter(IndexedUser user, PageCursor after) {
+        int byEmail = user.email().compareTo(after.key());
+        return byEmail > 0 || byEmail == 0 && user.id() > after.id();
+    }
+
+    private static <T> void keepSmallest(PriorityQueue<T> largestFirst, T element, int limit, Comparator<T> order) {
+        if (largestFirst.size() < limit) {
+            largestFirst.add(element);
+        } else if (order.compare(element, largestFirst.peek()) < 0) {
+            largestFirst.poll();
+            largestFirst.add(element);
+        }
+    }
+
+    private static <T> List<User> sorted(Collection<T> elements, Comparator<T> order, Function<T, User> user) {
+        return elements.stream().sorted(order).map(user).toList();
+    }
+
+    private void readLocked(Runnable action) {
+        lock.readLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void writeLocked(@Nullable Long changedUserId, Runnable action) {
+        lock.writeLock().lock();
+        try {
+            if (changedUserId != null && changedWhileLoading != null) {
+                changedWhileLoading.add(changedUserId);
+            }
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static void addTrigrams(String text, Set<Long> trigrams) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+
+    private static long birthdateKey(LocalDate birthdate, long id) {
+        long day = Math.max(FIRST_BIRTHDATE_DAY, Math.min(LAST_BIRTHDATE_DAY, birthdate.toEpochDay()));
+        return (day - FIRST_BIRTHDATE_DAY) << ID_BITS | id;
+    }
+
+    private static String lowercase(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sorted, growable list of user ids or birthdate keys. New users have the highest ids so far, so their ids are
+     * appended.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(long id) {
+            int index = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertion = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        /**
+         * @return position of the first value not less than the given one, which is the number of smaller values
+         */
+        int firstAtLeast(long value) {
+            int index = Arrays.binarySearch(ids, 0, size, value);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * @param sorted distinct values replacing the content of this list, taken over without copying
+         */
+        void replaceWith(long[] sorted) {
+            ids = sorted.length > 0 ? sorted : new long[4];
+            size = sorted.length;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        /**
+         * Keeps only the candidates contained in this list, preserving their order.
+         *
+         * @param candidates sorted ids, modified in place
+         * @param candidateCount number of valid ids at the start of {@code candidates}
+         * @return number of remaining candidates
+         */
+        int retainAll(long[] candidates, int candidateCount) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < candidateCount && from < size; i++) {
+                int index = Arrays.binarySearch(ids, from, size, candidates[i]);
+                if (index >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return kept;
+        }
+    }
+
+}
@@ -1,27 +1,68 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.pagination.api.PageCursor;
+import com.capgemini.wsb.fitnesstracker.user.api.AgeBracket;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
 import com.capgemini.wsb.fitnesstracker.user.api.UserExistsException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
 import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.Nullable;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "user.service", histogram = true)
 @Slf4j
 class UserServiceImpl implements UserService, UserProvider {
 
+    private static final LocalDate MIN_BIRTHDATE = LocalDate.of(1, 1, 1);
+
+    /**
+     * Highest age accepted by the age queries.
+     */
+    private static final int MAX_AGE = 150;
+
     private final UserRepository userRepository;
 
+    private final UserEmailFilter userEmailFilter;
+
+    private final UserCache userCache;
+
+    private final UserSearchIndex userSearchIndex;
+
+    private final FriendshipRepository friendshipRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Clock clock = Clock.systemUTC();
+
     /**
      * Creates a new user in the database.
+     * The duplicate email check only hits the database if the {@link UserEmailFilter} cannot rule the email out.
      * Throws {@link UserExistsException} if a user with the same email already exists.
      * Throws {@link IllegalArgumentException} if the provided user object already has an assigned database ID.
      *
@@ -37,34 +78,82 @@ class UserServiceImpl implements UserService, UserProvider {
             throw new IllegalArgumentException("User has already DB ID, update is not permitted!");
         }
 
-        Optional<User> userWithSameEmail = this.getUserByEmail(user.getEmail());
-        if(userWithSameEmail.isPresent()){
+        if (userEmailFilter.mightContain(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
             throw new UserExistsException(user.getEmail());
         }
 
-        return userRepository.save(user);
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // concurrent signup with the same email, caught by the unique constraint
+            if (userRepository.existsByEmail(user.getEmail())) {
+                throw new UserExistsException(user.getEmail());
+            }
+            throw e;
+        }
     }
 
     /**
-     * Retrieves a user by their unique ID.
+     * Retrieves a user by their unique ID, served from the {@link UserCache} when possible.
      *
      * @param userId The ID of the user to retrieve.
      * @return An {@link Optional} containing the {@link User} if found, or empty if not found.
      */
     @Override
     public Optional<User> getUser(final Long userId) {
-        return userRepository.findById(userId);
+        return userCache.getUser(userId, userRepository::findById);
     }
 
     /**
-     * Retrieves a user by their email address.
+     * Retrieves a user by their email address, served from the {@link UserCache} when possible.
      *
      * @param email The email address of the user.
      * @return An {@link Optional} containing the {@link User} if found, or empty if no user has the specified email.
      */
     @Override
     public Optional<User> getUserByEmail(final String email) {
-        return userRepository.findByEmail(email);
+        return userCache.getUserByEmail(email, userRepository::findByEmail);
+    }
+
+    /**
+     * Retrieves all users with the given IDs using a single query.
+     *
+     * @param userIds The IDs of the users to retrieve.
+     * @return A list of the found {@link User} entities; IDs without a user are skipped.
+     */
+    @Override
+    public List<User> findUsersByIds(final Collection<Long> userIds) {
+        return userRepository.findAllById(userIds);
+    }
+
+    /**
+     * Retrieves the IDs of the friends of all given users using a single query along the friendships index.
+     *
+     * @param userIds The IDs of the users whose friends are retrieved.
+     * @return The IDs of the friends by the ID of the user; users without friends are skipped.
+     */
+    @Override
+    public Map<Long, List<Long>> findFriendIds(final Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<Long>> friendIds = new HashMap<>();
+        for (FriendshipId friendship : friendshipRepository.findOfUsers(userIds)) {
+            friendIds.computeIfAbsent(friendship.getUserId(), id -> new ArrayList<>()).add(friendship.getFriendId());
+        }
+        return friendIds;
+    }
+
+    /**
+     * Locks the rows of the given users until the end of the current transaction, in ascending ID order.
+     * IDs of users which do not exist are skipped.
+     *
+     * @param userIds ids of the users to be locked
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockUsers(final Collection<Long> userIds) {
+        userIds.stream().sorted().distinct().forEach(userRepository::findAndLockById);
     }
 
     /**
@@ -78,15 +167,56 @@ class UserServiceImpl implements UserService, UserProvider {
     }
 
     /**
-     * Deletes a user by their ID.
+     * Retrieves one page of users ordered by id.
+     *
+     * @param cursor cursor returned with the previous page, {@code null} for the first page
+     * @param limit maximal number of users on the page
+     * @return A {@link CursorPage} of users
+     */
+    @Override
+    public CursorPage<User> findAllUsers(@Nullable String cursor, int limit) {
+        PageCursor after = Optional.ofNullable(PageCursor.decode(cursor)).orElse(PageCursor.FIRST);
+        List<User> users = userRepository.findByIdGreaterThanOrderById(after.id(), lookahead(limit));
+        return CursorPage.fromLookahead(users, limit, user -> PageCursor.ofId(user.getId()));
+    }
+
+    /**
+     * Retrieves all users with IDs within the given range.
+     *
+     * @param firstId inclusive lower bound of the user IDs
+     * @param lastId inclusive upper bound of the user IDs
+     * @return A list of the found {@link User} entities, ordered by id.
+     */
+    @Override
+    public List<User> findUsersWithIdBetween(final long firstId, final long lastId) {
+        return userRepository.findByIdBetweenOrderById(firstId, lastId);
+    }
+
+    /**
+     * Retrieves the highest ID of all users.
+     *
+     * @return The highest user ID, or 0 if there are no users.
+     */
+    @Override
+    public long findMaxUserId() {
+        return userRepository.findMaxId();
+    }
+
+    /**
+     * Deletes a user by their ID, together with their friendships and, through {@link UserDeletedEvent}, the data
+     * other modules keep of the user. The trainings of the user must be deleted beforehand.
      * Returns true if the user was found and deleted, false otherwise.
      *
      * @param userId The ID of the user to be deleted.
      * @return true if the user was deleted, false if the user does not exist.
      */
+    @Transactional
     public boolean deleteUser(Long userId) {
         if (userRepository.existsById(userId)) {
+            friendshipRepository.deleteOfUser(userId);
+            eventPublisher.publishEvent(new UserDeletedEvent(userId));
             userRepository.deleteById(userId);
+            userCache.invalidate(userId);
             return true;
         }
         return false;
@@ -102,6 +232,44 @@ class UserServiceImpl implements UserService, UserProvider {
         return userRepository.findByEmailIgnoreCaseContaining(emailFragment);
     }
 
+    /**
+     * Finds one page of users whose email contains the specified fragment, ignoring case, ordered by email.
+     * Fragments of at least three characters are looked up in the {@link UserSearchIndex}, shorter ones (and all
+     * fragments until the index is loaded) are searched in the database. Users found by the index are shared
+     * detached copies.
+     *
+     * @param emailFragment The fragment of the email to search for.
+     * @param cursor cursor returned with the previous page, {@code null} for the first page
+     * @param limit maximal number of users on the page
+     * @return A {@link CursorPage} of matching users.
+     */
+    public CursorPage<User> findByEmailIgnoreCaseContaining(String emailFragment, @Nullable String cursor, int limit) {
+        PageCursor after = Optional.ofNullable(PageCursor.decode(cursor)).orElse(PageCursor.FIRST);
+        List<User> users = userSearchIndex.findByEmailContaining(emailFragment, after, CursorPage.checkLimit(limit) + 1)
+                .orElseGet(() -> {
+                    String escapedFragment = emailFragment.replace("\\", "\\\\")
+                                                          .replace("%", "\\%")
+                                                          .replace("_", "\\_");
+                    return userRepository.findPageByEmailContaining(escapedFragment, after.key(), after.id(), lookahead(limit));
+                });
+        return CursorPage.fromLookahead(users, limit, user -> new PageCursor(user.getEmail(), user.getId()));
+    }
+
+    /**
+     * Finds the users whose email, first name or last name contains the query, ignoring case. Exact matches come
+     * first, followed by prefixes, matches starting a word and other matches; ties are broken by the shorter email.
+     * Until the {@link UserSearchIndex} is loaded only emails are searched, in the database.
+     *
+     * @param query The searched fragment.
+     * @param limit maximal number of users
+     * @return The best matching users, at most {@code limit}.
+     */
+    @Override
+    public List<User> searchUsers(String query, int limit) {
+        return userSearchIndex.search(query, CursorPage.checkLimit(limit))
+                .orElseGet(() -> findByEmailIgnoreCaseContaining(query.strip(), null, limit).items());
+    }
+
     /**
      * Finds all users who are older than the specified age.
      *
@@ -113,6 +281,96 @@ class UserServiceImpl implements UserService, UserProvider {
         return userRepository.findAllByBirthdateBefore(thresholdDate);
     }
 
+    /**
+     * Finds one page of users who are older than the specified age, from the oldest one.
+     *
+     * @param age The age threshold.
+     * @param cursor cursor returned with the previous page, {@code null} for the first page
+     * @param limit maximal number of users on the page
+     * @return A {@link CursorPage} of users older than the specified age.
+     */
+    public CursorPage<User> findUsersOlderThan(int age, @Nullable String cursor, int limit) {
+        LocalDate thresholdDate = LocalDate.now().minusYears(age);
+        PageCursor after = PageCursor.decode(cursor);
+        LocalDate afterBirthdate = after != null ? after.key(LocalDate::parse) : MIN_BIRTHDATE;
+        long afterId = after != null ? after.id() : 0L;
+        List<User> users = userRepository.findPageByBirthdateBefore(thresholdDate, afterBirthdate, afterId, lookahead(limit));
+        return CursorPage.fromLookahead(users, limit, user -> new PageCursor(user.getBirthdate().toString(), user.getId()));
+    }
+
+    /**
+     * Finds one page of users of the given age range, from the oldest one. Pages are served from the birthdate index
+     * of the {@link UserSearchIndex}, or from the database until the index is loaded.
+     *
+     * @param minAge The lowest age, in whole years.
+     * @param maxAge The highest age, in whole years, {@code null} for no upper bound.
+     * @param cursor cursor returned with the previous page, {@code null} for the first page
+     * @param limit maximal number of users on the page
+     * @return A {@link CursorPage} of users of the age range.
+     * @throws BusinessException if the ages are negative, too high or the range is empty
+     */
+    @Override
+    public CursorPage<User> findUsersByAge(int minAge, @Nullable Integer maxAge, @Nullable String cursor, int limit) {
+        checkAge(minAge);
+        if (maxAge != null && checkAge(maxAge) < minAge) {
+            throw new BusinessException("Maximal age has to be at least the minimal age");
+        }
+        LocalDate bornFrom = maxAge != null ? bornBeforeAge(maxAge + 1) : MIN_BIRTHDATE;
+        LocalDate bornBefore = bornBeforeAge(minAge);
+        PageCursor after = PageCursor.decode(cursor);
+        LocalDate afterBirthdate = after != null ? after.key(LocalDate::parse) : MIN_BIRTHDATE;
+        long afterId = after != null ? after.id() : 0L;
+        List<User> users = userSearchIndex.findByBirthdate(bornFrom, bornBefore, afterBirthdate, afterId, CursorPage.checkLimit(limit) + 1)
+                .orElseGet(() -> userRepository.findPageByBirthdateBetween(bornFrom, bornBefore, afterBirthdate, afterId, lookahead(limit)));
+        return CursorPage.fromLookahead(users, limit, user -> new PageCursor(user.getBirthdate().toString(), user.getId()));
+    }
+
+    /**
+     * Counts the users per age bracket: {@code 0..bracketYears-1}, {@code bracketYears..2*bracketYears-1} and so on
+     * up to {@code maxAge}, followed by a bracket of users of {@code maxAge} and older. Users born in the future
+     * are not counted.
+     *
+     * @param bracketYears The number of years of a bracket.
+     * @param maxAge The lowest age of the last bracket.
+     * @return The brackets from the youngest users.
+     * @throws BusinessException if the bracket is shorter than a year or the maximal age is out of range
+     */
+    @Override
+    public List<AgeBracket> countUsersByAge(int bracketYears, int maxAge) {
+        if (bracketYears < 1 || checkAge(maxAge) < 1) {
+            throw new BusinessException("Brackets have to span at least one year up to a maximal age of at least one");
+        }
+        List<Integer> fromAges = new ArrayList<>();
+        for (int age = 0; age < maxAge; age += bracketYears) {
+            fromAges.add(age);
+        }
+        fromAges.add(maxAge);
+        List<LocalDate> bounds = fromAges.stream().map(UserServiceImpl::bornBeforeAge).toList();
+        long[] atLeastAge = userSearchIndex.countBornBefore(bounds)
+                .orElseGet(() -> bounds.stream().mapToLong(userRepository::countByBirthdateBefore).toArray());
+
+        List<AgeBracket> brackets = new ArrayList<>(fromAges.size());
+        for (int i = 0; i < fromAges.size() - 1; i++) {
+            brackets.add(new AgeBracket(fromAges.get(i), fromAges.get(i + 1) - 1, atLeastAge[i] - atLeastAge[i + 1]));
+        }
+        brackets.add(new AgeBracket(maxAge, null, atLeastAge[atLeastAge.length - 1]));
+        return brackets;
+    }
+
+    private static int checkAge(int age) {
+        if (age < 0 || age > MAX_AGE) {
+            throw new BusinessException("Age has to be between 0 and %d".formatted(MAX_AGE));
+        }
+        return age;
+    }
+
+    /**
+     * Users of at least the given age, in whole years, are born before the returned date.
+     */
+    private static LocalDate bornBeforeAge(int age) {
+        return LocalDate.now().minusYears(age).plusDays(1);
+    }
+
     /**
      * Updates the details of an existing user identified by their ID.
      * Throws {@link EntityNotFoundException} if no user is found with the given ID.
@@ -137,13 +395,73 @@ class UserServiceImpl implements UserService, UserProvider {
                 existingUser.setBirthdate(newUserDetails.getBirthdate());
             }
 
-            if (newUserDetails.getEmail() != null) {
+            if (newUserDetails.getEmail() != null && !Objects.equals(newUserDetails.getEmail(), existingUser.getEmail())) {
+                userEmailFilter.remove(existingUser.getEmail());
                 existingUser.setEmail(newUserDetails.getEmail());
             }
 
             log.info("Updating User {}", existingUser);
+            userCache.invalidate(id);
             return userRepository.save(existingUser);
         }).orElseThrow(() -> new EntityNotFoundException("User not found with id " + id));
     }
 
-}
\ No newline at end of file
+    /**
+     * Makes two users friends of each other. Adding an existing friendship again has no effect.
+     * Throws {@link UserNotFoundException} if either user does not exist.
+     *
+     * @param userId The ID of the user.
+     * @param friendId The ID of the new friend of the user.
+     * @throws BusinessException if both IDs are the same.
+     */
+    @Transactional
+    public void addFriend(Long userId, Long friendId) {
+        if (userId.equals(friendId)) {
+            throw new BusinessException("A user cannot be a friend of themselves");
+        }
+        for (Long id : List.of(userId, friendId)) {
+            if (!userRepository.existsById(id)) {
+                throw new UserNotFoundException(id);
+            }
+        }
+        if (friendshipRepository.existsById(new FriendshipId(userId, friendId))) {
+            return;
+        }
+        Instant now = clock.instant();
+        friendshipRepository.saveAll(List.of(new Friendship(new FriendshipId(userId, friendId), now),
+                                             new Friendship(new FriendshipId(friendId, userId), now)));
+    }
+
+    /**
+     * Ends the friendship of two users, in both directions.
+     *
+     * @param userId The ID of the user.
+     * @param friendId The ID of the friend of the user.
+     * @return true if the users were friends, false otherwise.
+     */
+    @Transactional
+    public boolean removeFriend(Long userId, Long friendId) {
+        FriendshipId id = new FriendshipId(userId, friendId);
+        if (!friendshipRepository.existsById(id)) {
+            return false;
+        }
+        friendshipRepository.deleteAllByIdInBatch(List.of(id, new FriendshipId(friendId, userId)));
+        return true;
+    }
+
+    /**
+     * Retrieves the friends of a user.
+     *
+     * @param userId The ID of the user.
+     * @return A list of the friends of the user, in no particular order.
+     */
+    public List<User> findFriends(Long userId) {
+        List<Long> friendIds = findFriendIds(List.of(userId)).getOrDefault(userId, List.of());
+        return friendIds.isEmpty() ? List.of() : findUsersByIds(friendIds);
+    }
+
+    private static Limit lookahead(int limit) {
+        return Limit.of(CursorPage.checkLimit(limit) + 1);
+    }
+
+}
@@ -0,0 +1,221 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Achievements are evaluated asynchronously from committed trainings, so these tests commit their trainings, wait for
+ * the evaluation and clean up afterwards. They rely on the rules of the default configuration.
+ */
+@SpringBootTest(classes = FitnessTracker.class)
+@AutoConfigureMockMvc
+public class AchievementTest {
+
+    private static final Instant MONDAY = Instant.parse("2023-03-06T08:00:00Z");
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TrainingFixture fixture;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TrainingFixture(context);
+        user = fixture.user("Achiever", "One");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+        jdbcTemplate.update("delete from user_achievements where user_id = ?", user.getId());
+        jdbcTemplate.update("delete from achievement_progress where user_id = ?", user.getId());
+    }
+
+    @Test
+    void onTrainingCompleted_ShouldAwardFirstSwimOnce() throws Exception {
+        // given
+        Long first = create(training(ActivityType.SWIMMING, MONDAY, 1.0)).get(0);
+
+        // when
+        create(training(ActivityType.SWIMMING, MONDAY.plus(Duration.ofDays(1)), 1.5));
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).until(() -> progressOf("five-a-week") == 2.0);
+        JsonNode achievements = achievements();
+        assertThat(achievements).hasSize(1);
+        assertThat(achievements.get(0).get("code").asText()).isEqualTo("first-swim");
+        assertThat(achievements.get(0).get("title").asText()).isEqualTo("First swim");
+        assertThat(achievements.get(0).get("trainingId").asLong()).isEqualTo(first);
+    }
+
+    @Test
+    void onTrainingCompleted_ShouldAwardRunningDistanceWhenThresholdIsCrossed() throws Exception {
+        // given
+        create(training(ActivityType.RUNNING, MONDAY, 60.0),
+               training(ActivityType.RUNNING, MONDAY.plus(Duration.ofDays(10)), 30.0));
+        await().atMost(Duration.ofSeconds(5)).until(() -> progressOf("running-100km") == 90.0);
+        assertThat(achievements()).isEmpty();
+
+        // when
+        Long crossing = create(training(ActivityType.RUNNING, MONDAY.plus(Duration.ofDays(40)), 20.0)).get(0);
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).until(() -> achievements().size() == 1);
+        JsonNode achievement = achievements().get(0);
+        assertThat(achievement.get("code").asText()).isEqualTo("running-100km");
+        assertThat(achievement.get("trainingId").asLong()).isEqualTo(crossing);
+    }
+
+    @Test
+    void onTrainingCompleted_ShouldAwardFiveTrainingsWithinOneWeek() throws Exception {
+        // given
+        TrainingDto[] week = new TrainingDto[5];
+        for (int day = 0; day < week.length; day++) {
+            week[day] = training(ActivityType.WALKING, MONDAY.plus(Duration.ofDays(day)), 3.0);
+        }
+
+        // when
+        create(week);
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).until(() -> achievements().size() == 1);
+        assertThat(achievements().get(0).get("code").asText()).isEqualTo("five-a-week");
+    }
+
+    @Test
+    void onTrainingCompleted_ShouldNotCountTrainingsOfPreviousWeeks() throws Exception {
+        // given
+        LocalDate nextMonday = LocalDate.of(2023, 3, 13);
+
+        // when
+        create(training(ActivityType.CYCLING, MONDAY.plus(Duration.ofDays(4)), 20.0),
+               training(ActivityType.CYCLING, MONDAY.plus(Duration.ofDays(5)), 20.0),
+               training(ActivityType.CYCLING, MONDAY.plus(Duration.ofDays(6)), 20.0),
+               training(ActivityType.CYCLING, MONDAY.plus(Duration.ofDays(7)), 20.0),
+               training(ActivityType.CYCLING, MONDAY.plus(Duration.ofDays(8)), 20.0));
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            JsonNode progress = progress("five-a-week");
+            return progress != null && progress.get("windowStart").asText().equals(nextMonday.toString())
+                    && progress.get("progress").asDouble() == 2.0;
+        });
+        assertThat(achievements()).isEmpty();
+    }
+
+    @Test
+    void onTrainingCompleted_OfAnEarlierWeek_ShouldCountTowardsThatWeek() throws Exception {
+        // given
+        create(training(ActivityType.CYCLING, MONDAY.plus(Duration.ofDays(7)), 20.0));
+        await().atMost(Duration.ofSeconds(5)).until(() -> progressOf("five-a-week") == 1.0);
+
+        // when
+        TrainingDto[] earlierWeek = new TrainingDto[5];
+        for (int day = 0; day < earlierWeek.length; day++) {
+            earlierWeek[day] = training(ActivityType.CYCLING, MONDAY.plus(Duration.ofDays(day)), 20.0);
+        }
+        create(earlierWeek);
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).until(() -> achievements().size() == 1);
+        assertThat(achievements().get(0).get("code").asText()).isEqualTo("five-a-week");
+    }
+
+    @Test
+    void onTrainingCompleted_OlderThanTheKeptWeeks_ShouldBeRecordedAsLate() throws Exception {
+        // given
+        TrainingDto[] laterWeeks = new TrainingDto[12];
+        for (int week = 0; week < laterWeeks.length; week++) {
+            laterWeeks[week] = training(ActivityType.CYCLING, MONDAY.plus(Duration.ofDays(7L * (week + 1))), 20.0);
+        }
+        create(laterWeeks);
+        await().atMost(Duration.ofSeconds(5)).until(() -> progressOf("five-a-week") == 1.0);
+        double lateBefore = meterRegistry.get("achievement.trainings.late").counter().count();
+
+        // when
+        create(training(ActivityType.CYCLING, MONDAY, 20.0));
+
+        // then
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.get("achievement.trainings.late").counter().count() > lateBefore);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from achievement_progress where user_id = ? and code = 'five-a-week'",
+                Integer.class, user.getId())).isEqualTo(12);
+    }
+
+    private List<Long> create(TrainingDto... trainings) {
+        return trainingService.createTrainings(Arrays.asList(trainings)).items().stream()
+                .map(item -> item.id())
+                .toList();
+    }
+
+    private JsonNode achievements() throws Exception {
+        String body = mockMvc.perform(get("/v1/achievements/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private double progressOf(String code) throws Exception {
+        JsonNode progress = progress(code);
+        return progress != null ? progress.get("progress").asDouble() : 0;
+    }
+
+    private JsonNode progress(String code) throws Exception {
+        String body = mockMvc.perform(get("/v1/achievements/{userId}/progress", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        for (JsonNode progress : objectMapper.readTree(body)) {
+            if (progress.get("code").asText().equals(code)) {
+                return progress;
+            }
+        }
+        return null;
+    }
+
+    private TrainingDto training(ActivityType activityType, Instant start, double distance) {
+        return fixture.training(user).start(start).activityType(activityType).distance(distance).build();
+    }
+
+}
@@ -0,0 +1,74 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingRepository;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = FitnessTracker.class)
+@AutoConfigureMockMvc
+@Transactional
+public class CompactTrainingListTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Test
+    void getTrainingsByUserId_WithCompactFormat_ShouldIncludeUserOnceAndDatesAsEpochMillis() throws Exception {
+        // given
+        User user = new TrainingFixture(context).user("Compact", "List");
+        Date start = new Date(1_700_000_000_000L);
+        for (int i = 0; i < 3; i++) {
+            trainingRepository.save(new Training(user, new Date(start.getTime() + i * TrainingFixture.HOUR),
+                                                 new Date(start.getTime() + (i + 1) * TrainingFixture.HOUR), ActivityType.CYCLING, 20.0, 25.0));
+        }
+
+        // when
+        JsonNode compact = trainings(user, "COMPACT");
+        JsonNode full = trainings(user, "FULL");
+
+        // then
+        assertThat(compact.get("items")).hasSize(3);
+        assertThat(compact.get("users")).hasSize(1);
+        assertThat(compact.get("users").get(String.valueOf(user.getId())).get("email").asText()).isEqualTo("compact.list@example.com");
+        JsonNode first = compact.get("items").get(0);
+        assertThat(first.get("userId").asLong()).isEqualTo(user.getId());
+        assertThat(first.has("user")).isFalse();
+        assertThat(first.get("startTime").isIntegralNumber()).isTrue();
+        assertThat(first.get("startTime").asLong()).isEqualTo(start.getTime());
+        assertThat(first.get("endTime").asLong()).isEqualTo(start.getTime() + TrainingFixture.HOUR);
+        assertThat(full.get("items").get(0).get("user").get("email").asText()).isEqualTo("compact.list@example.com");
+        assertThat(full.get("items").get(0).get("startTime").isTextual()).isTrue();
+    }
+
+    private JsonNode trainings(User user, String format) throws Exception {
+        String body = mockMvc.perform(get("/v1/trainings/training/user/{userId}", user.getId()).param("format", format))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+}
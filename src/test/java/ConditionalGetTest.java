@@ -0,0 +1,126 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = FitnessTracker.class)
+@AutoConfigureMockMvc
+public class ConditionalGetTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private UserService userService;
+
+    private TrainingFixture fixture;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TrainingFixture(context);
+        user = fixture.user("Conditional", "Get");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void getUserById_ShouldAnswerNotModifiedUntilUserChanges() throws Exception {
+        // given
+        String eTag = eTagOf("/v1/users/user/{id}");
+
+        // when
+        MvcResult notModified = mockMvc.perform(get("/v1/users/user/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andReturn();
+        userService.updateUser(user.getId(), new User("Changed", "Get", LocalDate.of(1990, 1, 1), "conditional.get@example.com"));
+
+        // then
+        assertThat(notModified.getResponse().getContentLength()).isZero();
+        mockMvc.perform(get("/v1/users/user/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Changed")));
+        assertThat(eTagOf("/v1/users/user/{id}")).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void getTrainingsByUserId_ShouldChangeETagWithTrainingsAndUser() throws Exception {
+        // given
+        String empty = eTagOf("/v1/trainings/training/user/{id}");
+        Long trainingId = trainingService.createTrainings(List.of(training(5.0))).items().get(0).id();
+
+        // when
+        String created = eTagOf("/v1/trainings/training/user/{id}");
+
+        // then
+        assertThat(created).isNotEqualTo(empty);
+        mockMvc.perform(get("/v1/trainings/training/user/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, created))
+                .andExpect(status().isNotModified());
+
+        // when
+        TrainingDto longer = training(7.0);
+        longer.setId(trainingId);
+        trainingService.updateTraining(trainingId, longer);
+        String updated = eTagOf("/v1/trainings/training/user/{id}");
+        userService.updateUser(user.getId(), new User("Renamed", "Get", LocalDate.of(1990, 1, 1), "conditional.get@example.com"));
+        String renamed = eTagOf("/v1/trainings/training/user/{id}");
+
+        // then
+        assertThat(updated).isNotEqualTo(created);
+        assertThat(renamed).isNotEqualTo(updated);
+        mockMvc.perform(get("/v1/trainings/training/user/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isOk());
+    }
+
+    private String eTagOf(String uri) throws Exception {
+        String eTag = mockMvc.perform(get(uri, user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+        return eTag;
+    }
+
+    private TrainingDto training(double distance) {
+        return fixture.training(user)
+                .start(new Date())
+                .activityType(ActivityType.WALKING)
+                .distance(distance)
+                .averageSpeed(5.0)
+                .build();
+    }
+
+}
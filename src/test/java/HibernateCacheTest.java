@@ -0,0 +1,132 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingRepository;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures the SQL statements of a typical read mix with cold and warm second-level and query caches. The caches
+ * live across transactions, so these tests commit their data and clean up afterwards. Background pollers are slowed
+ * down, so they do not add statements to the measured ones.
+ */
+@SpringBootTest(classes = FitnessTracker.class,
+                properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+                              "mail.outbox.poll-interval=PT1H",
+                              "training.events.spill-drain-interval=PT1H"})
+@AutoConfigureMockMvc
+@Slf4j
+public class HibernateCacheTest {
+
+    private static final int USERS = 20;
+    private static final int TRAININGS_PER_USER = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(new User("Cached", "User" + i, LocalDate.of(1990, 1, 1), "cached%d@example.com".formatted(i)));
+            for (int j = 0; j < TRAININGS_PER_USER; j++) {
+                trainingRepository.save(new Training(user, new Date(0), new Date(3_600_000L), ActivityType.RUNNING, j, 10.0));
+            }
+            users.add(user);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        users.forEach(user -> trainingRepository.deleteAll(trainingRepository.findByUserId(user.getId())));
+        userRepository.deleteAll(users);
+        users.clear();
+    }
+
+    @Test
+    void readMix_ShouldRunNoStatementsOnceCachesAreWarm() {
+        // given
+        entityManagerFactory.getCache().evictAll();
+
+        // when
+        long cold = statementsOf(this::readMix);
+        long warm = statementsOf(this::readMix);
+
+        // then
+        log.info("Read mix of {} users with {} trainings each: {} statements cold, {} statements warm",
+                 USERS, TRAININGS_PER_USER, cold, warm);
+        assertThat(cold).isGreaterThanOrEqualTo(3L * USERS);
+        assertThat(warm).isZero();
+    }
+
+    @Test
+    void findByUserId_ShouldNotServeCachedResultsAfterWrite() {
+        // given
+        User user = users.get(0);
+        assertThat(trainingRepository.findByUserId(user.getId())).hasSize(TRAININGS_PER_USER);
+
+        // when
+        trainingRepository.save(new Training(user, new Date(0), new Date(3_600_000L), ActivityType.CYCLING, 1.0, 20.0));
+
+        // then
+        assertThat(trainingRepository.findByUserId(user.getId())).hasSize(TRAININGS_PER_USER + 1);
+    }
+
+    @Test
+    void metricsEndpoint_ShouldExposeSecondLevelCacheStatistics() throws Exception {
+        // given
+        userRepository.findById(users.get(0).getId());
+
+        // when + then
+        mockMvc.perform(get("/actuator/metrics/hibernate.second.level.cache.requests").param("tag", "region:users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").isNumber());
+    }
+
+    private void readMix() {
+        for (User user : users) {
+            assertThat(userRepository.findById(user.getId())).isPresent();
+            assertThat(userRepository.findByEmail(user.getEmail())).isPresent();
+            assertThat(trainingRepository.findByUserId(user.getId())).hasSize(TRAININGS_PER_USER);
+        }
+    }
+
+    private long statementsOf(Runnable reads) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        reads.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+}
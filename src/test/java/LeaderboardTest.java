@@ -0,0 +1,135 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The leaderboards follow committed changes only, so these tests commit their trainings and clean up afterwards.
+ * The distances are far longer than any other test uses, so the users of these tests lead the boards.
+ */
+@SpringBootTest(classes = FitnessTracker.class)
+@AutoConfigureMockMvc
+public class LeaderboardTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    private TrainingFixture fixture;
+
+    private User first;
+    private User second;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TrainingFixture(context);
+        first = fixture.user("Leader", "One");
+        second = fixture.user("Leader", "Two");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void getLeaderboard_ShouldRankUsersByTotalDistanceOfWindow() throws Exception {
+        // given
+        Instant now = Instant.now();
+        create(training(first, now, 60_000.0));
+        create(training(first, now, 50_000.0));
+        create(training(second, now, 80_000.0));
+        create(training(second, now.plus(Duration.ofDays(400)), 90_000.0));
+
+        // when
+        JsonNode week = leaderboard("WEEK");
+        JsonNode allTime = leaderboard("ALL_TIME");
+
+        // then
+        assertThat(week.get(0).get("userId").asLong()).isEqualTo(first.getId());
+        assertThat(week.get(0).get("rank").asInt()).isEqualTo(1);
+        assertThat(week.get(0).get("totalDistance").asDouble()).isEqualTo(110_000.0);
+        assertThat(week.get(0).get("trainings").asInt()).isEqualTo(2);
+        assertThat(week.get(1).get("userId").asLong()).isEqualTo(second.getId());
+        assertThat(week.get(1).get("totalDistance").asDouble()).isEqualTo(80_000.0);
+        assertThat(allTime.get(0).get("userId").asLong()).isEqualTo(second.getId());
+        assertThat(allTime.get(0).get("totalDistance").asDouble()).isEqualTo(170_000.0);
+        assertThat(entry(second, "MONTH").get("rank").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    void getLeaderboard_ShouldFollowUpdatesAndDeletes() throws Exception {
+        // given
+        Instant start = Instant.now();
+        Long leading = create(training(first, start, 70_000.0));
+        Long following = create(training(second, start, 60_000.0));
+
+        // when
+        TrainingDto shortened = training(first, start, 50_000.0);
+        shortened.setId(leading);
+        trainingService.updateTraining(leading, shortened);
+
+        // then
+        assertThat(entry(second, "WEEK").get("rank").asInt()).isEqualTo(1);
+        assertThat(entry(first, "WEEK").get("rank").asInt()).isEqualTo(2);
+        assertThat(entry(first, "WEEK").get("totalDistance").asDouble()).isEqualTo(50_000.0);
+
+        // when
+        trainingService.deleteTraining(following);
+
+        // then
+        assertThat(entry(first, "ALL_TIME").get("rank").asInt()).isEqualTo(1);
+        mockMvc.perform(get("/v1/trainings/leaderboards/TENNIS/users/{userId}", second.getId()).param("window", "WEEK"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long create(TrainingDto training) {
+        return trainingService.createTrainings(List.of(training)).items().get(0).id();
+    }
+
+    private JsonNode leaderboard(String window) throws Exception {
+        String body = mockMvc.perform(get("/v1/trainings/leaderboards/TENNIS").param("window", window))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode entry(User user, String window) throws Exception {
+        String body = mockMvc.perform(get("/v1/trainings/leaderboards/TENNIS/users/{userId}", user.getId()).param("window", window))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private TrainingDto training(User user, Instant start, double distance) {
+        return fixture.training(user).start(start).activityType(ActivityType.TENNIS).distance(distance).build();
+    }
+
+}
@@ -0,0 +1,109 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.mail.internal.OutboxDispatcher;
+import com.capgemini.wsb.fitnesstracker.mail.internal.OutboxEmail;
+import com.capgemini.wsb.fitnesstracker.mail.internal.OutboxEmailRepository;
+import com.capgemini.wsb.fitnesstracker.mail.internal.OutboxStatus;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delivers the outbox to a GreenMail SMTP server on its test port. Uses its own in-memory database, so the
+ * dispatchers of other cached test contexts do not drain its outbox, and polls rarely, so the tests drive the
+ * dispatcher themselves. Only this context sends to the GreenMail port, so emails enqueued by other test contexts
+ * never reach the server.
+ */
+@SpringBootTest(classes = FitnessTracker.class,
+                properties = {"spring.datasource.url=jdbc:h2:mem:mailtest",
+                              "spring.mail.port=3025",
+                              "mail.outbox.poll-interval=PT1H",
+                              "mail.outbox.initial-backoff=0s",
+                              "mail.outbox.max-attempts=2"})
+@Slf4j
+public class MailOutboxTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        outboxEmailRepository.deleteAll();
+    }
+
+    @Test
+    void dispatch_ShouldDeliverAllEnqueuedEmailsInBatches() {
+        // given
+        int emails = 1000;
+        long enqueueStart = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < emails; i++) {
+                emailSender.send(new EmailDto("user%d@example.com".formatted(i), "Subject " + i, "Content " + i));
+            }
+        });
+        long enqueueNanos = System.nanoTime() - enqueueStart;
+
+        // when
+        long dispatchStart = System.nanoTime();
+        int delivered = outboxDispatcher.dispatch();
+        long dispatchNanos = System.nanoTime() - dispatchStart;
+
+        // then
+        log.info("Enqueued {} emails at {} emails/s, delivered them at {} emails/s",
+                 emails, emails * 1_000_000_000L / enqueueNanos, emails * 1_000_000_000L / dispatchNanos);
+        assertThat(delivered).isEqualTo(emails);
+        assertThat(greenMail.getReceivedMessages()).hasSize(emails);
+        assertThat(outboxEmailRepository.count()).isZero();
+    }
+
+    @Test
+    void dispatch_WhenServerIsDown_ShouldRetryAndFinallyMoveEmailToDeadLetters() {
+        // given
+        greenMail.stop();
+        emailSender.send(new EmailDto("dead@example.com", "Subject", "Content"));
+
+        // when
+        int delivered = outboxDispatcher.dispatch();
+
+        // then
+        assertThat(delivered).isZero();
+        OutboxEmail retried = outboxEmailRepository.findAll().get(0);
+        assertThat(retried.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).isNotBlank();
+
+        // when
+        outboxDispatcher.dispatch();
+
+        // then
+        List<OutboxEmail> dead = outboxEmailRepository.findAll();
+        assertThat(dead).hasSize(1);
+        assertThat(dead.get(0).getStatus()).isEqualTo(OutboxStatus.DEAD);
+        assertThat(outboxDispatcher.dispatch()).isZero();
+        assertThat(outboxEmailRepository.countByStatus(OutboxStatus.DEAD)).isEqualTo(1);
+    }
+
+}
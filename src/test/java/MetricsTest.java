@@ -0,0 +1,65 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserDto;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = FitnessTracker.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Transactional
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void prometheusEndpoint_ShouldExposeControllerServiceStepAndRepositoryMetrics() throws Exception {
+        // given
+        User user = userRepository.save(new User("Metrics", "Doe", LocalDate.of(1990, 1, 1), "metrics.doe@example.com"));
+        trainingService.createTraining(new TrainingDto(990_001L, new UserDto(user.getId(), null, null, null, null),
+                                                       new Date(), new Date(), ActivityType.RUNNING, 5.0, 10.0));
+        mockMvc.perform(get("/v1/users/user/{id}", user.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/trainings/training/user/{userId}", user.getId())).andExpect(status().isOk());
+
+        // when
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        assertThat(scrape).containsPattern("user_controller_seconds_bucket\\{.*method=\"getUserById\"");
+        assertThat(scrape).containsPattern("training_controller_seconds_count\\{.*method=\"getTrainingsByUserId\"");
+        assertThat(scrape).containsPattern("user_service_seconds_count\\{.*method=\"getUser\"");
+        assertThat(scrape).containsPattern("training_service_seconds_bucket\\{.*method=\"createTraining\"");
+        assertThat(scrape).containsPattern("http_server_requests_seconds_bucket\\{.*uri=\"/v1/users/user/\\{id}\"");
+        for (String step : new String[]{"validation", "db", "mapping"}) {
+            assertThat(scrape).containsPattern("training_service_steps_seconds_count\\{operation=\"createTraining\",step=\"" + step + "\"");
+        }
+        assertThat(scrape).containsPattern("training_service_steps_seconds_count\\{operation=\"findTrainingsByUserId\",step=\"db\"");
+        assertThat(scrape).containsPattern("spring_data_repository_invocations_seconds_count\\{.*method=\"findByUserIdAndIdGreaterThanOrderById\".*state=\"SUCCESS\"");
+    }
+
+}
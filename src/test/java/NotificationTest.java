@@ -0,0 +1,175 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.mail.internal.OutboxEmail;
+import com.capgemini.wsb.fitnesstracker.mail.internal.OutboxEmailRepository;
+import com.capgemini.wsb.fitnesstracker.notification.internal.TrainingNotifier;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Uses its own in-memory database and drives the notifier itself: the window and the outbox polling are too long to
+ * elapse during the tests, so the notifications are inspected in the outbox.
+ */
+@SpringBootTest(classes = FitnessTracker.class,
+                properties = {"spring.datasource.url=jdbc:h2:mem:notificationtest",
+                              "mail.outbox.poll-interval=PT1H",
+                              "notification.trainings.coalesce-window=PT1H",
+                              "notification.trainings.queue-capacity=10"})
+@AutoConfigureMockMvc
+public class NotificationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TrainingNotifier trainingNotifier;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    private TrainingFixture fixture;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TrainingFixture(context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        trainingNotifier.notifyPending();
+        fixture.cleanUp();
+        outboxEmailRepository.deleteAll();
+    }
+
+    @Test
+    void notifyPending_ShouldSendOneMessagePerFriendAndTheOwnerForAllTrainingsOfTheWindow() {
+        // given
+        User popular = fixture.user("Popular", "User");
+        List<User> friends = IntStream.range(0, 200).mapToObj(i -> fixture.user("Friend" + i, "User")).toList();
+        friends.forEach(friend -> userService.addFriend(popular.getId(), friend.getId()));
+        create(training(popular, ActivityType.RUNNING, 10.0), training(popular, ActivityType.CYCLING, 42.0));
+        await().atMost(Duration.ofSeconds(5)).until(() -> trainingNotifier.pendingTrainings() == 2);
+
+        // when
+        int notifications = trainingNotifier.notifyPending();
+
+        // then
+        assertThat(notifications).isEqualTo(201);
+        List<OutboxEmail> emails = outboxEmailRepository.findAll();
+        assertThat(emails).hasSize(201);
+        assertThat(emails).extracting(OutboxEmail::getToAddress)
+                .containsExactlyInAnyOrderElementsOf(Stream.concat(friends.stream(), Stream.of(popular)).map(User::getEmail).toList());
+        assertThat(emails).allSatisfy(email -> assertThat(email.getSubject()).isEqualTo("2 trainings completed"));
+        assertThat(emails).filteredOn(email -> !email.getToAddress().equals(popular.getEmail()))
+                .allSatisfy(email -> assertThat(email.getContent())
+                        .contains("Popular User: Running, 10.0 km", "Popular User: Cycling, 42.0 km"));
+        assertThat(emailsTo(popular)).singleElement()
+                .satisfies(email -> assertThat(email.getContent()).contains("You: Running, 10.0 km", "You: Cycling, 42.0 km"));
+    }
+
+    @Test
+    void notifyPending_ShouldCoalesceTrainingsOfSeveralFriendsAndStopAfterUnfriending() throws Exception {
+        // given
+        User first = fixture.user("First", "User");
+        User second = fixture.user("Second", "User");
+        User common = fixture.user("Common", "User");
+        mockMvc.perform(put("/v1/users/user/{id}/friends/{friendId}", first.getId(), common.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/v1/users/user/{id}/friends/{friendId}", common.getId(), second.getId()))
+                .andExpect(status().isOk());
+        create(training(first, ActivityType.WALKING, 5.0));
+        create(training(second, ActivityType.SWIMMING, 1.5));
+        await().atMost(Duration.ofSeconds(5)).until(() -> trainingNotifier.pendingTrainings() == 2);
+
+        // when
+        trainingNotifier.notifyPending();
+
+        // then
+        List<OutboxEmail> emails = outboxEmailRepository.findAll();
+        assertThat(emails).extracting(OutboxEmail::getToAddress)
+                .containsExactlyInAnyOrder(common.getEmail(), first.getEmail(), second.getEmail());
+        assertThat(emailsTo(common)).singleElement()
+                .satisfies(email -> assertThat(email.getContent()).contains("First User: Walking, 5.0 km", "Second User: Swimming, 1.5 km"));
+
+        // when
+        mockMvc.perform(delete("/v1/users/user/{id}/friends/{friendId}", common.getId(), first.getId()))
+                .andExpect(status().isOk());
+        create(training(first, ActivityType.WALKING, 6.0));
+        await().atMost(Duration.ofSeconds(5)).until(() -> trainingNotifier.pendingTrainings() == 1);
+
+        // then: only the owner is notified
+        assertThat(trainingNotifier.notifyPending()).isEqualTo(1);
+        assertThat(emailsTo(common)).hasSize(1);
+        assertThat(emailsTo(first)).hasSize(2);
+    }
+
+    @Test
+    void onTrainingCompleted_WithFullQueue_ShouldNotifyEarlyInsteadOfWaiting() {
+        // given
+        User busy = fixture.user("Busy", "User");
+        TrainingSnapshot training = new TrainingSnapshot(1L, busy.getId(), ActivityType.RUNNING, new Date(0),
+                                                         new Date(TrainingFixture.HOUR), 5.0, 5.0);
+
+        // when
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 11; i++) {
+                trainingNotifier.onTrainingCompleted(new TrainingCompletedEvent(training));
+            }
+        });
+
+        // then
+        assertThat(trainingNotifier.pendingTrainings()).isEqualTo(1);
+        assertThat(emailsTo(busy)).singleElement()
+                .satisfies(email -> assertThat(email.getSubject()).isEqualTo("10 trainings completed"));
+    }
+
+    private List<OutboxEmail> emailsTo(User user) {
+        return outboxEmailRepository.findAll().stream()
+                .filter(email -> email.getToAddress().equals(user.getEmail()))
+                .toList();
+    }
+
+    private void create(TrainingDto... trainings) {
+        trainingService.createTrainings(Arrays.asList(trainings));
+    }
+
+    private TrainingDto training(User user, ActivityType activityType, double distance) {
+        return fixture.training(user).start("2024-01-01T10:00:00Z").activityType(activityType).distance(distance).build();
+    }
+
+}
@@ -0,0 +1,136 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.statistics.internal.StatisticsRebuildJob;
+import com.capgemini.wsb.fitnesstracker.statistics.internal.StatisticsRepository;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.BulkTrainingResultDto;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Statistics are written right before the training transaction commits, so these tests commit their changes
+ * and clean up afterwards instead of rolling back.
+ */
+@SpringBootTest(classes = FitnessTracker.class)
+public class StatisticsTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private StatisticsProvider statisticsProvider;
+
+    @Autowired
+    private StatisticsRebuildJob statisticsRebuildJob;
+
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TrainingFixture fixture;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TrainingFixture(context);
+        user = fixture.user("Stats", "Doe");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void trainingChanges_ShouldBeAppliedToStatisticsIncrementally() {
+        // given
+        BulkTrainingResultDto created = trainingService.createTrainings(List.of(
+                fixture.training(user).build(),
+                fixture.training(user).hours(2).activityType(ActivityType.WALKING).distance(6.0).build()));
+
+        // then: 9.8 MET * 70 kg * 1 h + 3.5 MET * 70 kg * 2 h
+        assertStatistics(2, 16.0, 686 + 490);
+
+        // when
+        Long walkingId = created.items().get(1).id();
+        TrainingDto update = fixture.training(user).hours(2).activityType(ActivityType.WALKING).distance(8.0).build();
+        update.setId(walkingId);
+        trainingService.updateTraining(walkingId, update);
+
+        // then
+        assertStatistics(2, 18.0, 686 + 490);
+
+        // when
+        trainingService.deleteTraining(created.items().get(0).id());
+
+        // then
+        assertStatistics(1, 8.0, 490);
+    }
+
+    @Test
+    void rebuild_ShouldRepairStatisticsOfTrainingsChangedBehindTheService() {
+        // given
+        trainingService.createTrainings(List.of(fixture.training(user).activityType(ActivityType.CYCLING).distance(20.0).build()));
+        jdbcTemplate.update("update trainings set distance = 30 where user_id = ?", user.getId());
+
+        // when
+        statisticsRebuildJob.rebuild();
+
+        // then: 7.5 MET * 70 kg * 1 h
+        assertStatistics(1, 30.0, 525);
+    }
+
+    @Test
+    void deleteUser_WhoHadTrainings_ShouldDeleteTheirStatisticsAndRollups() {
+        // given
+        BulkTrainingResultDto created = trainingService.createTrainings(List.of(
+                fixture.training(user).build()));
+        trainingService.deleteTraining(created.items().get(0).id());
+
+        // when
+        boolean deleted = userService.deleteUser(user.getId());
+
+        // then
+        assertThat(deleted).isTrue();
+        assertThat(userRepository.existsById(user.getId())).isFalse();
+        assertThat(statisticsRepository.existsById(user.getId())).isFalse();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from training_rollups where user_id = ?",
+                                               Integer.class, user.getId())).isZero();
+    }
+
+    private void assertStatistics(int trainings, double distance, int calories) {
+        Statistics statistics = statisticsProvider.getStatistics(user.getId()).orElseThrow();
+        assertThat(statistics.getTotalTrainings()).isEqualTo(trainings);
+        assertThat(statistics.getTotalDistance()).isCloseTo(distance, within(1e-9));
+        assertThat(statistics.getTotalCaloriesBurned()).isEqualTo(calories);
+    }
+
+}
@@ -0,0 +1,92 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingRepository;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generates a small synthetic dataset on its own in-memory database, with more workers than needed and batches not
+ * aligned to the users, so the tasks of the workers interleave.
+ */
+@SpringBootTest(classes = FitnessTracker.class,
+                properties = {"spring.datasource.url=jdbc:h2:mem:generatortest",
+                              "loader.synthetic.users=300",
+                              "loader.synthetic.trainings-per-user=4",
+                              "loader.synthetic.workers=3",
+                              "loader.synthetic.users-per-task=70",
+                              "loader.synthetic.batch-size=64",
+                              "mail.outbox.poll-interval=PT1H",
+                              "training.events.spill-drain-interval=PT1H"})
+@ActiveProfiles("generateData")
+public class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Test
+    void generateOnStartup_ShouldCreateConfiguredNumberOfUsersAndTrainings() {
+        // then
+        assertThat(userRepository.count()).isEqualTo(300);
+        assertThat(trainingRepository.count()).isEqualTo(1200);
+        assertThat(jdbcTemplate.queryForList("select count(*) from trainings group by user_id", Long.class))
+                .hasSize(300)
+                .containsOnly(4L);
+        assertThat(jdbcTemplate.queryForObject("select count(distinct email) from users", Long.class)).isEqualTo(300);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from statistics where user_id <= 300", Long.class)).isEqualTo(300);
+    }
+
+    @Test
+    void generateOnStartup_ShouldCreateRealisticTrainings() {
+        // when
+        Map<Integer, Long> trainingsByActivity = jdbcTemplate.queryForList("select activity_type from trainings", Integer.class)
+                .stream()
+                .collect(Collectors.groupingBy(activity -> activity, Collectors.counting()));
+
+        // then
+        assertThat(trainingsByActivity).containsOnlyKeys(0, 1, 2, 3, 4);
+        assertThat(trainingsByActivity.get(ActivityType.RUNNING.ordinal()))
+                .isGreaterThan(trainingsByActivity.get(ActivityType.TENNIS.ordinal()));
+        assertThat(jdbcTemplate.queryForObject("""
+                select count(*) from trainings
+                where end_time <= start_time or distance <= 0 or average_speed <= 0
+                   or start_time < timestamp '2023-01-31 00:00:00' or start_time >= timestamp '2024-01-31 00:00:00'
+                """, Long.class)).isZero();
+    }
+
+    @Test
+    void generateOnStartup_ShouldLeaveIdsForNewRows() {
+        // when
+        User user = userRepository.save(new User("After", "Generation", LocalDate.of(1990, 1, 1), "after.generation@example.com"));
+        Training training = trainingRepository.save(new Training(user, new Date(), new Date(), ActivityType.RUNNING, 5.0, 10.0));
+
+        // then
+        try {
+            assertThat(user.getId()).isEqualTo(301);
+            assertThat(training.getId()).isGreaterThan(jdbcTemplate.queryForObject(
+                    "select max(id) from trainings where user_id <> ?", Long.class, user.getId()));
+        } finally {
+            trainingRepository.delete(training);
+            userRepository.delete(user);
+        }
+    }
+
+}
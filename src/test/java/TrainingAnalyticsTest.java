@@ -0,0 +1,123 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.BulkTrainingResultDto;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The column store follows committed changes only, so these tests commit their trainings and clean up afterwards.
+ * Trainings are placed in a year no other test uses.
+ */
+@SpringBootTest(classes = FitnessTracker.class)
+@AutoConfigureMockMvc
+public class TrainingAnalyticsTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    private TrainingFixture fixture;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TrainingFixture(context);
+        user = fixture.user("Analytics", "Doe");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void aggregateTrainings_ShouldGroupCommittedTrainingsByActivityAndBucket() throws Exception {
+        // given: two runs in the first week of March 2091, one run and one swim in the second week
+        BulkTrainingResultDto created = trainingService.createTrainings(List.of(
+                training("2091-03-05T10:00:00Z", 1, ActivityType.RUNNING, 10.0, 10.0),
+                training("2091-03-06T10:00:00Z", 2, ActivityType.RUNNING, 20.0, 12.0),
+                training("2091-03-12T10:00:00Z", 1, ActivityType.RUNNING, 8.0, 8.0),
+                training("2091-03-13T10:00:00Z", 1, ActivityType.SWIMMING, 2.0, 2.0)));
+
+        // when
+        JsonNode aggregates = aggregate("2091-03-05T00:00:00Z", "2091-03-19T00:00:00Z", "WEEKS");
+
+        // then
+        assertThat(aggregates).hasSize(3);
+        JsonNode firstWeek = aggregates.get(0);
+        assertThat(firstWeek.get("activityType").asText()).isEqualTo("RUNNING");
+        assertThat(Instant.parse(firstWeek.get("bucketStart").asText())).isEqualTo(Instant.parse("2091-03-05T00:00:00Z"));
+        assertThat(firstWeek.get("trainings").asLong()).isEqualTo(2);
+        assertThat(firstWeek.get("totalDistance").asDouble()).isEqualTo(30.0);
+        assertThat(firstWeek.get("averageSpeed").asDouble()).isEqualTo(11.0);
+        assertThat(firstWeek.get("totalDurationSeconds").asLong()).isEqualTo(3 * 3600);
+        assertThat(aggregates.get(1).get("activityType").asText()).isEqualTo("RUNNING");
+        assertThat(aggregates.get(2).get("activityType").asText()).isEqualTo("SWIMMING");
+
+        // when
+        trainingService.deleteTraining(created.items().get(0).id());
+
+        // then
+        JsonNode afterDelete = aggregate("2091-03-05T00:00:00Z", "2091-03-12T00:00:00Z", "WEEKS");
+        assertThat(afterDelete).hasSize(1);
+        assertThat(afterDelete.get(0).get("trainings").asLong()).isEqualTo(1);
+        assertThat(afterDelete.get(0).get("totalDistance").asDouble()).isEqualTo(20.0);
+    }
+
+    @Test
+    void aggregateTrainings_WhenBucketUnitIsNotSupported_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/v1/statistics/trainings")
+                                .param("from", "2091-01-01T00:00:00Z")
+                                .param("to", "2092-01-01T00:00:00Z")
+                                .param("bucket", "SECONDS"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode aggregate(String from, String to, String bucket) throws Exception {
+        String body = mockMvc.perform(get("/v1/statistics/trainings")
+                                              .param("from", from)
+                                              .param("to", to)
+                                              .param("bucket", bucket))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private TrainingDto training(String start, int hours, ActivityType activityType, double distance, double averageSpeed) {
+        return fixture.training(user)
+                .start(start)
+                .hours(hours)
+                .activityType(activityType)
+                .distance(distance)
+                .averageSpeed(averageSpeed)
+                .build();
+    }
+
+}
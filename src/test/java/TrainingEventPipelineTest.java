@@ -0,0 +1,178 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingCompletedListener;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.BulkTrainingResultDto;
+import com.capgemini.wsb.fitnesstracker.training.internal.SpilledTrainingEventRepository;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the pipeline with a single delivery thread and a queue of one event, so a blocked listener makes further
+ * events overflow. Uses its own in-memory database, so the spill drainers of other cached test contexts do not
+ * take its spilled events.
+ */
+@SpringBootTest(classes = FitnessTracker.class,
+                properties = {"spring.datasource.url=jdbc:h2:mem:eventtest",
+                              "training.events.threads=1",
+                              "training.events.queue-capacity=1",
+                              "training.events.overflow-policy=SPILL",
+                              "training.events.spill-drain-interval=PT0.2S"})
+@Import(TrainingEventPipelineTest.ListenerConfig.class)
+public class TrainingEventPipelineTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private SpilledTrainingEventRepository spilledTrainingEventRepository;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TrainingFixture fixture;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TrainingFixture(context);
+        user = fixture.user("Events", "Doe");
+        listener.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.open();
+        fixture.cleanUp();
+    }
+
+    @Test
+    void createTrainings_ShouldDeliverEventAsynchronouslyAfterCommit() {
+        // when
+        Long trainingId = createTraining();
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).until(() -> listener.delivered.containsKey(trainingId));
+        assertThat(listener.delivered.get(trainingId)).startsWith("training-events-");
+    }
+
+    @Test
+    void createTrainings_WhenTransactionRollsBack_ShouldNotDeliverEvent() {
+        // given
+        Long rolledBackId = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return createTraining();
+        });
+
+        // when: events are delivered in order by the single thread
+        Long committedId = createTraining();
+
+        // then
+        await().atMost(Duration.ofSeconds(5)).until(() -> listener.delivered.containsKey(committedId));
+        assertThat(listener.delivered).doesNotContainKey(rolledBackId);
+    }
+
+    @Test
+    void createTrainings_WhenQueueIsFull_ShouldSpillAndDeliverLater() {
+        // given
+        double overflowBefore = meterRegistry.get("training.events.overflow").counter().count();
+        listener.close();
+
+        // when
+        BulkTrainingResultDto created = trainingService.createTrainings(IntStream.range(0, 5).mapToObj(i -> fixture.training(user).build()).toList());
+
+        // then: one event is being delivered, one waits in the queue and the rest is spilled
+        assertThat(spilledTrainingEventRepository.count()).isGreaterThanOrEqualTo(3);
+        assertThat(meterRegistry.get("training.events.overflow").counter().count() - overflowBefore).isGreaterThanOrEqualTo(3);
+
+        // when
+        listener.open();
+
+        // then
+        List<Long> ids = created.items().stream().map(item -> item.id()).toList();
+        await().atMost(Duration.ofSeconds(10)).until(() -> listener.delivered.keySet().containsAll(ids));
+        // the drain deletes spilled rows after queueing them, so delivery may overtake the delete
+        await().atMost(Duration.ofSeconds(5)).until(() -> spilledTrainingEventRepository.count() == 0);
+        assertThat(meterRegistry.get("training.events.handler").tag("listener", "RecordingListener").timer().count())
+                .isGreaterThanOrEqualTo(5);
+        assertThat(meterRegistry.get("training.events.queue.depth").gauge().value()).isZero();
+    }
+
+    private Long createTraining() {
+        return trainingService.createTrainings(List.of(fixture.training(user).build())).items().get(0).id();
+    }
+
+    @TestConfiguration
+    static class ListenerConfig {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    /**
+     * Records the delivering thread of every training and blocks while closed.
+     */
+    static class RecordingListener implements TrainingCompletedListener {
+
+        private final Map<Long, String> delivered = new ConcurrentHashMap<>();
+
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        @Override
+        public void onTrainingCompleted(TrainingCompletedEvent event) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delivered.put(event.training().trainingId(), Thread.currentThread().getName());
+        }
+
+        void reset() {
+            delivered.clear();
+            open();
+        }
+
+        void close() {
+            gate = new CountDownLatch(1);
+        }
+
+        void open() {
+            gate.countDown();
+        }
+    }
+
+}
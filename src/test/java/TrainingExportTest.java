@@ -0,0 +1,82 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingRepository;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = FitnessTracker.class)
+@AutoConfigureMockMvc
+@Transactional
+public class TrainingExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportTrainingsOfUser_ShouldWriteOneJsonLinePerTraining() throws Exception {
+        // given
+        User user = userRepository.save(new User("Export", "Doe", LocalDate.of(1990, 1, 1), "export.doe@example.com"));
+        trainingRepository.save(new Training(user, new Date(), new Date(), ActivityType.RUNNING, 5.0, 10.0));
+        trainingRepository.save(new Training(user, new Date(), new Date(), ActivityType.CYCLING, 15.0, 20.0));
+
+        // when
+        String body = mockMvc.perform(get("/v1/trainings/export/user/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        for (String line : lines) {
+            JsonNode training = objectMapper.readTree(line);
+            assertThat(training.get("user").get("email").asText()).isEqualTo("export.doe@example.com");
+        }
+        assertThat(objectMapper.readTree(lines.get(1)).get("activityType").asText()).isEqualTo("CYCLING");
+    }
+
+    @Test
+    void exportAllTrainings_ShouldContainAllTrainings() throws Exception {
+        // when
+        String body = mockMvc.perform(get("/v1/trainings/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        assertThat(body.lines().count()).isEqualTo(trainingRepository.count());
+    }
+
+    @Test
+    void exportTrainingsOfUser_WhenUserDoesNotExist_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/v1/trainings/export/user/{userId}", 999L))
+                .andExpect(status().isNotFound());
+    }
+
+}
@@ -0,0 +1,122 @@
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingRepository;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserDto;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import org.springframework.context.ApplicationContext;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Users and trainings of the tests committing their trainings through the training service. The users created by the
+ * fixture are deleted by {@link #cleanUp()} together with their trainings, through the services, so the statistics
+ * and rollups derived from the trainings are deleted as well.
+ */
+class TrainingFixture {
+
+    static final long HOUR = 3_600_000L;
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final TrainingService trainingService;
+    private final TrainingRepository trainingRepository;
+    private final List<User> users = new ArrayList<>();
+
+    TrainingFixture(ApplicationContext context) {
+        this.userRepository = context.getBean(UserRepository.class);
+        this.userService = context.getBean(UserService.class);
+        this.trainingService = context.getBean(TrainingService.class);
+        this.trainingRepository = context.getBean(TrainingRepository.class);
+    }
+
+    /**
+     * Saves a user born on 1990-01-01 with the email {@code firstname.lastname@example.com}.
+     */
+    User user(String firstName, String lastName) {
+        User user = userRepository.save(new User(firstName, lastName, LocalDate.of(1990, 1, 1),
+                                                 (firstName + "." + lastName + "@example.com").toLowerCase()));
+        users.add(user);
+        return user;
+    }
+
+    /**
+     * Deletes the trainings and the users created by the fixture, skipping users a test already deleted.
+     */
+    void cleanUp() {
+        for (User user : users) {
+            trainingRepository.findByUserId(user.getId()).forEach(training -> trainingService.deleteTraining(training.getId()));
+            userService.deleteUser(user.getId());
+        }
+        users.clear();
+    }
+
+    /**
+     * Starts a training of the user, by default a one hour run of 10 km at 10 km/h starting at the epoch.
+     */
+    TrainingBuilder training(User user) {
+        return new TrainingBuilder(user);
+    }
+
+    static class TrainingBuilder {
+
+        private final User user;
+        private Date startTime = new Date(0);
+        private int hours = 1;
+        private ActivityType activityType = ActivityType.RUNNING;
+        private double distance = 10.0;
+        private double averageSpeed = 10.0;
+
+        private TrainingBuilder(User user) {
+            this.user = user;
+        }
+
+        TrainingBuilder start(Date startTime) {
+            this.startTime = startTime;
+            return this;
+        }
+
+        TrainingBuilder start(Instant startTime) {
+            return start(Date.from(startTime));
+        }
+
+        /**
+         * @param startTime start time in ISO-8601 format, e.g. {@code 2091-03-05T10:00:00Z}
+         */
+        TrainingBuilder start(String startTime) {
+            return start(Instant.parse(startTime));
+        }
+
+        TrainingBuilder hours(int hours) {
+            this.hours = hours;
+            return this;
+        }
+
+        TrainingBuilder activityType(ActivityType activityType) {
+            this.activityType = activityType;
+            return this;
+        }
+
+        TrainingBuilder distance(double distance) {
+            this.distance = distance;
+            return this;
+        }
+
+        TrainingBuilder averageSpeed(double averageSpeed) {
+            this.averageSpeed = averageSpeed;
+            return this;
+        }
+
+        TrainingDto build() {
+            return new TrainingDto(null, new UserDto(user.getId(), null, null, null, null), startTime,
+                                   new Date(startTime.getTime() + hours * HOUR), activityType, distance, averageSpeed);
+        }
+    }
+
+}
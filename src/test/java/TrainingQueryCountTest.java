@@ -0,0 +1,92 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingRepository;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the training listings load the owning users in the same statement (no N+1 selects).
+ * Statistics are counted per session factory, so background pollers are slowed down to not add statements.
+ */
+@SpringBootTest(classes = FitnessTracker.class,
+                properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+                              "mail.outbox.poll-interval=PT1H",
+                              "training.events.spill-drain-interval=PT1H"})
+@Transactional
+public class TrainingQueryCountTest {
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // given: trainings of several distinct users, so every user would need its own select
+        for (int i = 0; i < 5; i++) {
+            User owner = userRepository.save(new User("Count", "User" + i, LocalDate.of(1990, 1, 1), "count%d@example.com".formatted(i)));
+            trainingRepository.save(new Training(owner, new Date(), new Date(), ActivityType.SWIMMING, 1.0, 2.0));
+            trainingRepository.save(new Training(owner, new Date(), new Date(), ActivityType.SWIMMING, 2.0, 2.0));
+            user = owner;
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void findAllTrainings_ShouldRunSingleStatement() {
+        assertThat(statementsOf(() -> trainingService.findAllTrainings())).isEqualTo(1);
+        assertThat(statementsOf(() -> trainingService.findAllTrainings(null, 100))).isEqualTo(1);
+    }
+
+    @Test
+    void findTrainingsByActivityType_ShouldRunSingleStatement() {
+        assertThat(statementsOf(() -> trainingService.findTrainingsByActivityType(ActivityType.SWIMMING))).isEqualTo(1);
+        assertThat(statementsOf(() -> trainingService.findTrainingsByActivityType(ActivityType.SWIMMING, null, 100))).isEqualTo(1);
+    }
+
+    @Test
+    void findTrainingsByUserId_ShouldRunSingleStatement() {
+        assertThat(statementsOf(() -> trainingService.findTrainingsByUserId(user.getId()))).isEqualTo(1);
+        assertThat(statementsOf(() -> trainingService.findTrainingsByUserId(user.getId(), null, 100))).isEqualTo(1);
+    }
+
+    @Test
+    void findTrainingsEndedBetween_ShouldRunSingleStatement() {
+        Date epoch = new Date(0);
+        assertThat(statementsOf(() -> trainingService.findTrainingsEndedAfter(epoch))).isEqualTo(1);
+        assertThat(statementsOf(() -> trainingService.findTrainingsEndedBetween(epoch, null, null, null, null, 100))).isEqualTo(1);
+    }
+
+    private long statementsOf(Runnable listing) {
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+}
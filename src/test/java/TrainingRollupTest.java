@@ -0,0 +1,174 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.statistics.internal.TrainingRollupBackfillJob;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.BulkTrainingResultDto;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rollups are written right before the training transaction commits, so these tests commit their trainings and
+ * clean up afterwards. Trainings are placed in January 2092, which starts on a Tuesday.
+ */
+@SpringBootTest(classes = FitnessTracker.class)
+@AutoConfigureMockMvc
+public class TrainingRollupTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingRollupBackfillJob trainingRollupBackfillJob;
+
+    private TrainingFixture fixture;
+
+    private User user;
+
+    private BulkTrainingResultDto created;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TrainingFixture(context);
+        user = fixture.user("Rollup", "Doe");
+        created = trainingService.createTrainings(List.of(
+                training("2092-01-02T10:00:00Z", 1, 10.0, 10.0),
+                training("2092-01-07T10:00:00Z", 1, 5.0, 15.0),
+                training("2092-01-10T10:00:00Z", 2, 12.0, 12.0),
+                training("2092-01-14T10:00:00Z", 1, 6.0, 6.0),
+                training("2092-01-15T10:00:00Z", 1, 100.0, 50.0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void summarizeTrainings_ShouldSumDailyAndWeeklyBucketsOfTheRange() throws Exception {
+        // when: partial first week, one whole week and one day of the third week
+        JsonNode summary = summarize("2092-01-02", "2092-01-14");
+
+        // then
+        assertThat(summary).hasSize(1);
+        assertSummary(summary.get(0), 4, 33.0, 5 * 3600, 15.0);
+    }
+
+    @Test
+    void summarizeTrainings_AfterDeletingTheFastestTraining_ShouldRecomputeMaxSpeed() throws Exception {
+        // when
+        trainingService.deleteTraining(created.items().get(1).id());
+
+        // then
+        assertSummary(summarize("2092-01-02", "2092-01-14").get(0), 3, 28.0, 4 * 3600, 12.0);
+    }
+
+    @Test
+    void backfill_ShouldProduceTheSameBucketsAsIncrementalUpdates() throws Exception {
+        // given
+        String incremental = rollups("DAY") + rollups("WEEK");
+
+        // when
+        trainingRollupBackfillJob.backfill();
+
+        // then
+        assertThat(rollups("DAY") + rollups("WEEK")).isEqualTo(incremental);
+        assertThat(objectMapper.readTree(rollups("WEEK"))).hasSize(3);
+    }
+
+    @Test
+    void createTrainings_ConcurrentlyInNewBuckets_ShouldCountAllTrainings() throws Exception {
+        // given
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // when: the first trainings of each day from 2092-02-04 to 2092-02-08 are created at once
+        for (int day = 4; day <= 8; day++) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<BulkTrainingResultDto>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                TrainingDto training = training("2092-02-%02dT%02d:00:00Z".formatted(day, 8 + i), 1, 5.0, 5.0);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return trainingService.createTrainings(List.of(training));
+                }));
+            }
+            start.countDown();
+            for (Future<BulkTrainingResultDto> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS).items()).allSatisfy(item -> assertThat(item.id()).isNotNull());
+            }
+        }
+        executor.shutdown();
+
+        // then
+        JsonNode days = objectMapper.readTree(rollups("DAY", "2092-02-04", "2092-02-08"));
+        assertThat(days).hasSize(5).allSatisfy(bucket -> assertThat(bucket.get("trainings").asInt()).isEqualTo(threads));
+        JsonNode weeks = objectMapper.readTree(rollups("WEEK", "2092-02-04", "2092-02-08"));
+        assertThat(weeks).hasSize(1);
+        assertThat(weeks.get(0).get("trainings").asInt()).isEqualTo(5 * threads);
+    }
+
+    private void assertSummary(JsonNode summary, int trainings, double distance, long durationSeconds, double maxSpeed) {
+        assertThat(summary.get("activityType").asText()).isEqualTo("RUNNING");
+        assertThat(summary.get("trainings").asInt()).isEqualTo(trainings);
+        assertThat(summary.get("totalDistance").asDouble()).isEqualTo(distance);
+        assertThat(summary.get("totalDurationSeconds").asLong()).isEqualTo(durationSeconds);
+        assertThat(summary.get("maxSpeed").asDouble()).isEqualTo(maxSpeed);
+    }
+
+    private JsonNode summarize(String from, String to) throws Exception {
+        String body = mockMvc.perform(get("/v1/statistics/{userId}/summary", user.getId())
+                                              .param("from", from)
+                                              .param("to", to))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private String rollups(String period) throws Exception {
+        return rollups(period, "2092-01-02", "2092-01-14");
+    }
+
+    private String rollups(String period, String from, String to) throws Exception {
+        return mockMvc.perform(get("/v1/statistics/{userId}/rollups", user.getId())
+                                       .param("period", period)
+                                       .param("from", from)
+                                       .param("to", to))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private TrainingDto training(String start, int hours, double distance, double averageSpeed) {
+        return fixture.training(user).start(start).hours(hours).distance(distance).averageSpeed(averageSpeed).build();
+    }
+
+}
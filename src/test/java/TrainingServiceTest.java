@@ -1,7 +1,9 @@
 import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.BulkTrainingResultDto;
 import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
 import com.capgemini.wsb.fitnesstracker.training.internal.TrainingMapper;
 import com.capgemini.wsb.fitnesstracker.training.internal.TrainingRepository;
@@ -100,6 +102,31 @@ public class TrainingServiceTest {
     }
 
 
+    @Test
+    void createTrainings_ShouldCreateValidTrainingsAndReportFailures() {
+        // given
+        User user = userRepository.save(new User("Bulk", "Doe", LocalDate.now(), "bulk.doe@example.com"));
+        Date start = new Date();
+        Date end = new Date(start.getTime() + 3_600_000);
+        List<TrainingDto> trainings = List.of(
+                new TrainingDto(null, new UserDto(user.getId(), null, null, null, null), start, end, ActivityType.RUNNING, 10.0, 10.0),
+                new TrainingDto(null, new UserDto(999L, null, null, null, null), start, end, ActivityType.RUNNING, 10.0, 10.0),
+                new TrainingDto(null, new UserDto(user.getId(), null, null, null, null), end, start, ActivityType.RUNNING, 10.0, 10.0),
+                new TrainingDto(null, new UserDto(user.getId(), null, null, null, null), start, end, ActivityType.SWIMMING, 1.0, 2.0));
+
+        // when
+        BulkTrainingResultDto result = trainingService.createTrainings(trainings);
+
+        // then
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.items().get(0).id()).isNotNull();
+        assertThat(result.items().get(1).error()).contains("999");
+        assertThat(result.items().get(2).error()).isNotNull();
+        assertThat(result.items().get(3).id()).isNotNull();
+        assertThat(trainingService.findTrainingsByUserId(user.getId())).hasSize(2);
+    }
+
     @Test
     void findTrainingsByActivityType_ShouldReturnFilteredTrainings() {
         // given
@@ -142,6 +169,53 @@ public class TrainingServiceTest {
         assertThat(results.get(0).getActivityType()).isEqualTo(ActivityType.RUNNING);
     }
 
+    @Test
+    public void findTrainingsEndedBetween_ShouldApplyUpperBoundAndFilters() throws Exception {
+        // Given
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+        User user = userRepository.save(new User("Range", "Doe", LocalDate.of(1990, 1, 1), "range.doe@example.com"));
+        User otherUser = userRepository.save(new User("Other", "Doe", LocalDate.of(1990, 1, 1), "other.doe@example.com"));
+
+        trainingRepository.save(new Training(user, sdf.parse("2030-01-01"), sdf.parse("2030-01-02"), ActivityType.RUNNING, 10.0, 8.0));
+        trainingRepository.save(new Training(user, sdf.parse("2030-01-01"), sdf.parse("2030-01-02"), ActivityType.CYCLING, 20.0, 10.0));
+        trainingRepository.save(new Training(user, sdf.parse("2030-02-01"), sdf.parse("2030-02-02"), ActivityType.RUNNING, 10.0, 8.0));
+        trainingRepository.save(new Training(otherUser, sdf.parse("2030-01-01"), sdf.parse("2030-01-02"), ActivityType.RUNNING, 5.0, 8.0));
+
+        // When
+        List<TrainingDto> results = trainingService.findTrainingsEndedBetween(sdf.parse("2030-01-01"),
+                                                                              sdf.parse("2030-01-31"),
+                                                                              user.getId(),
+                                                                              ActivityType.RUNNING);
+
+        // Then
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getUser().getId()).isEqualTo(user.getId());
+        assertThat(results.get(0).getActivityType()).isEqualTo(ActivityType.RUNNING);
+        assertThat(results.get(0).getDistance()).isEqualTo(10.0);
+    }
+
+    @Test
+    public void findTrainingsEndedBetween_ShouldPageThroughTrainingsWithEqualEndTime() throws Exception {
+        // Given
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+        User user = userRepository.save(new User("Paged", "Doe", LocalDate.of(1990, 1, 1), "paged.doe@example.com"));
+        for (int i = 0; i < 3; i++) {
+            trainingRepository.save(new Training(user, sdf.parse("2031-01-01"), sdf.parse("2031-01-02"), ActivityType.RUNNING, i, 8.0));
+        }
+
+        // When
+        CursorPage<TrainingDto> firstPage = trainingService.findTrainingsEndedBetween(sdf.parse("2031-01-01"), null, user.getId(), null, null, 2);
+        CursorPage<TrainingDto> secondPage = trainingService.findTrainingsEndedBetween(sdf.parse("2031-01-01"), null, user.getId(), null,
+                                                                                      firstPage.nextCursor(), 2);
+
+        // Then
+        assertThat(firstPage.items()).hasSize(2);
+        assertThat(firstPage.nextCursor()).isNotNull();
+        assertThat(secondPage.items()).hasSize(1);
+        assertThat(secondPage.nextCursor()).isNull();
+        assertThat(secondPage.items().get(0).getDistance()).isEqualTo(2.0);
+    }
+
     @Test
     public void updateTraining_UpdatesAndReturnsUpdatedTraining() {
         // Given: Existing user and training
@@ -0,0 +1,180 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The cache keeps users across transactions, so these tests commit their changes and clean up afterwards.
+ */
+@SpringBootTest(classes = FitnessTracker.class,
+                properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+                              "mail.outbox.poll-interval=PT1H",
+                              "training.events.spill-drain-interval=PT1H"})
+public class UserCacheTest {
+
+    @Autowired
+    private UserProvider userProvider;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Cache", "Doe", LocalDate.of(1990, 1, 1), "cache.doe@example.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findById(user.getId()).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void getUser_ShouldLoadUserOnceAndServeRepeatedLookupsFromCache() {
+        // given
+        double hitsBefore = cacheGets("users.byId", "hit");
+
+        // when
+        long loads = userLoadsOf(() -> {
+            for (int i = 0; i < 10; i++) {
+                assertThat(userProvider.getUser(user.getId())).isPresent();
+                assertThat(userProvider.getUserByEmail("cache.doe@example.com")).isPresent();
+            }
+        });
+
+        // then: one load by id and one by email
+        assertThat(loads).isEqualTo(2);
+        assertThat(cacheGets("users.byId", "hit") - hitsBefore).isGreaterThanOrEqualTo(9);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "users.byId").functionCounter()).isNotNull();
+    }
+
+    @Test
+    void getUser_WhenMissedConcurrently_ShouldLoadUserOnce() throws Exception {
+        // given
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // when
+        long loads;
+        try {
+            List<CompletableFuture<Optional<User>>> lookups = IntStream.range(0, callers)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        awaitQuietly(start);
+                        return userProvider.getUser(user.getId());
+                    }, executor))
+                    .toList();
+            loads = userLoadsOf(() -> {
+                start.countDown();
+                lookups.forEach(lookup -> assertThat(lookup.join()).isPresent());
+            });
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(loads).isEqualTo(1);
+    }
+
+    @Test
+    void updateUser_ShouldInvalidateCachedUserAndEmail() {
+        // given
+        userProvider.getUser(user.getId());
+        userProvider.getUserByEmail("cache.doe@example.com");
+        userProvider.getUserByEmail("cache.renamed@example.com");
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> userService.updateUser(user.getId(),
+                new User("Renamed", "Doe", LocalDate.of(1990, 1, 1), "cache.renamed@example.com")));
+
+        // then
+        assertThat(userProvider.getUser(user.getId())).map(User::getFirstName).contains("Renamed");
+        assertThat(userProvider.getUserByEmail("cache.doe@example.com")).isEmpty();
+        assertThat(userProvider.getUserByEmail("cache.renamed@example.com")).map(User::getId).contains(user.getId());
+    }
+
+    @Test
+    void deleteUser_ShouldInvalidateCachedUser() {
+        // given
+        userProvider.getUser(user.getId());
+        userProvider.getUserByEmail("cache.doe@example.com");
+
+        // when
+        userService.deleteUser(user.getId());
+
+        // then
+        assertThat(userProvider.getUser(user.getId())).isEmpty();
+        assertThat(userProvider.getUserByEmail("cache.doe@example.com")).isEmpty();
+    }
+
+    @Test
+    void getUser_WhenLoadedInRolledBackTransaction_ShouldNotKeepUncommittedUser() {
+        // given
+        Long uncommittedId = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            User uncommitted = userRepository.save(new User("Ghost", "Doe", LocalDate.of(1990, 1, 1), "ghost@example.com"));
+            assertThat(userProvider.getUser(uncommitted.getId())).isPresent();
+            assertThat(userProvider.getUserByEmail("ghost@example.com")).isPresent();
+            return uncommitted.getId();
+        });
+
+        // then
+        assertThat(userProvider.getUser(uncommittedId)).isEmpty();
+        assertThat(userProvider.getUserByEmail("ghost@example.com")).isEmpty();
+    }
+
+    private long userLoadsOf(Runnable lookups) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        lookups.run();
+        return statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.user.api.AgeBracket;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The index is updated after commit, so these tests commit their changes and clean up afterwards.
+ */
+@SpringBootTest(classes = FitnessTracker.class,
+                properties = {"mail.outbox.poll-interval=PT1H",
+                              "training.events.spill-drain-interval=PT1H"})
+public class UserSearchIndexTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        users.add(userRepository.save(new User("Marta", "Quarkowska", LocalDate.of(1990, 1, 1), "mq@quark.test")));
+        users.add(userRepository.save(new User("Quark", "Nowak", LocalDate.of(1990, 1, 1), "quark@example.test")));
+        users.add(userRepository.save(new User("Anna", "Smith", LocalDate.of(1990, 1, 1), "anna.quarkfan@example.test")));
+        users.add(userRepository.save(new User("Jan", "Kowalski", LocalDate.of(1990, 1, 1), "xquarkx@example.test")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        users.forEach(user -> userRepository.findById(user.getId()).ifPresent(userRepository::delete));
+    }
+
+    @Test
+    void searchUsers_ShouldRankExactPrefixAndWordMatchesFirst() {
+        // when
+        List<User> found = userService.searchUsers("QUARK", 10);
+
+        // then
+        assertThat(found).extracting(User::getEmail)
+                .containsExactly("quark@example.test", "mq@quark.test", "anna.quarkfan@example.test", "xquarkx@example.test");
+    }
+
+    @Test
+    void searchUsers_ShouldMatchFullNamesAndLimitResults() {
+        // when
+        List<User> byFullName = userService.searchUsers("jan kowal", 10);
+        List<User> limited = userService.searchUsers("quark", 2);
+
+        // then
+        assertThat(byFullName).extracting(User::getEmail).containsExactly("xquarkx@example.test");
+        assertThat(limited).extracting(User::getEmail).containsExactly("quark@example.test", "mq@quark.test");
+    }
+
+    @Test
+    void searchUsers_ShouldFollowUpdatesAndDeletes() {
+        // given
+        User renamed = users.get(3);
+
+        // when
+        userService.updateUser(renamed.getId(), new User(null, null, null, "renamed.zebra@example.test"));
+        userService.deleteUser(users.get(2).getId());
+
+        // then
+        assertThat(userService.searchUsers("zebra", 10)).extracting(User::getId).containsExactly(renamed.getId());
+        assertThat(userService.searchUsers("quark", 10)).extracting(User::getEmail)
+                .containsExactly("quark@example.test", "mq@quark.test");
+    }
+
+    @Test
+    void searchUsers_WhenChangeIsRolledBack_ShouldNotFindIt() {
+        // when
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(new User("Rolled", "Back", LocalDate.of(1990, 1, 1), "rolled.quark@example.test"));
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(userService.searchUsers("rolled", 10)).isEmpty();
+    }
+
+    @Test
+    void findByEmailIgnoreCaseContaining_ShouldReturnSamePagesAsDatabase() {
+        // given
+        List<String> pagedEmails = new ArrayList<>();
+        String cursor = null;
+
+        // when
+        do {
+            CursorPage<User> page = userService.findByEmailIgnoreCaseContaining("QUARK", cursor, 3);
+            page.items().forEach(user -> pagedEmails.add(user.getEmail()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // then
+        assertThat(pagedEmails).containsExactlyElementsOf(
+                userRepository.findPageByEmailContaining("quark", "", 0, Limit.unlimited()).stream().map(User::getEmail).toList());
+        assertThat(pagedEmails).hasSize(4);
+    }
+
+    @Test
+    void findUsersByAge_ShouldPageUsersOfRangeFromOldest() {
+        // given
+        LocalDate today = LocalDate.now();
+        User aged125 = saveUserBornOn(today.minusYears(126).plusDays(1), "aged125");
+        User aged123 = saveUserBornOn(today.minusYears(123).minusDays(1), "aged123");
+        User aged120 = saveUserBornOn(today.minusYears(120), "aged120");
+        saveUserBornOn(today.minusYears(126), "aged126");
+        saveUserBornOn(today.minusYears(120).plusDays(1), "aged119");
+
+        // when
+        CursorPage<User> firstPage = userService.findUsersByAge(120, 125, null, 2);
+        CursorPage<User> secondPage = userService.findUsersByAge(120, 125, firstPage.nextCursor(), 2);
+
+        // then
+        assertThat(firstPage.items()).extracting(User::getId).containsExactly(aged125.getId(), aged123.getId());
+        assertThat(secondPage.items()).extracting(User::getId).containsExactly(aged120.getId());
+        assertThat(secondPage.nextCursor()).isNull();
+        assertThatThrownBy(() -> userService.findUsersByAge(40, 30, null, 10)).isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void countUsersByAge_ShouldCountUsersInTheirBrackets() {
+        // given
+        LocalDate today = LocalDate.now();
+        List<AgeBracket> before = userService.countUsersByAge(10, 100);
+
+        // when
+        saveUserBornOn(today.minusYears(5), "aged5");
+        saveUserBornOn(today.minusYears(40).plusDays(1), "aged39");
+        saveUserBornOn(today.minusYears(40), "aged40");
+        saveUserBornOn(today.minusYears(100), "aged100");
+        List<AgeBracket> after = userService.countUsersByAge(10, 100);
+
+        // then
+        assertThat(after).hasSize(11);
+        assertThat(after.get(0)).isEqualTo(new AgeBracket(0, 9, before.get(0).users() + 1));
+        assertThat(after.get(3)).isEqualTo(new AgeBracket(30, 39, before.get(3).users() + 1));
+        assertThat(after.get(4)).isEqualTo(new AgeBracket(40, 49, before.get(4).users() + 1));
+        assertThat(after.get(10)).isEqualTo(new AgeBracket(100, null, before.get(10).users() + 1));
+        assertThat(after.stream().mapToLong(AgeBracket::users).sum() - before.stream().mapToLong(AgeBracket::users).sum())
+                .isEqualTo(4);
+    }
+
+    private User saveUserBornOn(LocalDate birthdate, String name) {
+        User user = userRepository.save(new User("Age", name, birthdate, name + "@age.test"));
+        users.add(user);
+        return user;
+    }
+
+}
@@ -1,4 +1,6 @@
 import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.pagination.api.InvalidPageRequestException;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserExistsException;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
@@ -11,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,6 +54,30 @@ public class UserServiceTest {
         });
     }
 
+    @Test
+    void createUser_ShouldThrowException_WhenEmailRegisteredThroughService() throws UserExistsException {
+        // GIVEN
+        userService.createUser(new User("First", "Signup", LocalDate.of(2000, 1, 1), "signup@example.com"));
+
+        // WHEN + THEN
+        assertThrows(UserExistsException.class, () -> {
+            userService.createUser(new User("Second", "Signup", LocalDate.of(2000, 1, 1), "signup@example.com"));
+        });
+    }
+
+    @Test
+    void createUser_ShouldAllowEmailOfDeletedUser() throws UserExistsException {
+        // GIVEN
+        User user = userService.createUser(new User("Deleted", "Signup", LocalDate.of(2000, 1, 1), "deletedsignup@example.com"));
+        userService.deleteUser(user.getId());
+
+        // WHEN
+        User created = userService.createUser(new User("Again", "Signup", LocalDate.of(2000, 1, 1), "deletedsignup@example.com"));
+
+        // THEN
+        assertNotNull(created.getId());
+    }
+
     @Test
     void getUser_ShouldRetrieveUser() {
         // GIVEN
@@ -90,6 +117,49 @@ public class UserServiceTest {
         assertFalse(users.isEmpty());
     }
 
+    @Test
+    void findAllUsers_ShouldWalkAllPagesWithCursor() {
+        // GIVEN
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(new User("Paged", "User" + i, LocalDate.of(2000, 1, 1), "paged%d@example.com".formatted(i)));
+        }
+        long total = userRepository.count();
+
+        // WHEN
+        List<User> users = new ArrayList<>();
+        CursorPage<User> page = userService.findAllUsers(null, 3);
+        users.addAll(page.items());
+        while (page.nextCursor() != null) {
+            page = userService.findAllUsers(page.nextCursor(), 3);
+            users.addAll(page.items());
+        }
+
+        // THEN
+        assertEquals(total, users.size());
+        assertEquals(total, users.stream().map(User::getId).distinct().count());
+    }
+
+    @Test
+    void findUsersOlderThan_ShouldPageByBirthdate() {
+        // GIVEN
+        User oldest = userRepository.save(new User("Oldest", "User", LocalDate.of(1900, 1, 1), "oldest@example.com"));
+        User secondOldest = userRepository.save(new User("Second", "Oldest", LocalDate.of(1900, 1, 2), "secondoldest@example.com"));
+
+        // WHEN
+        CursorPage<User> firstPage = userService.findUsersOlderThan(100, null, 1);
+        CursorPage<User> secondPage = userService.findUsersOlderThan(100, firstPage.nextCursor(), 1);
+
+        // THEN
+        assertEquals(List.of(oldest), firstPage.items());
+        assertEquals(List.of(secondOldest), secondPage.items());
+    }
+
+    @Test
+    void findAllUsers_ShouldRejectMalformedCursor() {
+        // WHEN + THEN
+        assertThrows(InvalidPageRequestException.class, () -> userService.findAllUsers("not-a-cursor", 10));
+    }
+
     @Test
     void deleteUser_ShouldRemoveUser() {
         // GIVEN
@@ -0,0 +1,140 @@
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.report.internal.WeeklyReportChunkRepository;
+import com.capgemini.wsb.fitnesstracker.report.internal.WeeklyReportJob;
+import com.capgemini.wsb.fitnesstracker.report.internal.WeeklyReportResultDto;
+import com.capgemini.wsb.fitnesstracker.report.internal.WeeklyReportRunRepository;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.internal.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * The report reads the weekly rollups, which are written when the training transaction commits, so these tests
+ * commit their trainings and clean up afterwards. Small chunks make sure the users span several of them.
+ */
+@SpringBootTest(classes = FitnessTracker.class,
+                properties = {"report.weekly.chunk-size=4", "report.weekly.parallelism=2", "report.weekly.cron=-"})
+public class WeeklyReportTest {
+
+    private static final LocalDate WEEK_START = LocalDate.of(2093, 3, 2);
+
+    @MockBean
+    private EmailSender emailSender;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private WeeklyReportJob weeklyReportJob;
+
+    @Autowired
+    private WeeklyReportRunRepository runRepository;
+
+    @Autowired
+    private WeeklyReportChunkRepository chunkRepository;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TrainingFixture fixture;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TrainingFixture(context);
+        user = fixture.user("Report", "Doe");
+        trainingService.createTrainings(List.of(
+                training("2093-03-03T07:00:00Z", 1, ActivityType.RUNNING),
+                training("2093-03-07T07:00:00Z", 2, ActivityType.CYCLING),
+                training("2093-03-09T07:00:00Z", 1, ActivityType.RUNNING)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        chunkRepository.deleteAll();
+        runRepository.deleteAll();
+        fixture.cleanUp();
+    }
+
+    @Test
+    void run_ShouldSendSummaryOfTheWeekToEveryUser() {
+        // when
+        WeeklyReportResultDto result = weeklyReportJob.run(WEEK_START);
+
+        // then
+        assertThat(result.reports()).isEqualTo(userRepository.count());
+        assertThat(result.failedChunks()).isZero();
+        ArgumentCaptor<EmailDto> emails = ArgumentCaptor.forClass(EmailDto.class);
+        verify(emailSender, atLeastOnce()).send(emails.capture());
+        assertThat(emails.getAllValues()).hasSize(result.reports());
+        EmailDto report = emails.getAllValues().stream()
+                .filter(email -> email.toAddress().equals("report.doe@example.com"))
+                .findFirst().orElseThrow();
+        assertThat(report.content()).contains("you completed 2 trainings and spent 3h 00min on activities");
+    }
+
+    @Test
+    void run_WhenWeekWasAlreadyReported_ShouldSendNothing() {
+        // given
+        weeklyReportJob.run(WEEK_START);
+        clearInvocations(emailSender);
+
+        // when
+        WeeklyReportResultDto result = weeklyReportJob.run(WEEK_START);
+
+        // then
+        assertThat(result.chunks()).isZero();
+        verifyNoInteractions(emailSender);
+    }
+
+    @Test
+    void run_WhenPreviousRunWasInterrupted_ShouldResumeWithTheMissingChunk() {
+        // given: a run which stopped before completing the chunk of the first users
+        WeeklyReportResultDto first = weeklyReportJob.run(WEEK_START);
+        jdbcTemplate.update("update weekly_report_runs set finished_at = null");
+        jdbcTemplate.update("delete from weekly_report_chunks where chunk_index = 0");
+        clearInvocations(emailSender);
+
+        // when
+        WeeklyReportResultDto resumed = weeklyReportJob.run(WEEK_START);
+
+        // then
+        assertThat(resumed.chunks()).isEqualTo(1);
+        assertThat(resumed.skippedChunks()).isEqualTo(first.chunks() - 1);
+        assertThat(resumed.reports()).isEqualTo(userRepository.findByIdBetweenOrderById(1, 4).size());
+        assertThat(runRepository.findById(WEEK_START).orElseThrow().getFinishedAt()).isNotNull();
+    }
+
+    private TrainingDto training(String start, int hours, ActivityType activityType) {
+        return fixture.training(user).start(start).hours(hours).activityType(activityType).build();
+    }
+
+}